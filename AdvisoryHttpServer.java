@@ -0,0 +1,322 @@
+import com.sun.net.httpserver.Headers;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * JSON recommendation service over the crop catalog, for clients without the Swing UI.
+ *
+ * Endpoints (GET or HEAD, parameters in the query string):
+ * <pre>
+ *   /api/recommendations?soil=&amp;season=&amp;region=[&amp;limit=10]   best crops for a plot
+ *   /api/search?q=[&amp;limit=20]                              crops by name, season or region
+ *   /api/soil?soil=[&amp;limit=100]                            crops for a soil type
+ *   /api/reports                                           per-region and per-season totals
+ *   /api/health                                            catalog size and cache counters
+ * </pre>
+ * Rows have the same fields as the JSON exports. Responses carry a Content-Length, so
+ * HTTP/1.1 clients keep their connections open between requests.
+ *
+ * Requests are handled on virtual threads where the JVM has them. Response bodies are
+ * serialized once and kept in an LRU cache keyed by the request URI; an entry is only served
+ * while the catalog version it was built from is current, so edits show up on the next request.
+ *
+ * Usage: java FarmerAdvisoryApp --server [--port 8080] [--cache 4096] [--data catalog.dat]
+ */
+final class AdvisoryHttpServer {
+
+    static final int DEFAULT_PORT = 8080;
+    static final int DEFAULT_CACHE_ENTRIES = 4096;
+
+    private static final int BACKLOG = 1024;
+    private static final String JSON_TYPE = "application/json; charset=utf-8";
+
+    private final CropCatalog catalog;
+    private final HttpServer server;
+    private final ExecutorService executor;
+    private final ResponseCache cache;
+    private final AtomicLong requests = new AtomicLong();
+
+    AdvisoryHttpServer(CropCatalog catalog, int port, int cacheEntries) throws IOException {
+        this.catalog = catalog;
+        this.cache = new ResponseCache(cacheEntries);
+        // The JDK server writes headers and body separately; without TCP_NODELAY every
+        // keep-alive response waits out the client's delayed ACK (about 40 ms). Read once,
+        // when the first server is created.
+        if (System.getProperty("sun.net.httpserver.nodelay") == null) {
+            System.setProperty("sun.net.httpserver.nodelay", "true");
+        }
+        this.server = HttpServer.create(new InetSocketAddress(port), BACKLOG);
+        this.executor = BackgroundTasks.newExecutor("http");
+        server.setExecutor(executor);
+        server.createContext("/api/", this::handle);
+    }
+
+    public static void main(String[] args) {
+        int port = DEFAULT_PORT;
+        int cacheEntries = DEFAULT_CACHE_ENTRIES;
+        Path data = CatalogFile.defaultPath();
+        try {
+            for (int i = 0; i < args.length; i++) {
+                String arg = args[i];
+                if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + arg);
+                String value = args[++i];
+                switch (arg) {
+                    case "--port": port = Integer.parseInt(value); break;
+                    case "--cache": cacheEntries = Integer.parseInt(value); break;
+                    case "--data": data = Paths.get(value); break;
+                    default: throw new IllegalArgumentException("Unknown option: " + arg);
+                }
+            }
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: --server [--port 8080] [--cache 4096] [--data catalog.dat]");
+            System.exit(2);
+        }
+        try {
+            CropCatalog catalog = Files.exists(data) ? CropCatalog.open(data) : CropCatalog.withDefaults();
+            AdvisoryHttpServer server = new AdvisoryHttpServer(catalog, port, cacheEntries);
+            server.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(server::stop, "http-stop"));
+            System.err.printf("Serving %,d crops on http://localhost:%d/api/%n", catalog.crops().size(), server.port());
+        } catch (IOException e) {
+            System.err.println("Server failed to start: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    void start() {
+        server.start();
+    }
+
+    void stop() {
+        server.stop(1);
+        executor.shutdown();
+    }
+
+    /**
+     * The port the server listens on, useful when it was created with port 0.
+     */
+    int port() {
+        return server.getAddress().getPort();
+    }
+
+    ResponseCache cache() {
+        return cache;
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try (InputStream body = exchange.getRequestBody()) {
+            // Drain any request body so the connection can be reused
+            body.transferTo(OutputStream.nullOutputStream());
+        }
+        requests.incrementAndGet();
+        String method = exchange.getRequestMethod();
+        if (!method.equals("GET") && !method.equals("HEAD")) {
+            exchange.getResponseHeaders().set("Allow", "GET, HEAD");
+            send(exchange, 405, error("Only GET and HEAD are supported"));
+            return;
+        }
+        String path = exchange.getRequestURI().getRawPath();
+        if (path.equals("/api/health")) {
+            send(exchange, 200, health());
+            return;
+        }
+
+        String uri = exchange.getRequestURI().toString();
+        CropCatalog.Version version = catalog.current();
+        byte[] response = cache.get(uri, version.number);
+        if (response == null) {
+            try {
+                response = respond(path, parameters(exchange.getRequestURI().getRawQuery()), version);
+            } catch (IllegalArgumentException e) {
+                send(exchange, 400, error(e.getMessage()));
+                return;
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+                send(exchange, 500, error("Internal error"));
+                return;
+            }
+            if (response == null) {
+                send(exchange, 404, error("No such endpoint: " + path));
+                return;
+            }
+            cache.put(uri, version.number, response);
+        }
+        send(exchange, 200, response);
+    }
+
+    // The serialized response for an endpoint, or null if there is no such endpoint
+    private byte[] respond(String path, Map<String, String> params, CropCatalog.Version version) throws IOException {
+        switch (path) {
+            case "/api/recommendations": {
+                List<AdvisorySystemGUI.Recommendation> recs = version.scoringModel().recommend(
+                        required(params, "soil"), required(params, "season"), required(params, "region"),
+                        limit(params, 10));
+                return json(DataExporter.RECOMMENDATION_COLUMNS, recs.iterator());
+            }
+            case "/api/search": {
+                // The text index follows the latest version. It is updated before a version is
+                // published, so it is never older than this one and the body can be cached under it
+                List<AdvisorySystemGUI.Crop> crops = catalog.textIndex().search(required(params, "q"), limit(params, 20), true);
+                return json(DataExporter.CROP_COLUMNS, crops.iterator());
+            }
+            case "/api/soil": {
+                CropStore store = version.store();
+                int[] rows = store.filterSoil(required(params, "soil"));
+                int count = Math.min(rows.length, limit(params, 100));
+                List<AdvisorySystemGUI.Crop> crops = new ArrayList<>(count);
+                for (int i = 0; i < count; i++) crops.add(store.crops().get(rows[i]));
+                return json(DataExporter.CROP_COLUMNS, crops.iterator());
+            }
+            case "/api/reports":
+                return json(DataExporter.GROUP_COLUMNS, DataExporter.groupRows(version.aggregates()));
+            default:
+                return null;
+        }
+    }
+
+    private byte[] health() {
+        CropCatalog.Version version = catalog.current();
+        return ("{\"status\":\"ok\",\"version\":" + version.number
+                + ",\"crops\":" + version.crops.size()
+                + ",\"regions\":" + version.regions.size()
+                + ",\"requests\":" + requests.get()
+                + ",\"cache_hits\":" + cache.hits()
+                + ",\"cache_misses\":" + cache.misses() + "}\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static <T> byte[] json(List<DataExporter.Column<T>> columns, Iterator<? extends T> rows) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(1024);
+        DataExporter.write(out, DataExporter.Format.JSON, columns, rows);
+        return out.toByteArray();
+    }
+
+    private static byte[] error(String message) {
+        return ("{\"error\":" + Json.quote(message) + "}\n").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void send(HttpExchange exchange, int status, byte[] body) throws IOException {
+        Headers headers = exchange.getResponseHeaders();
+        headers.set("Content-Type", JSON_TYPE);
+        if (exchange.getRequestMethod().equals("HEAD")) {
+            headers.set("Content-Length", Integer.toString(body.length));
+            exchange.sendResponseHeaders(status, -1);
+            exchange.close();
+            return;
+        }
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parameters(String rawQuery) {
+        Map<String, String> params = new HashMap<>();
+        if (rawQuery == null || rawQuery.isEmpty()) return params;
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = eq < 0 ? pair : pair.substring(0, eq);
+            String value = eq < 0 ? "" : pair.substring(eq + 1);
+            params.put(URLDecoder.decode(name, StandardCharsets.UTF_8), URLDecoder.decode(value, StandardCharsets.UTF_8));
+        }
+        return params;
+    }
+
+    private static String required(Map<String, String> params, String name) {
+        String value = params.get(name);
+        if (value == null || value.trim().isEmpty()) throw new IllegalArgumentException("Missing parameter '" + name + "'");
+        return value.trim();
+    }
+
+    private static int limit(Map<String, String> params, int defaultLimit) {
+        String value = params.get("limit");
+        if (value == null) return defaultLimit;
+        try {
+            int limit = Integer.parseInt(value.trim());
+            if (limit > 0) return limit;
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException("'limit' expects a positive number, got " + value);
+    }
+
+    /**
+     * Bounded LRU cache of serialized response bodies, each tagged with the catalog version
+     * it was built from.
+     */
+    static final class ResponseCache {
+        private final LinkedHashMap<String, Entry> entries;
+        private long hits;
+        private long misses;
+
+        private static final class Entry {
+            final long version;
+            final byte[] body;
+
+            Entry(long version, byte[] body) {
+                this.version = version;
+                this.body = body;
+            }
+        }
+
+        ResponseCache(int capacity) {
+            this.entries = new LinkedHashMap<String, Entry>(16, 0.75f, true) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                    return size() > capacity;
+                }
+            };
+        }
+
+        /**
+         * The cached body for {@code uri} if it was built from catalog version {@code version}.
+         */
+        synchronized byte[] get(String uri, long version) {
+            Entry entry = entries.get(uri);
+            if (entry != null && entry.version == version) {
+                hits++;
+                return entry.body;
+            }
+            misses++;
+            return null;
+        }
+
+        synchronized void put(String uri, long version, byte[] body) {
+            Entry entry = entries.get(uri);
+            // Never replace a response built from a newer version
+            if (entry == null || entry.version <= version) entries.put(uri, new Entry(version, body));
+        }
+
+        synchronized long hits() {
+            return hits;
+        }
+
+        synchronized long misses() {
+            return misses;
+        }
+
+        @Override
+        public synchronized String toString() {
+            long total = hits + misses;
+            return String.format("%d entries, %d hits, %d misses (%.1f%% hit rate)",
+                    entries.size(), hits, misses, total == 0 ? 0.0 : 100.0 * hits / total);
+        }
+    }
+}
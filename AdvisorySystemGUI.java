@@ -3,13 +3,20 @@ import javax.swing.table.*;
 import java.awt.*;
 import java.awt.event.*;
 import java.io.*;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
 import java.util.*;
 import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.function.Function;
 
 
 public class AdvisorySystemGUI extends JFrame {
 
-    private static final Color PRIMARY_COLOR = new Color(34, 139, 87);         // Forest Green
+    private static final Color PRIMARY_COLOR = UiStyles.PRIMARY;               // Forest Green
     private static final Color PRIMARY_DARK = new Color(25, 100, 65);          // Darker Green
     private static final Color PRIMARY_LIGHT = new Color(46, 184, 116);        // Lighter Green
     private static final Color SECONDARY_COLOR = new Color(46, 204, 113);      // Emerald
@@ -27,7 +34,7 @@ public class AdvisorySystemGUI extends JFrame {
     private static final Color SUCCESS_COLOR = new Color(34, 197, 94);         // Green
     
     // Text Colors
-    private static final Color TEXT_PRIMARY = new Color(15, 23, 42);           // Slate 900
+    private static final Color TEXT_PRIMARY = UiStyles.TEXT_PRIMARY;           // Slate 900
     private static final Color TEXT_SECONDARY = new Color(100, 116, 139);      // Slate 500
     private static final Color TEXT_LIGHT = new Color(203, 213, 225);          // Slate 300
     
@@ -52,87 +59,63 @@ public class AdvisorySystemGUI extends JFrame {
     private static final int BORDER_RADIUS = 8;
     private static final int CARD_GAP = 16;
     private static final int SIDEBAR_WIDTH = 240;
+    private static final int LOADING_DIALOG_DELAY_MS = 300;
+
+    // Values offered when adding or editing a crop; imports are validated against them too
+    static final String[] SEASONS = {"Rabi (Winter)", "Kharif (Summer)", "Both Seasons", "Perennial"};
+    static final String[] SOIL_TYPES = {"Loamy", "Clay", "Sandy", "Sandy Loam", "Clay Loam"};
+    static final String[] WATER_LEVELS = {"Low", "Medium", "High"};
 
     // UI State
-    private JDialog loadingDialog;
+    // Progress dialog of each running task that has one, shown or still waiting out the delay
+    private final Map<BackgroundTasks.Task<?>, JDialog> loadingDialogs = new IdentityHashMap<>();
     private JPanel notificationPanel;
     private JLabel statusLabel;
 
 
     // Data Structures
-    private ArrayList<Crop> crops = new ArrayList<>();
-    private HashMap<String, Region> regions = new HashMap<>();
-    private Queue<String> historyLogs = new LinkedList<>();
-    private Set<String> cropNames = new HashSet<>();
-    private ArrayList<User> users = new ArrayList<>();
+    private final CropCatalog catalog;
+    private final AuditLog auditLog;
+    private final AuditHistory auditHistory;
+    private final UserStore userStore;
+    private final ModelEvents modelEvents;
+    private final BackgroundTasks tasks = BackgroundTasks.shared();
 
     // Current session
     private User currentUser;
 
     // GUI Components
-    private CardLayout cardLayout;
-    private JPanel contentPanel;
+    private LazyCardPanel contentPanel;
 
 
     public AdvisorySystemGUI() {
-        initializeData();
-        showLoginScreen();
+        this(StartupLoader.load(null));
     }
 
+    /**
+     * Build the window from data that {@link StartupLoader} has already loaded.
+     */
+    AdvisorySystemGUI(StartupLoader.Result data) {
+        catalog = data.catalog;
+        auditLog = data.auditLog;
+        auditHistory = data.auditHistory;
+        userStore = new UserStore(catalog);
+        modelEvents = new ModelEvents(catalog, auditLog);
+        initializeData(data);
+        showLoginScreen();
+    }
 
-    private void initializeData() {
-        // Add default users
-        users.add(new User("admin", "admin123", "ADMIN"));
-        users.add(new User("farmer", "farmer123", "FARMER"));
-        users.add(new User("ali", "ali123", "FARMER"));
-
-        // Add Mianwali District regions (Tehsils)
-        regions.put("Mianwali City", new Region("Mianwali City", "Semi-Arid", 380, "Wheat,Chickpea,Sugarcane"));
-        regions.put("Piplan", new Region("Piplan", "Semi-Arid", 350, "Wheat,Maize,Groundnut"));
-        regions.put("Isa Khel", new Region("Isa Khel", "Arid", 300, "Sorghum,Millet,Chickpea"));
-        regions.put("Wan Bhachran", new Region("Wan Bhachran", "Semi-Arid", 320, "Wheat,Barley,Lentils"));
-        regions.put("Kalabagh", new Region("Kalabagh", "Arid", 280, "Dates,Wheat,Cotton"));
-
-        // Add 20 crops common in Mianwali region
-        addCrop(new Crop("Wheat", "Rabi (Winter)", "Loamy", "Mianwali City", "Medium", 3.8));
-        addCrop(new Crop("Chickpea", "Rabi (Winter)", "Sandy Loam", "Mianwali City", "Low", 1.2));
-        addCrop(new Crop("Sugarcane", "Kharif (Summer)", "Clay Loam", "Mianwali City", "High", 55.0));
-        addCrop(new Crop("Maize", "Kharif (Summer)", "Loamy", "Piplan", "Medium", 3.5));
-        addCrop(new Crop("Groundnut", "Kharif (Summer)", "Sandy Loam", "Piplan", "Medium", 2.0));
-        addCrop(new Crop("Sorghum", "Kharif (Summer)", "Sandy", "Isa Khel", "Low", 2.2));
-        addCrop(new Crop("Millet", "Kharif (Summer)", "Sandy", "Isa Khel", "Low", 1.8));
-        addCrop(new Crop("Barley", "Rabi (Winter)", "Loamy", "Wan Bhachran", "Low", 2.5));
-        addCrop(new Crop("Lentils", "Rabi (Winter)", "Clay", "Wan Bhachran", "Low", 1.0));
-        addCrop(new Crop("Cotton", "Kharif (Summer)", "Sandy Loam", "Kalabagh", "Medium", 2.8));
-        addCrop(new Crop("Mustard", "Rabi (Winter)", "Loamy", "Mianwali City", "Low", 1.5));
-        addCrop(new Crop("Sunflower", "Kharif (Summer)", "Sandy Loam", "Piplan", "Medium", 2.0));
-        addCrop(new Crop("Rice", "Kharif (Summer)", "Clay", "Mianwali City", "High", 4.2));
-        addCrop(new Crop("Onion", "Both Seasons", "Loamy", "Wan Bhachran", "Medium", 18.0));
-        addCrop(new Crop("Tomato", "Both Seasons", "Sandy Loam", "Piplan", "Medium", 25.0));
-        addCrop(new Crop("Potato", "Rabi (Winter)", "Sandy Loam", "Mianwali City", "Medium", 22.0));
-        addCrop(new Crop("Mango", "Perennial", "Loamy", "Kalabagh", "Medium", 12.0));
-        addCrop(new Crop("Citrus", "Perennial", "Sandy Loam", "Isa Khel", "Medium", 15.0));
-        addCrop(new Crop("Fodder", "Both Seasons", "Clay Loam", "Wan Bhachran", "High", 40.0));
-        addCrop(new Crop("Sesame", "Kharif (Summer)", "Sandy", "Kalabagh", "Low", 0.8));
 
+    private void initializeData(StartupLoader.Result data) {
+        // Users, crops and regions are loaded by CropCatalog
         addHistory("System initialized - Mianwali District Agriculture Advisory");
+        addHistory(data.summary());
     }
 
 
 
-    private boolean addCrop(Crop crop) {
-        if (cropNames.contains(crop.name.toLowerCase())) {
-            return false;
-        }
-        crops.add(crop);
-        cropNames.add(crop.name.toLowerCase());
-        return true;
-    }
-
-
     private void addHistory(String log) {
-        historyLogs.offer("[" + new java.text.SimpleDateFormat("yyyy-MM-dd HH:mm:ss").format(new Date()) + "] " + log);
-        if (historyLogs.size() > 100) historyLogs.poll();
+        auditLog.log(log);
     }
 
 
@@ -194,12 +177,9 @@ public class AdvisorySystemGUI extends JFrame {
         fieldsPanel.add(createStyledLabel("Password", LABEL_FONT, TEXT_PRIMARY));
         fieldsPanel.add(Box.createRigidArea(new Dimension(0, 5)));
         JPasswordField passwordField = new JPasswordField(20);
-        passwordField.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        passwordField.setFont(UiStyles.BODY_FONT);
         passwordField.setMaximumSize(new Dimension(320, 40));
-        passwordField.setBorder(BorderFactory.createCompoundBorder(
-            BorderFactory.createLineBorder(new Color(200, 200, 200)),
-            BorderFactory.createEmptyBorder(8, 10, 8, 10)
-        ));
+        passwordField.setBorder(UiStyles.FIELD_BORDER);
         fieldsPanel.add(passwordField);
         fieldsPanel.add(Box.createRigidArea(new Dimension(0, 15)));
 
@@ -207,7 +187,7 @@ public class AdvisorySystemGUI extends JFrame {
         fieldsPanel.add(createStyledLabel("Login As", LABEL_FONT, TEXT_PRIMARY));
         fieldsPanel.add(Box.createRigidArea(new Dimension(0, 5)));
         JComboBox<String> roleBox = new JComboBox<>(new String[]{"ADMIN", "FARMER"});
-        roleBox.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        roleBox.setFont(UiStyles.BODY_FONT);
         roleBox.setMaximumSize(new Dimension(320, 40));
         fieldsPanel.add(roleBox);
         fieldsPanel.add(Box.createRigidArea(new Dimension(0, 25)));
@@ -217,32 +197,50 @@ public class AdvisorySystemGUI extends JFrame {
         loginBtn.setMaximumSize(new Dimension(320, 45));
         loginBtn.setAlignmentX(Component.LEFT_ALIGNMENT);
         ActionListener loginAction = e -> {
+            if (!loginBtn.isEnabled()) return;
             String username = usernameField.getText().trim();
-            String password = new String(passwordField.getPassword());
+            char[] password = passwordField.getPassword();
             String role = (String) roleBox.getSelectedItem();
 
-            if (username.isEmpty() || password.isEmpty()) {
+            if (username.isEmpty() || password.length == 0) {
                 showErrorBanner("Please enter username and password");
                 return;
             }
 
-            User user = users.stream()
-                    .filter(u -> u.username.equals(username) && u.password.equals(password) && u.role.equals(role))
-                    .findFirst().orElse(null);
-
-            if (user != null) {
-                currentUser = user;
-                addHistory("User logged in: " + username + " (" + role + ")");
-                getContentPane().removeAll();
-                if ("ADMIN".equals(role)) {
-                    showAdminPanel();
-                } else {
-                    showFarmerPanel();
-                }
-            } else {
-                showErrorBanner("Invalid credentials or role mismatch");
-                passwordField.setText("");
-            }
+            // Password hashing takes a noticeable fraction of a second; keep it off the EDT
+            loginBtn.setEnabled(false);
+            tasks.<UserStore.Login>newTask("login", t -> {
+                        try {
+                            return userStore.authenticate(username, password, role);
+                        } finally {
+                            Arrays.fill(password, '\0');
+                        }
+                    })
+                    .onDone(login -> {
+                        if (login.succeeded()) {
+                            currentUser = login.user;
+                            addHistory("User logged in: " + username + " (" + role + ")");
+                            getContentPane().removeAll();
+                            if ("ADMIN".equals(role)) {
+                                showAdminPanel();
+                            } else {
+                                showFarmerPanel();
+                            }
+                        } else if (login.locked()) {
+                            showErrorBanner("Too many failed attempts. Try again in "
+                                    + (login.retryAfterMillis + 999) / 1000 + " seconds");
+                            passwordField.setText("");
+                        } else {
+                            showErrorBanner("Invalid credentials or role mismatch");
+                            passwordField.setText("");
+                        }
+                    })
+                    .onFailure(ex -> {
+                        ex.printStackTrace();
+                        showErrorBanner("Login failed");
+                    })
+                    .onFinished(() -> loginBtn.setEnabled(true))
+                    .start();
         };
 
         loginBtn.addActionListener(loginAction);
@@ -275,17 +273,7 @@ public class AdvisorySystemGUI extends JFrame {
         mainPanel.setBackground(BACKGROUND_COLOR);
 
         // Professional Header with gradient
-        JPanel headerPanel = new JPanel(new BorderLayout()) {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2 = (Graphics2D) g;
-                g2.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
-                GradientPaint gp = new GradientPaint(0, 0, PRIMARY_COLOR, getWidth(), 0, PRIMARY_DARK);
-                g2.setPaint(gp);
-                g2.fillRect(0, 0, getWidth(), getHeight());
-            }
-        };
+        JPanel headerPanel = new DecoratedPanel(new BorderLayout(), "admin-header", HEADER_GRADIENT);
         headerPanel.setPreferredSize(new Dimension(0, 90));
         headerPanel.setBorder(BorderFactory.createEmptyBorder(20, 30, 20, 30));
 
@@ -313,13 +301,13 @@ public class AdvisorySystemGUI extends JFrame {
         contentPanel.setBackground(BACKGROUND_COLOR);
         contentPanel.setBorder(BorderFactory.createEmptyBorder(PADDING_MEDIUM, PADDING_LARGE, 0, PADDING_LARGE));
 
-        // Stats Cards Panel - professional with icons
+        // Stats Cards Panel - professional with icons, kept current by model events
         JPanel statsPanel = new JPanel(new GridLayout(1, 4, CARD_GAP, 0));
         statsPanel.setOpaque(false);
-        statsPanel.add(createStatCard("Total Crops", String.valueOf(crops.size()), SUCCESS_COLOR));
-        statsPanel.add(createStatCard("Regions", String.valueOf(regions.size()), INFO_COLOR));
-        statsPanel.add(createStatCard("Active Users", String.valueOf(users.size()), new Color(139, 92, 246)));
-        statsPanel.add(createStatCard("Actions", String.valueOf(historyLogs.size()), WARNING_COLOR));
+        statsPanel.add(createStatCard("Total Crops", ModelEvents.Counter.CROPS, SUCCESS_COLOR));
+        statsPanel.add(createStatCard("Regions", ModelEvents.Counter.REGIONS, INFO_COLOR));
+        statsPanel.add(createStatCard("Active Users", ModelEvents.Counter.USERS, UiStyles.VIOLET));
+        statsPanel.add(createStatCard("Actions", ModelEvents.Counter.LOG_ENTRIES, WARNING_COLOR));
         contentPanel.add(statsPanel, BorderLayout.NORTH);
 
         // Action Cards Grid
@@ -337,8 +325,8 @@ public class AdvisorySystemGUI extends JFrame {
         actionsPanel.add(createActionCard("Add Crop", "Register new crop variety", SUCCESS_COLOR, e -> showAddCropDialog()));
         actionsPanel.add(createActionCard("Update Crop", "Modify crop information", INFO_COLOR, e -> showUpdateCropDialog()));
         actionsPanel.add(createActionCard("Delete Crop", "Remove from database", DANGER_COLOR, e -> showDeleteCropDialog()));
-        actionsPanel.add(createActionCard("Manage Regions", "View tehsil data", new Color(139, 92, 246), e -> showManageRegionsDialog()));
-        actionsPanel.add(createActionCard("View Users", "Manage system users", new Color(6, 182, 212), e -> showViewUsersDialog()));
+        actionsPanel.add(createActionCard("Manage Regions", "View tehsil data", UiStyles.VIOLET, e -> showManageRegionsDialog()));
+        actionsPanel.add(createActionCard("View Users", "Manage system users", UiStyles.CYAN, e -> showViewUsersDialog()));
         actionsPanel.add(createActionCard("Reports", "Analytics & statistics", WARNING_COLOR, e -> showReportsDialog()));
         
         actionsWrapper.add(actionsPanel, BorderLayout.CENTER);
@@ -348,12 +336,14 @@ public class AdvisorySystemGUI extends JFrame {
 
         // Professional Status Bar
         JPanel statusBar = new JPanel(new BorderLayout());
-        statusBar.setBackground(new Color(248, 250, 252));
+        statusBar.setBackground(UiStyles.STATUS_BAR);
         statusBar.setBorder(BorderFactory.createCompoundBorder(
             BorderFactory.createMatteBorder(1, 0, 0, 0, BORDER_COLOR),
             BorderFactory.createEmptyBorder(8, 20, 8, 20)
         ));
-        statusLabel = createStyledLabel("Ready | Database: " + crops.size() + " crops, " + regions.size() + " regions", SMALL_FONT, TEXT_SECONDARY);
+        statusLabel = createStyledLabel(" ", SMALL_FONT, TEXT_SECONDARY);
+        updateStatusBar();
+        modelEvents.subscribe(statusLabel, change -> updateStatusBar());
         JLabel versionLabel = createStyledLabel("Farmer Advisory System v1.0.0", SMALL_FONT, TEXT_SECONDARY);
         statusBar.add(statusLabel, BorderLayout.WEST);
         statusBar.add(versionLabel, BorderLayout.EAST);
@@ -377,13 +367,21 @@ public class AdvisorySystemGUI extends JFrame {
         
         JMenuItem refreshItem = new JMenuItem("Refresh Data");
         refreshItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_R, KeyEvent.CTRL_DOWN_MASK));
-        refreshItem.addActionListener(e -> { showSuccessBanner("Data refreshed!"); updateStatusBar(); });
+        refreshItem.addActionListener(e -> { showSuccessBanner("Data refreshed!"); modelEvents.changed(); });
+        
+        JMenuItem exportItem = new JMenuItem("Export Crops...");
+        exportItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_E, KeyEvent.CTRL_DOWN_MASK));
+        exportItem.addActionListener(e -> {
+            List<Crop> crops = catalog.crops();
+            exportRows("crops", DataExporter.CROP_COLUMNS, crops.iterator(), crops.size());
+        });
         
         JMenuItem exitItem = new JMenuItem("Exit");
         exitItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_Q, KeyEvent.CTRL_DOWN_MASK));
         exitItem.addActionListener(e -> { if (showConfirmDialog("Exit", "Exit application?")) System.exit(0); });
         
         fileMenu.add(refreshItem);
+        fileMenu.add(exportItem);
         fileMenu.addSeparator();
         fileMenu.add(exitItem);
 
@@ -396,6 +394,10 @@ public class AdvisorySystemGUI extends JFrame {
         addCropItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_N, KeyEvent.CTRL_DOWN_MASK));
         addCropItem.addActionListener(e -> showAddCropDialog());
         
+        JMenuItem importCropsItem = new JMenuItem("Import Crops...");
+        importCropsItem.setAccelerator(KeyStroke.getKeyStroke(KeyEvent.VK_I, KeyEvent.CTRL_DOWN_MASK));
+        importCropsItem.addActionListener(e -> showImportCropsDialog());
+        
         JMenuItem viewRegionsItem = new JMenuItem("View Regions");
         viewRegionsItem.addActionListener(e -> showManageRegionsDialog());
         
@@ -408,6 +410,7 @@ public class AdvisorySystemGUI extends JFrame {
         historyItem.addActionListener(e -> showHistoryDialog());
         
         dataMenu.add(addCropItem);
+        dataMenu.add(importCropsItem);
         dataMenu.add(viewRegionsItem);
         dataMenu.add(viewUsersItem);
         dataMenu.addSeparator();
@@ -480,7 +483,7 @@ public class AdvisorySystemGUI extends JFrame {
         JPanel card = createCardPanel();
         card.setLayout(new BorderLayout());
         
-        JLabel valueLabel = createStyledLabel(value, new Font("Segoe UI", Font.BOLD, 36), accentColor);
+        JLabel valueLabel = createStyledLabel(value, UiStyles.STAT_VALUE_FONT, accentColor);
         valueLabel.setHorizontalAlignment(SwingConstants.CENTER);
         
         JLabel titleLabel = createStyledLabel(title, LABEL_FONT, TEXT_SECONDARY);
@@ -491,11 +494,21 @@ public class AdvisorySystemGUI extends JFrame {
         return card;
     }
 
+    // Stat card showing a live count; only the value label changes
+    private JPanel createStatCard(String title, ModelEvents.Counter counter, Color accentColor) {
+        JPanel card = createStatCard(title, String.valueOf(modelEvents.current().get(counter)), accentColor);
+        JLabel valueLabel = (JLabel) ((BorderLayout) card.getLayout()).getLayoutComponent(BorderLayout.CENTER);
+        modelEvents.subscribe(card, change -> {
+            if (change.delta(counter) != 0) valueLabel.setText(String.valueOf(change.current.get(counter)));
+        });
+        return card;
+    }
+
     // Create action card for dashboard
     private JPanel createActionCard(String title, String desc, Color color, ActionListener action) {
         JPanel card = createCardPanel();
         card.setLayout(new BorderLayout(10, 10));
-        card.setCursor(new Cursor(Cursor.HAND_CURSOR));
+        card.setCursor(UiStyles.HAND_CURSOR);
         
         JLabel titleLabel = createStyledLabel(title, SUBTITLE_FONT, TEXT_PRIMARY);
         JLabel descLabel = createStyledLabel(desc, SMALL_FONT, TEXT_SECONDARY);
@@ -521,7 +534,7 @@ public class AdvisorySystemGUI extends JFrame {
             }
             @Override
             public void mouseEntered(MouseEvent e) {
-                card.setBackground(new Color(245, 245, 245));
+                card.setBackground(UiStyles.CARD_HOVER);
             }
             @Override
             public void mouseExited(MouseEvent e) {
@@ -544,7 +557,7 @@ public class AdvisorySystemGUI extends JFrame {
         // Modern Navigation Sidebar
         JPanel navPanel = new JPanel();
         navPanel.setLayout(new BoxLayout(navPanel, BoxLayout.Y_AXIS));
-        navPanel.setBackground(new Color(44, 62, 80));
+        navPanel.setBackground(UiStyles.NAV_BACKGROUND);
         navPanel.setPreferredSize(new Dimension(220, 0));
         navPanel.setBorder(BorderFactory.createEmptyBorder(20, 15, 20, 15));
 
@@ -555,12 +568,12 @@ public class AdvisorySystemGUI extends JFrame {
         profilePanel.setMaximumSize(new Dimension(190, 100));
         
         JPanel avatarPanel = createLogoPanel(50);
-        avatarPanel.setBackground(new Color(44, 62, 80));
+        avatarPanel.setBackground(UiStyles.NAV_BACKGROUND);
         avatarPanel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
         JLabel nameLabel = createStyledLabel(currentUser.username, SUBTITLE_FONT, Color.WHITE);
         nameLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
-        JLabel roleLabel = createStyledLabel("Farmer", SMALL_FONT, new Color(150, 150, 150));
+        JLabel roleLabel = createStyledLabel("Farmer", SMALL_FONT, UiStyles.TEXT_MUTED);
         roleLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         
         profilePanel.add(avatarPanel);
@@ -585,7 +598,7 @@ public class AdvisorySystemGUI extends JFrame {
         navPanel.add(Box.createVerticalGlue());
         
         // Version footer
-        JLabel versionLabel = createStyledLabel("v1.0.0", SMALL_FONT, new Color(100, 100, 100));
+        JLabel versionLabel = createStyledLabel("v1.0.0", SMALL_FONT, UiStyles.TEXT_DIM);
         versionLabel.setAlignmentX(Component.CENTER_ALIGNMENT);
         navPanel.add(versionLabel);
         navPanel.add(Box.createRigidArea(new Dimension(0, 10)));
@@ -593,28 +606,28 @@ public class AdvisorySystemGUI extends JFrame {
 
         mainPanel.add(navPanel, BorderLayout.WEST);
 
-        // Content Area
-        cardLayout = new CardLayout();
-        contentPanel = new JPanel(cardLayout);
+        // Content Area: each card is built on first visit
+        contentPanel = new LazyCardPanel();
         contentPanel.setBackground(BACKGROUND_COLOR);
 
-        contentPanel.add(createRecommendationsPanel(), "REC");
-        contentPanel.add(createSearchPanel(), "SEARCH");
-        contentPanel.add(createSoilPanel(), "SOIL");
+        contentPanel.register("REC", this::createRecommendationsPanel);
+        contentPanel.register("SEARCH", this::createSearchPanel);
+        contentPanel.register("SOIL", this::createSoilPanel);
+        contentPanel.show("REC");
 
         mainPanel.add(contentPanel, BorderLayout.CENTER);
 
         // Navigation actions
         recommendationsBtn.addActionListener(e -> {
-            cardLayout.show(contentPanel, "REC");
+            contentPanel.show("REC");
             updateNavButtons(recommendationsBtn, searchBtn, soilBtn);
         });
         searchBtn.addActionListener(e -> {
-            cardLayout.show(contentPanel, "SEARCH");
+            contentPanel.show("SEARCH");
             updateNavButtons(searchBtn, recommendationsBtn, soilBtn);
         });
         soilBtn.addActionListener(e -> {
-            cardLayout.show(contentPanel, "SOIL");
+            contentPanel.show("SOIL");
             updateNavButtons(soilBtn, recommendationsBtn, searchBtn);
         });
         logoutBtn.addActionListener(e -> handleLogout());
@@ -628,7 +641,7 @@ public class AdvisorySystemGUI extends JFrame {
         active.setBackground(PRIMARY_COLOR);
         for (JButton b : others) {
             if (b.getText().contains("Logout")) continue;
-            b.setBackground(new Color(52, 73, 94));
+            b.setBackground(UiStyles.NAV_BUTTON);
         }
     }
     
@@ -670,7 +683,7 @@ public class AdvisorySystemGUI extends JFrame {
         gbc.insets = new Insets(10, 10, 10, 10);
         gbc.fill = GridBagConstraints.HORIZONTAL;
 
-        JComboBox<String> regionBox = new JComboBox<>(regions.keySet().toArray(new String[0]));
+        JComboBox<String> regionBox = new JComboBox<>(catalog.regions().keySet().toArray(new String[0]));
         JComboBox<String> soilBox = new JComboBox<>(new String[]{"Loamy", "Clay", "Sandy", "Sandy Loam"});
         JComboBox<String> seasonBox = new JComboBox<>(new String[]{"Rabi", "Kharif", "Both", "Perennial"});
 
@@ -691,28 +704,51 @@ public class AdvisorySystemGUI extends JFrame {
         JButton getBtn = createModernButton("Get Recommendations", PRIMARY_COLOR, "Find matching crops");
         getBtn.setPreferredSize(new Dimension(180, 35));
         formCard.add(getBtn, gbc);
+        gbc.gridx = 7;
+        JButton exportBtn = createModernButton("Export", INFO_COLOR, "Save these recommendations to a file");
+        exportBtn.setPreferredSize(new Dimension(100, 35));
+        exportBtn.setEnabled(false);
+        formCard.add(exportBtn, gbc);
 
         // Results Table
-        DefaultTableModel model = new DefaultTableModel(new String[]{"Crop Name", "Match Score", "Season", "Expected Yield (t/ha)"}, 0);
+        LazyTableModel<Recommendation> model = new LazyTableModel<>(
+                new String[]{"Crop Name", "Match Score", "Season", "Expected Yield (t/ha)"},
+                rec -> rec.crop.name, rec -> rec.score + "%", rec -> rec.crop.season, rec -> rec.crop.expectedYield);
         JTable table = createStyledTable(model);
         JScrollPane scrollPane = new JScrollPane(table);
-        scrollPane.setBorder(BorderFactory.createLineBorder(new Color(220, 223, 230)));
+        scrollPane.setBorder(UiStyles.GRID_OUTLINE);
 
         getBtn.addActionListener(e -> {
-            model.setRowCount(0);
             String region = (String) regionBox.getSelectedItem();
             String soil = (String) soilBox.getSelectedItem();
             String season = (String) seasonBox.getSelectedItem();
 
-            List<Recommendation> recs = getRecommendations(soil, season, region);
-            if (recs.isEmpty()) {
-                showErrorBanner("No crops found matching your criteria");
-            } else {
-                for (Recommendation rec : recs) {
-                    model.addRow(new Object[]{rec.crop.name, rec.score + "%", rec.crop.season, rec.crop.expectedYield});
-                }
-                showSuccessBanner("Found " + recs.size() + " matching crops!");
-            }
+            getBtn.setEnabled(false);
+            BackgroundTasks.Task<List<Recommendation>> task = tasks.<List<Recommendation>>newTask("recommendations",
+                    t -> getRecommendations(soil, season, region))
+                    .onDone(recs -> {
+                        model.setRows(recs);
+                        exportBtn.setEnabled(!recs.isEmpty());
+                        if (recs.isEmpty()) {
+                            showErrorBanner("No crops found matching your criteria");
+                        } else {
+                            showSuccessBanner("Found " + recs.size() + " matching crops!");
+                        }
+                    })
+                    .onFailure(ex -> {
+                        ex.printStackTrace();
+                        showErrorBanner("Could not compute recommendations");
+                    });
+            task.onFinished(() -> {
+                getBtn.setEnabled(true);
+                hideLoadingDialog(task);
+            }).start();
+            showLoadingDialog("Finding matching crops...", task);
+        });
+        exportBtn.addActionListener(e -> {
+            List<Recommendation> recs = new ArrayList<>(model.getRowCount());
+            for (int i = 0; i < model.getRowCount(); i++) recs.add(model.getRow(i));
+            exportRows("recommendations", DataExporter.RECOMMENDATION_COLUMNS, recs.iterator(), recs.size());
         });
 
         JPanel centerPanel = new JPanel(new BorderLayout(0, PADDING_MEDIUM));
@@ -765,43 +801,45 @@ public class AdvisorySystemGUI extends JFrame {
         panel.add(topPanel, BorderLayout.NORTH);
 
         // Table
-        DefaultTableModel model = new DefaultTableModel(new String[]{"Crop Name", "Season", "Soil Type", "Region", "Yield (t/ha)"}, 0);
+        LazyTableModel<Crop> model = new LazyTableModel<>(
+                new String[]{"Crop Name", "Season", "Soil Type", "Region", "Yield (t/ha)"},
+                c -> c.name, c -> c.season, c -> c.soilType, c -> c.region, c -> c.expectedYield);
         JTable table = createStyledTable(model);
         JScrollPane scrollPane = new JScrollPane(table);
-        scrollPane.setBorder(BorderFactory.createLineBorder(new Color(220, 223, 230)));
+        scrollPane.setBorder(UiStyles.GRID_OUTLINE);
 
-        // Load all crops initially
-        for (Crop crop : crops) {
-            model.addRow(new Object[]{crop.name, crop.season, crop.soilType, crop.region, crop.expectedYield});
-        }
-        resultLabel.setText("Showing " + crops.size() + " crops");
+        // Searches run in the background; only the latest result reaches the table
+        CropSearcher searcher = new CropSearcher(catalog.textIndex(), (query, results) -> {
+            model.setRows(results);
+            resultLabel.setText(query.trim().isEmpty() ? "Showing " + results.size() + " crops" : "Found " + results.size() + " crops");
+        }, 150);
+        searcher.searchNow("");
 
-        // Real-time search with KeyListener
-        searchField.addKeyListener(new KeyAdapter() {
+        // Real-time search as the text changes (typing, paste or clear)
+        searchField.getDocument().addDocumentListener(new javax.swing.event.DocumentListener() {
             @Override
-            public void keyReleased(KeyEvent e) {
-                String query = searchField.getText().toLowerCase();
-                model.setRowCount(0);
-                int count = 0;
-                for (Crop crop : crops) {
-                    if (crop.name.toLowerCase().contains(query) ||
-                        crop.season.toLowerCase().contains(query) ||
-                        crop.region.toLowerCase().contains(query)) {
-                        model.addRow(new Object[]{crop.name, crop.season, crop.soilType, crop.region, crop.expectedYield});
-                        count++;
-                    }
-                }
-                resultLabel.setText("Found " + count + " crops");
-            }
+            public void insertUpdate(javax.swing.event.DocumentEvent e) { searcher.queryChanged(searchField.getText()); }
+            @Override
+            public void removeUpdate(javax.swing.event.DocumentEvent e) { searcher.queryChanged(searchField.getText()); }
+            @Override
+            public void changedUpdate(javax.swing.event.DocumentEvent e) { searcher.queryChanged(searchField.getText()); }
         });
 
         clearBtn.addActionListener(e -> {
             searchField.setText("");
-            model.setRowCount(0);
-            for (Crop crop : crops) {
-                model.addRow(new Object[]{crop.name, crop.season, crop.soilType, crop.region, crop.expectedYield});
+            searcher.searchNow("");
+        });
+
+        // Re-run the current search when crops change, so the table never shows removed crops
+        modelEvents.subscribe(panel, change -> {
+            if (change.catalogChanged()) searcher.queryChanged(searchField.getText());
+        });
+
+        // Cancel pending searches once the panel is hidden or discarded (e.g. on logout)
+        panel.addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) != 0 && !panel.isDisplayable()) {
+                searcher.dispose();
             }
-            resultLabel.setText("Showing " + crops.size() + " crops");
         });
 
         panel.add(scrollPane, BorderLayout.CENTER);
@@ -829,9 +867,9 @@ public class AdvisorySystemGUI extends JFrame {
         JPanel selectCard = createCardPanel();
         selectCard.setLayout(new FlowLayout(FlowLayout.LEFT, 15, 10));
 
-        JComboBox<String> soilBox = new JComboBox<>(new String[]{"Loamy", "Clay", "Sandy", "Sandy Loam", "Clay Loam"});
-        soilBox.setFont(new Font("Segoe UI", Font.PLAIN, 13));
-        JButton getBtn = createModernButton("Get Suggestions", new Color(155, 89, 182), "Find crops for this soil");
+        JComboBox<String> soilBox = new JComboBox<>(SOIL_TYPES);
+        soilBox.setFont(UiStyles.BODY_FONT);
+        JButton getBtn = createModernButton("Get Suggestions", UiStyles.AMETHYST, "Find crops for this soil");
         getBtn.setPreferredSize(new Dimension(150, 35));
 
         selectCard.add(createStyledLabel("Select Soil Type:", LABEL_FONT, TEXT_PRIMARY));
@@ -846,27 +884,35 @@ public class AdvisorySystemGUI extends JFrame {
         panel.add(topPanel, BorderLayout.NORTH);
 
         // Table
-        DefaultTableModel model = new DefaultTableModel(new String[]{"Crop Name", "Season", "Water Requirement", "Yield (t/ha)"}, 0);
+        LazyTableModel<Crop> model = new LazyTableModel<>(
+                new String[]{"Crop Name", "Season", "Water Requirement", "Yield (t/ha)"},
+                c -> c.name, c -> c.season, c -> c.waterRequirement, c -> c.expectedYield);
         JTable table = createStyledTable(model);
         JScrollPane scrollPane = new JScrollPane(table);
-        scrollPane.setBorder(BorderFactory.createLineBorder(new Color(220, 223, 230)));
+        scrollPane.setBorder(UiStyles.GRID_OUTLINE);
 
+        String[] shownSoil = {null};
         getBtn.addActionListener(e -> {
-            model.setRowCount(0);
             String soil = (String) soilBox.getSelectedItem();
-            int count = 0;
-            for (Crop crop : crops) {
-                if (crop.soilType.toLowerCase().contains(soil.toLowerCase())) {
-                    model.addRow(new Object[]{crop.name, crop.season, crop.waterRequirement, crop.expectedYield});
-                    count++;
-                }
-            }
+            shownSoil[0] = soil;
+            // Filtered view: row indexes from the soil column, no row copies
+            CropStore store = catalog.store();
+            int[] matches = store.filterSoil(soil);
+            int count = matches.length;
+            model.setRows(store.crops(), matches, count);
             if (count > 0) {
                 showSuccessBanner("Found " + count + " crops for " + soil + " soil");
             } else {
                 showErrorBanner("No crops found for " + soil + " soil");
             }
         });
+        // Refresh the shown suggestions in place when crops change
+        modelEvents.subscribe(panel, change -> {
+            if (!change.catalogChanged() || shownSoil[0] == null) return;
+            CropStore store = catalog.store();
+            int[] matches = store.filterSoil(shownSoil[0]);
+            model.setRows(store.crops(), matches, matches.length);
+        });
 
         panel.add(scrollPane, BorderLayout.CENTER);
         return panel;
@@ -875,28 +921,7 @@ public class AdvisorySystemGUI extends JFrame {
 
 
     private List<Recommendation> getRecommendations(String soilType, String season, String region) {
-        List<Recommendation> recs = new ArrayList<>();
-
-        for (Crop crop : crops) {
-            int score = 0;
-
-            // Soil match (40 points)
-            if (crop.soilType.equalsIgnoreCase(soilType)) score += 40;
-            else if (crop.soilType.toLowerCase().contains(soilType.toLowerCase())) score += 20;
-
-            // Season match (35 points)
-            if (crop.season.toLowerCase().contains(season.toLowerCase())) score += 35;
-
-            // Region match (25 points)
-            if (crop.region.equalsIgnoreCase(region)) score += 25;
-
-            if (score > 0) {
-                recs.add(new Recommendation(crop, score));
-            }
-        }
-
-        recs.sort((a, b) -> Integer.compare(b.score, a.score));
-        return recs;
+        return catalog.getRecommendations(soilType, season, region);
     }
 
     // MODERN ADMIN DIALOGS
@@ -921,10 +946,10 @@ public class AdvisorySystemGUI extends JFrame {
         gbc.anchor = GridBagConstraints.WEST;
 
         JTextField nameField = createStyledTextField(20);
-        JComboBox<String> seasonBox = new JComboBox<>(new String[]{"Rabi (Winter)", "Kharif (Summer)", "Both Seasons", "Perennial"});
-        JComboBox<String> soilBox = new JComboBox<>(new String[]{"Loamy", "Clay", "Sandy", "Sandy Loam", "Clay Loam"});
-        JComboBox<String> regionBox = new JComboBox<>(regions.keySet().toArray(new String[0]));
-        JComboBox<String> waterBox = new JComboBox<>(new String[]{"Low", "Medium", "High"});
+        JComboBox<String> seasonBox = new JComboBox<>(SEASONS);
+        JComboBox<String> soilBox = new JComboBox<>(SOIL_TYPES);
+        JComboBox<String> regionBox = new JComboBox<>(catalog.regions().keySet().toArray(new String[0]));
+        JComboBox<String> waterBox = new JComboBox<>(WATER_LEVELS);
         JTextField yieldField = createStyledTextField(20);
 
         String[] labels = {"Crop Name:", "Season:", "Soil Type:", "Region:", "Water Req:", "Yield (t/ha):"};
@@ -952,11 +977,24 @@ public class AdvisorySystemGUI extends JFrame {
                 double yield = Double.parseDouble(yieldField.getText().trim());
                 Crop crop = new Crop(name, (String)seasonBox.getSelectedItem(), (String)soilBox.getSelectedItem(),
                         (String)regionBox.getSelectedItem(), (String)waterBox.getSelectedItem(), yield);
-                if (addCrop(crop)) {
-                    addHistory("Added crop: " + crop.name);
-                    showSuccessBanner("Crop added successfully!");
-                    dialog.dispose();
-                } else { showErrorBanner("Crop already exists!"); }
+                // Report success only once the crop is saved
+                saveBtn.setEnabled(false);
+                tasks.<Boolean>newTask("add crop", t -> catalog.addCrop(crop))
+                        .onDone(added -> {
+                            if (added) {
+                                addHistory("Added crop: " + crop.name);
+                                showSuccessBanner("Crop added successfully!");
+                                dialog.dispose();
+                            } else { showErrorBanner("Crop already exists!"); }
+                        })
+                        .onFailure(ex -> {
+                            ex.printStackTrace();
+                            addHistory("Added crop: " + crop.name + " (not saved)");
+                            showErrorBanner("Crop added but could not be saved: " + ex.getMessage());
+                            dialog.dispose();
+                        })
+                        .onFinished(() -> saveBtn.setEnabled(true))
+                        .start();
             } catch (NumberFormatException ex) { showErrorBanner("Invalid yield value"); }
         };
 
@@ -971,13 +1009,14 @@ public class AdvisorySystemGUI extends JFrame {
     }
 
     private void showUpdateCropDialog() {
+        List<Crop> crops = catalog.crops();
         if (crops.isEmpty()) { showErrorBanner("No crops to update!"); return; }
         String[] names = crops.stream().map(c -> c.name).toArray(String[]::new);
         JComboBox<String> selectBox = new JComboBox<>(names);
         int result = JOptionPane.showConfirmDialog(this, selectBox, "Select Crop", JOptionPane.OK_CANCEL_OPTION);
         if (result != JOptionPane.OK_OPTION) return;
         String selected = (String) selectBox.getSelectedItem();
-        Crop crop = crops.stream().filter(c -> c.name.equals(selected)).findFirst().orElse(null);
+        Crop crop = catalog.findCrop(selected);
         if (crop == null) return;
         JDialog dialog = new JDialog(this, "Update: " + crop.name, true);
         dialog.setSize(450, 400);
@@ -991,9 +1030,9 @@ public class AdvisorySystemGUI extends JFrame {
         GridBagConstraints gbc = new GridBagConstraints();
         gbc.insets = new Insets(8, 8, 8, 8);
         gbc.fill = GridBagConstraints.HORIZONTAL;
-        JComboBox<String> seasonBox = new JComboBox<>(new String[]{"Rabi (Winter)", "Kharif (Summer)", "Both Seasons", "Perennial"});
+        JComboBox<String> seasonBox = new JComboBox<>(SEASONS);
         seasonBox.setSelectedItem(crop.season);
-        JComboBox<String> soilBox = new JComboBox<>(new String[]{"Loamy", "Clay", "Sandy", "Sandy Loam", "Clay Loam"});
+        JComboBox<String> soilBox = new JComboBox<>(SOIL_TYPES);
         soilBox.setSelectedItem(crop.soilType);
         JTextField yieldField = createStyledTextField(15);
         yieldField.setText(String.valueOf(crop.expectedYield));
@@ -1010,12 +1049,25 @@ public class AdvisorySystemGUI extends JFrame {
         updateBtn.setPreferredSize(new Dimension(100, 40));
         updateBtn.addActionListener(e -> {
             try {
-                crop.season = (String) seasonBox.getSelectedItem();
-                crop.soilType = (String) soilBox.getSelectedItem();
-                crop.expectedYield = Double.parseDouble(yieldField.getText().trim());
-                addHistory("Updated crop: " + crop.name);
-                showSuccessBanner("Crop updated!");
-                dialog.dispose();
+                Crop updated = new Crop(crop.name, (String) seasonBox.getSelectedItem(), (String) soilBox.getSelectedItem(),
+                        crop.region, crop.waterRequirement, Double.parseDouble(yieldField.getText().trim()));
+                updateBtn.setEnabled(false);
+                tasks.<Boolean>newTask("update crop", t -> catalog.updateCrop(crop.name, updated))
+                        .onDone(changed -> {
+                            if (changed) {
+                                addHistory("Updated crop: " + crop.name);
+                                showSuccessBanner("Crop updated!");
+                            } else { showErrorBanner("Crop no longer exists!"); }
+                            dialog.dispose();
+                        })
+                        .onFailure(ex -> {
+                            ex.printStackTrace();
+                            addHistory("Updated crop: " + crop.name + " (not saved)");
+                            showErrorBanner("Crop updated but could not be saved: " + ex.getMessage());
+                            dialog.dispose();
+                        })
+                        .onFinished(() -> updateBtn.setEnabled(true))
+                        .start();
             } catch (NumberFormatException ex) { showErrorBanner("Invalid yield"); }
         });
         btnPanel.add(updateBtn);
@@ -1025,6 +1077,7 @@ public class AdvisorySystemGUI extends JFrame {
     }
 
     private void showDeleteCropDialog() {
+        List<Crop> crops = catalog.crops();
         if (crops.isEmpty()) { showErrorBanner("No crops to delete!"); return; }
         String[] names = crops.stream().map(c -> c.name).toArray(String[]::new);
         JComboBox<String> selectBox = new JComboBox<>(names);
@@ -1032,11 +1085,122 @@ public class AdvisorySystemGUI extends JFrame {
         if (result != JOptionPane.OK_OPTION) return;
         String selected = (String) selectBox.getSelectedItem();
         if (showConfirmDialog("Delete Crop", "Delete '" + selected + "'?")) {
-            crops.removeIf(c -> c.name.equals(selected));
-            cropNames.remove(selected.toLowerCase());
-            addHistory("Deleted crop: " + selected);
-            showSuccessBanner("Crop deleted!");
+            tasks.<Boolean>newTask("delete crop", t -> catalog.removeCrop(selected))
+                    .onDone(removed -> {
+                        if (removed) {
+                            addHistory("Deleted crop: " + selected);
+                            showSuccessBanner("Crop deleted!");
+                        } else { showErrorBanner("Crop no longer exists!"); }
+                    })
+                    .onFailure(ex -> {
+                        ex.printStackTrace();
+                        addHistory("Deleted crop: " + selected + " (not saved)");
+                        showErrorBanner("Crop deleted but the deletion could not be saved: " + ex.getMessage());
+                    })
+                    .start();
+        }
+    }
+
+    private void showImportCropsDialog() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Import Crops");
+        chooser.setFileFilter(new javax.swing.filechooser.FileNameExtensionFilter("Crop files (CSV, JSON)", "csv", "json"));
+        if (chooser.showOpenDialog(this) != JFileChooser.APPROVE_OPTION) return;
+        File file = chooser.getSelectedFile();
+
+        BackgroundTasks.Task<CropImporter.Result> task = tasks.<CropImporter.Result>newTask("crop import", t ->
+                new CropImporter(catalog).importFile(file.toPath(),
+                        (read, total, imported, rejected) -> t.progress(read, total,
+                                "Imported " + imported + ", rejected " + rejected),
+                        t::isCancelled))
+                .onDone(result -> {
+                    addHistory("Imported " + result.imported + " crops from " + file.getName()
+                            + " (" + result.rejectedCount + " rejected" + (result.cancelled ? ", cancelled" : "") + ")");
+                    showImportReport(file, result);
+                })
+                .onFailure(ex -> {
+                    ex.printStackTrace();
+                    showErrorBanner("Import failed: " + ex.getMessage());
+                });
+        task.onFinished(() -> hideLoadingDialog(task)).start();
+        showLoadingDialog("Importing " + file.getName() + "...", task);
+    }
+
+    private void showImportReport(File file, CropImporter.Result result) {
+        JDialog dialog = new JDialog(this, "Import Report", true);
+        dialog.setSize(700, 460);
+        dialog.setLocationRelativeTo(this);
+        JPanel mainPanel = new JPanel(new BorderLayout(0, PADDING_SMALL));
+        mainPanel.setBackground(BACKGROUND_COLOR);
+        mainPanel.setBorder(BorderFactory.createEmptyBorder(PADDING_MEDIUM, PADDING_MEDIUM, PADDING_MEDIUM, PADDING_MEDIUM));
+
+        String summary = result.imported + " of " + result.rows + " rows imported from " + file.getName();
+        if (result.rejectedCount > result.rejected.size()) {
+            summary += " (first " + result.rejected.size() + " of " + result.rejectedCount + " rejected rows shown)";
+        }
+        JPanel header = new JPanel(new GridLayout(2, 1));
+        header.setOpaque(false);
+        header.add(createStyledLabel("Crop Import", TITLE_FONT, PRIMARY_COLOR));
+        header.add(createStyledLabel(result.cancelled ? summary + " - cancelled" : summary, LABEL_FONT, TEXT_SECONDARY));
+        mainPanel.add(header, BorderLayout.NORTH);
+
+        LazyTableModel<CropImporter.Rejection> model = new LazyTableModel<>(
+                new String[]{"Line", "Crop", "Reason"},
+                r -> r.line, r -> r.name, r -> r.reason);
+        model.setRows(result.rejected);
+        mainPanel.add(new JScrollPane(createStyledTable(model)), BorderLayout.CENTER);
+
+        JButton closeBtn = createModernButton("Close", PRIMARY_COLOR);
+        closeBtn.setPreferredSize(new Dimension(100, 40));
+        closeBtn.addActionListener(e -> dialog.dispose());
+        JPanel btnPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
+        btnPanel.setOpaque(false);
+        btnPanel.add(closeBtn);
+        mainPanel.add(btnPanel, BorderLayout.SOUTH);
+        dialog.setContentPane(mainPanel);
+        dialog.setVisible(true);
+    }
+
+    /**
+     * Ask for a file and export {@code rows} to it in the background, in the format its
+     * extension (or the chosen file filter) names.
+     */
+    private <T> void exportRows(String what, List<DataExporter.Column<T>> columns, Iterator<? extends T> rows, long total) {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Export " + what);
+        chooser.setAcceptAllFileFilterUsed(false);
+        Map<javax.swing.filechooser.FileFilter, DataExporter.Format> formats = new LinkedHashMap<>();
+        formats.put(new javax.swing.filechooser.FileNameExtensionFilter("CSV (*.csv)", "csv"), DataExporter.Format.CSV);
+        formats.put(new javax.swing.filechooser.FileNameExtensionFilter("JSON (*.json)", "json"), DataExporter.Format.JSON);
+        formats.put(new javax.swing.filechooser.FileNameExtensionFilter("Binary (*.fasx)", "fasx"), DataExporter.Format.BINARY);
+        formats.keySet().forEach(chooser::addChoosableFileFilter);
+        chooser.setFileFilter(formats.keySet().iterator().next());
+        chooser.setSelectedFile(new File(what + ".csv"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) return;
+
+        File file = chooser.getSelectedFile();
+        DataExporter.Format format = DataExporter.Format.forFile(file.toPath());
+        if (format == null) {
+            format = formats.get(chooser.getFileFilter());
+            file = new File(file.getPath() + "." + format.extension);
         }
+        if (file.exists() && !showConfirmDialog("Export", file.getName() + " already exists. Replace it?")) return;
+
+        File target = file;
+        DataExporter.Format targetFormat = format;
+        BackgroundTasks.Task<Long> task = tasks.<Long>newTask("export " + what, t ->
+                DataExporter.export(target.toPath(), targetFormat, columns, rows, total,
+                        (done, expected) -> t.progress(done, expected, "Exported " + done + " rows"), t::isCancelled))
+                .onDone(count -> {
+                    addHistory("Exported " + count + " " + what + " to " + target.getName());
+                    showSuccessBanner("Exported " + count + " rows to " + target.getName());
+                })
+                .onFailure(ex -> {
+                    ex.printStackTrace();
+                    showErrorBanner("Export failed: " + ex.getMessage());
+                });
+        task.onFinished(() -> hideLoadingDialog(task)).start();
+        showLoadingDialog("Exporting " + what + "...", task);
     }
 
     private void showManageRegionsDialog() {
@@ -1048,7 +1212,7 @@ public class AdvisorySystemGUI extends JFrame {
         mainPanel.setBorder(BorderFactory.createEmptyBorder(PADDING_MEDIUM, PADDING_MEDIUM, PADDING_MEDIUM, PADDING_MEDIUM));
         mainPanel.add(createStyledLabel("Region Management", TITLE_FONT, PRIMARY_COLOR), BorderLayout.NORTH);
         DefaultTableModel model = new DefaultTableModel(new String[]{"Region", "Climate", "Rainfall (mm)", "Common Crops"}, 0);
-        for (Region r : regions.values()) { model.addRow(new Object[]{r.name, r.climate, r.avgRainfall, r.commonCrops}); }
+        for (Region r : catalog.regions().values()) { model.addRow(new Object[]{r.name, r.climate, r.avgRainfall, r.commonCrops}); }
         JTable table = createStyledTable(model);
         mainPanel.add(new JScrollPane(table), BorderLayout.CENTER);
         JButton closeBtn = createModernButton("Close", PRIMARY_COLOR);
@@ -1064,29 +1228,116 @@ public class AdvisorySystemGUI extends JFrame {
 
     private void showHistoryDialog() {
         JDialog dialog = new JDialog(this, "System History", true);
-        dialog.setSize(600, 400);
+        dialog.setSize(760, 480);
         dialog.setLocationRelativeTo(this);
 
-        JPanel mainPanel = new JPanel(new BorderLayout());
+        JPanel mainPanel = new JPanel(new BorderLayout(0, PADDING_SMALL));
         mainPanel.setBackground(BACKGROUND_COLOR);
         mainPanel.setBorder(BorderFactory.createEmptyBorder(PADDING_MEDIUM, PADDING_MEDIUM, PADDING_MEDIUM, PADDING_MEDIUM));
-        mainPanel.add(createStyledLabel("System Activity History", TITLE_FONT, PRIMARY_COLOR), BorderLayout.NORTH);
 
-        JTextArea area = new JTextArea();
-        area.setEditable(false);
-        area.setFont(new Font("Consolas", Font.PLAIN, 12));
-        area.setBackground(new Color(248, 249, 250));
-
-        StringBuilder sb = new StringBuilder();
-        for (String log : historyLogs) {
-            sb.append(log).append("\n");
-        }
-        area.setText(sb.toString());
-
-        JScrollPane scrollPane = new JScrollPane(area);
+        // Query bar: optional time range (yyyy-MM-dd HH:mm) and keyword
+        JTextField fromField = createStyledTextField(10);
+        JTextField toField = createStyledTextField(10);
+        JTextField keywordField = createStyledTextField(10);
+        fromField.setToolTipText("From (yyyy-MM-dd HH:mm), blank for the oldest entry");
+        toField.setToolTipText("To (yyyy-MM-dd HH:mm), blank for the newest entry");
+        JButton applyBtn = createModernButton("Apply", INFO_COLOR);
+        applyBtn.setPreferredSize(new Dimension(90, 36));
+        JLabel statusLabel = createStyledLabel(" ", SMALL_FONT, TEXT_SECONDARY);
+
+        JPanel queryPanel = new JPanel(new FlowLayout(FlowLayout.LEFT, 6, 0));
+        queryPanel.setOpaque(false);
+        queryPanel.add(createStyledLabel("From", SMALL_FONT, TEXT_SECONDARY));
+        queryPanel.add(fromField);
+        queryPanel.add(createStyledLabel("To", SMALL_FONT, TEXT_SECONDARY));
+        queryPanel.add(toField);
+        queryPanel.add(createStyledLabel("Keyword", SMALL_FONT, TEXT_SECONDARY));
+        queryPanel.add(keywordField);
+        queryPanel.add(applyBtn);
+
+        JPanel header = new JPanel(new BorderLayout(0, PADDING_SMALL));
+        header.setOpaque(false);
+        header.add(createStyledLabel("System Activity History", TITLE_FONT, PRIMARY_COLOR), BorderLayout.NORTH);
+        header.add(queryPanel, BorderLayout.CENTER);
+        header.add(statusLabel, BorderLayout.SOUTH);
+        mainPanel.add(header, BorderLayout.NORTH);
+
+        // Only the visible rows are read from disk, a page at a time
+        HistoryListModel model = new HistoryListModel(auditHistory);
+        JList<String> list = new JList<>(model);
+        list.setFont(UiStyles.MONO_FONT);
+        list.setBackground(UiStyles.ROW_STRIPE);
+        list.setFixedCellHeight(18);
+        list.setFixedCellWidth(700);
+
+        JScrollPane scrollPane = new JScrollPane(list);
         scrollPane.setBorder(BorderFactory.createLineBorder(BORDER_COLOR));
         mainPanel.add(scrollPane, BorderLayout.CENTER);
 
+        // Queries run as background tasks; a newer query cancels the one still running
+        List<BackgroundTasks.Task<Void>> running = new ArrayList<>(1);
+        DateTimeFormatter inputFormat = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm");
+
+        Runnable runQuery = () -> {
+            long fromTime, toTime;
+            try {
+                fromTime = parseHistoryTime(fromField.getText(), inputFormat, Long.MIN_VALUE);
+                toTime = parseHistoryTime(toField.getText(), inputFormat, Long.MAX_VALUE);
+            } catch (DateTimeParseException ex) {
+                statusLabel.setText("Times must look like 2024-05-01 14:30");
+                return;
+            }
+            String keyword = keywordField.getText().trim();
+            for (BackgroundTasks.Task<Void> task : running) task.cancel();
+            running.clear();
+            statusLabel.setText("Searching...");
+            model.clear();
+            running.add(tasks.<Void>newTask("history-query", task -> {
+                auditLog.flush();
+                auditHistory.refresh();
+                long from = fromTime == Long.MIN_VALUE ? 0 : auditHistory.firstAtOrAfter(fromTime);
+                long to = toTime == Long.MAX_VALUE ? auditHistory.size() : auditHistory.firstAtOrAfter(toTime);
+                long last = Math.max(from, to);
+                if (keyword.isEmpty()) {
+                    task.update(() -> {
+                        model.showRange(from, last);
+                        statusLabel.setText(String.format("%,d entries", last - from));
+                        if (model.getSize() > 0) list.ensureIndexIsVisible(model.getSize() - 1);
+                    });
+                    return null;
+                }
+                // Matches are handed to the list in batches while the scan continues
+                long[][] ids = {new long[1024]};
+                int[] count = {0};
+                long[] lastPublish = {System.nanoTime()};
+                auditHistory.scan(from, last, keyword, entry -> {
+                    if (count[0] == ids[0].length) ids[0] = Arrays.copyOf(ids[0], count[0] * 2);
+                    ids[0][count[0]++] = entry;
+                    if (System.nanoTime() - lastPublish[0] > 100_000_000L) {
+                        showHistoryMatches(task, model, statusLabel, ids[0], count[0], false);
+                        lastPublish[0] = System.nanoTime();
+                    }
+                }, task::isCancelled);
+                showHistoryMatches(task, model, statusLabel, ids[0], count[0], true);
+                return null;
+            }).onFailure(ex -> {
+                ex.printStackTrace();
+                statusLabel.setText("Could not read history");
+            }).start());
+        };
+        applyBtn.addActionListener(e -> runQuery.run());
+        keywordField.addActionListener(e -> runQuery.run());
+        fromField.addActionListener(e -> runQuery.run());
+        toField.addActionListener(e -> runQuery.run());
+        runQuery.run();
+
+        dialog.addWindowListener(new WindowAdapter() {
+            @Override
+            public void windowClosed(WindowEvent e) {
+                for (BackgroundTasks.Task<Void> task : running) task.cancel();
+            }
+        });
+
         JPanel btnPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         btnPanel.setOpaque(false);
         JButton closeBtn = createModernButton("Close", PRIMARY_COLOR);
@@ -1095,10 +1346,25 @@ public class AdvisorySystemGUI extends JFrame {
         btnPanel.add(closeBtn);
         mainPanel.add(btnPanel, BorderLayout.SOUTH);
 
+        dialog.setDefaultCloseOperation(WindowConstants.DISPOSE_ON_CLOSE);
         dialog.setContentPane(mainPanel);
         dialog.setVisible(true);
     }
 
+    // Epoch second of a "yyyy-MM-dd HH:mm" field, or the given value if the field is empty
+    private static long parseHistoryTime(String text, DateTimeFormatter format, long blank) {
+        if (text.trim().isEmpty()) return blank;
+        return LocalDateTime.parse(text.trim(), format).atZone(ZoneId.systemDefault()).toEpochSecond();
+    }
+
+    private static void showHistoryMatches(BackgroundTasks.Task<?> task, HistoryListModel model, JLabel statusLabel,
+                                           long[] ids, int count, boolean done) {
+        task.update(() -> {
+            model.showMatches(ids, count);
+            statusLabel.setText(String.format(done ? "%,d matching entries" : "%,d matching entries so far...", count));
+        });
+    }
+
 
     private void showViewUsersDialog() {
         JDialog dialog = new JDialog(this, "User Management", true);
@@ -1108,9 +1374,10 @@ public class AdvisorySystemGUI extends JFrame {
         JPanel mainPanel = new JPanel(new BorderLayout());
         mainPanel.setBackground(BACKGROUND_COLOR);
         mainPanel.setBorder(BorderFactory.createEmptyBorder(PADDING_MEDIUM, PADDING_MEDIUM, PADDING_MEDIUM, PADDING_MEDIUM));
-        mainPanel.add(createStyledLabel("System Users", TITLE_FONT, new Color(139, 92, 246)), BorderLayout.NORTH);
+        mainPanel.add(createStyledLabel("System Users", TITLE_FONT, UiStyles.VIOLET), BorderLayout.NORTH);
 
         DefaultTableModel model = new DefaultTableModel(new String[]{"Username", "Role", "Status"}, 0);
+        List<User> users = catalog.users();
         for (User u : users) {
             String status = (currentUser != null && currentUser.username.equals(u.username)) ? "Active" : "Inactive";
             model.addRow(new Object[]{u.username, u.role, status});
@@ -1196,59 +1463,128 @@ public class AdvisorySystemGUI extends JFrame {
         JPanel mainPanel = new JPanel(new BorderLayout());
         mainPanel.setBackground(BACKGROUND_COLOR);
         mainPanel.setBorder(BorderFactory.createEmptyBorder(PADDING_MEDIUM, PADDING_MEDIUM, PADDING_MEDIUM, PADDING_MEDIUM));
-        mainPanel.add(createStyledLabel("System Reports & Analytics", TITLE_FONT, WARNING_COLOR), BorderLayout.NORTH);
+        // Aggregates are maintained as crops change, so this only reads per-group totals
+        CropCatalog.Version version = catalog.current();
+        CatalogAggregates aggregates = version.aggregates();
+        JPanel header = new JPanel(new BorderLayout());
+        header.setOpaque(false);
+        header.add(createStyledLabel("System Reports & Analytics", TITLE_FONT, WARNING_COLOR), BorderLayout.NORTH);
+        String updatedAt = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")
+                .format(LocalDateTime.ofInstant(Instant.ofEpochMilli(aggregates.updatedAtMillis()), ZoneId.systemDefault()));
+        header.add(createStyledLabel("Aggregates updated " + updatedAt, SMALL_FONT, TEXT_SECONDARY), BorderLayout.SOUTH);
+        mainPanel.add(header, BorderLayout.NORTH);
 
         JTabbedPane tabbedPane = new JTabbedPane();
         tabbedPane.setFont(LABEL_FONT);
+        LazyTableModel.Column<CatalogAggregates.Group> count = g -> g.count();
+        LazyTableModel.Column<CatalogAggregates.Group> averageYield = g -> String.format("%.2f", g.averageYield());
+        LazyTableModel.Column<CatalogAggregates.Group> yieldRange = g -> g.count() == 0 ? ""
+                : String.format("%.1f - %.1f", g.minYield, g.maxYield);
 
         // Crops by Region Tab
         JPanel regionTab = new JPanel(new BorderLayout());
         regionTab.setBackground(CARD_BACKGROUND);
-        DefaultTableModel regionModel = new DefaultTableModel(new String[]{"Region", "Crop Count", "Crops"}, 0);
-        for (String regionName : regions.keySet()) {
-            StringBuilder cropList = new StringBuilder();
-            int count = 0;
-            for (Crop c : crops) {
-                if (c.region.equals(regionName)) {
-                    if (count > 0) cropList.append(", ");
-                    cropList.append(c.name);
-                    count++;
-                }
-            }
-            regionModel.addRow(new Object[]{regionName, count, cropList.toString()});
-        }
+        LazyTableModel<String> regionModel = new LazyTableModel<>(
+                new String[]{"Region", "Crop Count", "Avg Yield (t/ha)", "Yield Range", "Crops"},
+                r -> r, r -> count.value(aggregates.region(r)), r -> averageYield.value(aggregates.region(r)),
+                r -> yieldRange.value(aggregates.region(r)), r -> aggregates.region(r).names());
+        regionModel.setRows(new ArrayList<>(version.regions.keySet()));
         regionTab.add(new JScrollPane(createStyledTable(regionModel)), BorderLayout.CENTER);
         tabbedPane.addTab("Crops by Region", regionTab);
 
         // Crops by Season Tab
         JPanel seasonTab = new JPanel(new BorderLayout());
         seasonTab.setBackground(CARD_BACKGROUND);
-        DefaultTableModel seasonModel = new DefaultTableModel(new String[]{"Season", "Crop Count", "Crops"}, 0);
-        HashMap<String, java.util.List<String>> seasonCrops = new HashMap<>();
-        for (Crop c : crops) {
-            seasonCrops.computeIfAbsent(c.season, k -> new ArrayList<>()).add(c.name);
-        }
-        for (String season : seasonCrops.keySet()) {
-            java.util.List<String> list = seasonCrops.get(season);
-            seasonModel.addRow(new Object[]{season, list.size(), String.join(", ", list)});
-        }
+        LazyTableModel<CatalogAggregates.Group> seasonModel = new LazyTableModel<>(
+                new String[]{"Season", "Crop Count", "Avg Yield (t/ha)", "Yield Range", "Crops"},
+                g -> g.key, count, averageYield, yieldRange, CatalogAggregates.Group::names);
+        seasonModel.setRows(new ArrayList<>(aggregates.seasons()));
         seasonTab.add(new JScrollPane(createStyledTable(seasonModel)), BorderLayout.CENTER);
         tabbedPane.addTab("Crops by Season", seasonTab);
 
+        // Analytics tabs are computed in the background and filled in as each one finishes
+        List<BackgroundTasks.Task<?>> analytics = new ArrayList<>();
+        JPanel yieldTab = createPendingTab();
+        tabbedPane.addTab("Yield Statistics", yieldTab);
+        analytics.add(fillWhenDone(yieldTab, "yield-statistics", () -> YieldAnalytics.parallel(version.store()).yieldByRegion(), stats -> {
+            LazyTableModel<YieldAnalytics.YieldStats> model = new LazyTableModel<>(
+                    new String[]{"Region", "Crops", "Mean", "Median", "P10", "P90", "Min", "Max"},
+                    y -> y.region, y -> y.count, y -> formatYield(y.mean), y -> formatYield(y.median),
+                    y -> formatYield(y.p10), y -> formatYield(y.p90), y -> formatYield(y.min), y -> formatYield(y.max));
+            model.setRows(Arrays.asList(stats));
+            return new JScrollPane(createStyledTable(model));
+        }));
+
+        JPanel waterTab = createPendingTab();
+        tabbedPane.addTab("Water Use", waterTab);
+        analytics.add(fillWhenDone(waterTab, "water-distribution", () -> YieldAnalytics.parallel(version.store()).waterByRegion(), water -> {
+            String[] names = new String[water.values.length + 1];
+            List<LazyTableModel.Column<Integer>> columns = new ArrayList<>(names.length);
+            names[0] = "Region";
+            columns.add(r -> water.regions[r]);
+            for (int v = 0; v < water.values.length; v++) {
+                int value = v;
+                names[v + 1] = water.values[v];
+                columns.add(r -> {
+                    int total = 0;
+                    for (int c : water.counts[r]) total += c;
+                    return String.format("%d (%.0f%%)", water.counts[r][value], 100.0 * water.counts[r][value] / Math.max(1, total));
+                });
+            }
+            LazyTableModel<Integer> model = new LazyTableModel<>(names, columns);
+            List<Integer> rows = new ArrayList<>();
+            for (int r = 0; r < water.regions.length; r++) rows.add(r);
+            model.setRows(rows);
+            return new JScrollPane(createStyledTable(model));
+        }));
+
+        JPanel crossTab = createPendingTab();
+        tabbedPane.addTab("Soil x Season", crossTab);
+        analytics.add(fillWhenDone(crossTab, "soil-season", () -> YieldAnalytics.parallel(version.store()).soilSeasonByRegion(), tab -> {
+            String[] names = new String[tab.seasons.length + 3];
+            List<LazyTableModel.Column<int[]>> columns = new ArrayList<>(names.length);
+            names[0] = "Region";
+            columns.add(rs -> tab.regions[rs[0]]);
+            names[1] = "Soil";
+            columns.add(rs -> tab.soils[rs[1]]);
+            for (int s = 0; s < tab.seasons.length; s++) {
+                int season = s;
+                names[s + 2] = tab.seasons[s];
+                columns.add(rs -> tab.counts[rs[0]][rs[1]][season]);
+            }
+            names[names.length - 1] = "Total";
+            columns.add(rs -> Arrays.stream(tab.counts[rs[0]][rs[1]]).sum());
+            // Only the soils that actually occur in each region
+            List<int[]> rows = new ArrayList<>();
+            for (int r = 0; r < tab.regions.length; r++) {
+                for (int soil = 0; soil < tab.soils.length; soil++) {
+                    if (Arrays.stream(tab.counts[r][soil]).sum() > 0) rows.add(new int[]{r, soil});
+                }
+            }
+            LazyTableModel<int[]> model = new LazyTableModel<>(names, columns);
+            model.setRows(rows);
+            return new JScrollPane(createStyledTable(model));
+        }));
+
         // Summary Tab
         JPanel summaryTab = new JPanel(new GridLayout(4, 2, 20, 15));
         summaryTab.setBackground(CARD_BACKGROUND);
         summaryTab.setBorder(BorderFactory.createEmptyBorder(30, 30, 30, 30));
-        summaryTab.add(createStatCard("Total Crops", String.valueOf(crops.size()), SUCCESS_COLOR));
-        summaryTab.add(createStatCard("Total Regions", String.valueOf(regions.size()), INFO_COLOR));
-        summaryTab.add(createStatCard("Total Users", String.valueOf(users.size()), new Color(139, 92, 246)));
-        summaryTab.add(createStatCard("Log Entries", String.valueOf(historyLogs.size()), WARNING_COLOR));
+        summaryTab.add(createStatCard("Total Crops", ModelEvents.Counter.CROPS, SUCCESS_COLOR));
+        summaryTab.add(createStatCard("Total Regions", ModelEvents.Counter.REGIONS, INFO_COLOR));
+        summaryTab.add(createStatCard("Total Users", ModelEvents.Counter.USERS, UiStyles.VIOLET));
+        summaryTab.add(createStatCard("Log Entries", ModelEvents.Counter.LOG_ENTRIES, WARNING_COLOR));
         tabbedPane.addTab("Summary", summaryTab);
 
         mainPanel.add(tabbedPane, BorderLayout.CENTER);
 
         JPanel btnPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT));
         btnPanel.setOpaque(false);
+        JButton exportBtn = createModernButton("Export", INFO_COLOR);
+        exportBtn.setPreferredSize(new Dimension(100, 40));
+        exportBtn.addActionListener(e -> exportRows("crop-aggregates", DataExporter.GROUP_COLUMNS,
+                DataExporter.groupRows(aggregates), aggregates.regions().size() + aggregates.seasons().size()));
+        btnPanel.add(exportBtn);
         JButton closeBtn = createModernButton("Close", PRIMARY_COLOR);
         closeBtn.setPreferredSize(new Dimension(100, 40));
         closeBtn.addActionListener(e -> dialog.dispose());
@@ -1257,13 +1593,50 @@ public class AdvisorySystemGUI extends JFrame {
 
         dialog.setContentPane(mainPanel);
         dialog.setVisible(true);
+        // Closed before every tab was filled
+        for (BackgroundTasks.Task<?> task : analytics) task.cancel();
         addHistory("Generated system reports");
     }
 
+    private JPanel createPendingTab() {
+        JPanel tab = new JPanel(new BorderLayout());
+        tab.setBackground(CARD_BACKGROUND);
+        JLabel label = createStyledLabel("Computing...", LABEL_FONT, TEXT_SECONDARY);
+        label.setHorizontalAlignment(SwingConstants.CENTER);
+        tab.add(label, BorderLayout.CENTER);
+        return tab;
+    }
+
+    // Replace a pending tab's placeholder with the view of the result once it arrives
+    private <T> BackgroundTasks.Task<T> fillWhenDone(JPanel tab, String name, Callable<T> work, Function<T, JComponent> view) {
+        return tasks.<T>newTask(name, task -> work.call())
+                .onDone(value -> showInTab(tab, view.apply(value)))
+                .onFailure(error -> {
+                    error.printStackTrace();
+                    JLabel label = createStyledLabel("Could not compute this report", LABEL_FONT, DANGER_COLOR);
+                    label.setHorizontalAlignment(SwingConstants.CENTER);
+                    showInTab(tab, label);
+                })
+                .start();
+    }
+
+    private static void showInTab(JPanel tab, JComponent content) {
+        tab.removeAll();
+        tab.add(content, BorderLayout.CENTER);
+        tab.revalidate();
+        tab.repaint();
+    }
+
+    private static String formatYield(double yield) {
+        return String.format("%.2f", yield);
+    }
+
 
     private void updateStatusBar() {
         if (statusLabel != null) {
-            statusLabel.setText("Ready | Database: " + crops.size() + " crops, " + regions.size() + " regions, " + users.size() + " users");
+            ModelEvents.Snapshot counts = modelEvents.current();
+            statusLabel.setText("Ready | Database: " + counts.get(ModelEvents.Counter.CROPS) + " crops, "
+                    + counts.get(ModelEvents.Counter.REGIONS) + " regions, " + counts.get(ModelEvents.Counter.USERS) + " users");
         }
     }
 
@@ -1288,8 +1661,8 @@ public class AdvisorySystemGUI extends JFrame {
         btn.setBackground(bgColor);
         btn.setForeground(Color.WHITE);
         btn.setFocusPainted(false);
-        btn.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        btn.setBorder(BorderFactory.createEmptyBorder(10, 20, 10, 20));
+        btn.setCursor(UiStyles.HAND_CURSOR);
+        btn.setBorder(UiStyles.BUTTON_PADDING);
         if (tooltip != null) btn.setToolTipText(tooltip);
         return btn;
     }
@@ -1299,12 +1672,12 @@ public class AdvisorySystemGUI extends JFrame {
         JButton btn = new JButton(text);
         btn.setAlignmentX(Component.CENTER_ALIGNMENT);
         btn.setMaximumSize(new Dimension(180, 45));
-        btn.setBackground(isActive ? PRIMARY_COLOR : new Color(52, 73, 94));
+        btn.setBackground(isActive ? PRIMARY_COLOR : UiStyles.NAV_BUTTON);
         btn.setForeground(Color.WHITE);
         btn.setFont(BUTTON_FONT);
         btn.setFocusPainted(false);
-        btn.setCursor(new Cursor(Cursor.HAND_CURSOR));
-        btn.setBorder(BorderFactory.createEmptyBorder(10, 15, 10, 15));
+        btn.setCursor(UiStyles.HAND_CURSOR);
+        btn.setBorder(UiStyles.NAV_BUTTON_PADDING);
 
         // Hover effect
         btn.addMouseListener(new MouseAdapter() {
@@ -1312,7 +1685,7 @@ public class AdvisorySystemGUI extends JFrame {
 
             @Override
             public void mouseEntered(MouseEvent e) {
-                btn.setBackground(PRIMARY_COLOR.brighter());
+                btn.setBackground(UiStyles.PRIMARY_BRIGHT);
             }
 
             @Override
@@ -1326,44 +1699,29 @@ public class AdvisorySystemGUI extends JFrame {
     private JPanel createCardPanel() {
         JPanel card = new JPanel();
         card.setBackground(CARD_BACKGROUND);
-        card.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(new Color(220, 223, 230), 1),
-                BorderFactory.createEmptyBorder(PADDING_MEDIUM, PADDING_MEDIUM, PADDING_MEDIUM, PADDING_MEDIUM)
-        ));
+        card.setBorder(UiStyles.CARD_BORDER);
         return card;
     }
 
 
-    private JTable createStyledTable(DefaultTableModel model) {
+    static JTable createStyledTable(TableModel model) {
         JTable table = new JTable(model);
-        table.setFont(new Font("Segoe UI", Font.PLAIN, 13));
+        table.setFont(UiStyles.BODY_FONT);
         table.setRowHeight(35);
         table.setShowGrid(true);
-        table.setGridColor(new Color(220, 223, 230));
-        table.setSelectionBackground(PRIMARY_COLOR.brighter());
+        table.setGridColor(UiStyles.GRID);
+        table.setSelectionBackground(UiStyles.PRIMARY_BRIGHT);
         table.setSelectionForeground(Color.WHITE);
 
         // Custom header renderer
         JTableHeader header = table.getTableHeader();
-        header.setFont(new Font("Segoe UI", Font.BOLD, 13));
+        header.setFont(UiStyles.TABLE_HEADER_FONT);
         header.setBackground(PRIMARY_COLOR);
         header.setForeground(Color.WHITE);
         header.setPreferredSize(new Dimension(header.getWidth(), 40));
 
         // Alternating row colors
-        table.setDefaultRenderer(Object.class, new DefaultTableCellRenderer() {
-            @Override
-            public Component getTableCellRendererComponent(JTable table, Object value,
-                    boolean isSelected, boolean hasFocus, int row, int column) {
-                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
-                if (!isSelected) {
-                    c.setBackground(row % 2 == 0 ? Color.WHITE : new Color(248, 249, 250));
-                    c.setForeground(TEXT_PRIMARY);
-                }
-                ((JLabel) c).setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
-                return c;
-            }
-        });
+        table.setDefaultRenderer(Object.class, new StripedCellRenderer());
 
         return table;
     }
@@ -1381,28 +1739,19 @@ public class AdvisorySystemGUI extends JFrame {
 
     private JTextField createStyledTextField(int columns) {
         JTextField field = new JTextField(columns);
-        field.setFont(new Font("Segoe UI", Font.PLAIN, 13));
-        field.setBorder(BorderFactory.createCompoundBorder(
-                BorderFactory.createLineBorder(new Color(200, 200, 200)),
-                BorderFactory.createEmptyBorder(8, 10, 8, 10)
-        ));
+        field.setFont(UiStyles.BODY_FONT);
+        field.setBorder(UiStyles.FIELD_BORDER);
 
         // Focus border highlight
         field.addFocusListener(new FocusAdapter() {
             @Override
             public void focusGained(FocusEvent e) {
-                field.setBorder(BorderFactory.createCompoundBorder(
-                        BorderFactory.createLineBorder(PRIMARY_COLOR, 2),
-                        BorderFactory.createEmptyBorder(7, 9, 7, 9)
-                ));
+                field.setBorder(UiStyles.FIELD_FOCUS_BORDER);
             }
 
             @Override
             public void focusLost(FocusEvent e) {
-                field.setBorder(BorderFactory.createCompoundBorder(
-                        BorderFactory.createLineBorder(new Color(200, 200, 200)),
-                        BorderFactory.createEmptyBorder(8, 10, 8, 10)
-                ));
+                field.setBorder(UiStyles.FIELD_BORDER);
             }
         });
 
@@ -1410,15 +1759,21 @@ public class AdvisorySystemGUI extends JFrame {
     }
 
 
-    private void showLoadingDialog(String message) {
-        if (loadingDialog != null && loadingDialog.isVisible()) {
+    /**
+     * Show a modal progress dialog for {@code task} if it is still running after a short delay,
+     * so quick tasks never flash a dialog. The dialog shows the task's progress and can cancel
+     * it; call {@link #hideLoadingDialog} when the task finishes. Each task has its own dialog,
+     * so tasks running side by side do not close each other's. Must be called on the EDT.
+     */
+    private void showLoadingDialog(String message, BackgroundTasks.Task<?> task) {
+        if (task.isFinished() || loadingDialogs.containsKey(task)) {
             return;
         }
 
-        loadingDialog = new JDialog(this, "Loading", true);
-        loadingDialog.setUndecorated(true);
-        loadingDialog.setSize(300, 100);
-        loadingDialog.setLocationRelativeTo(this);
+        JDialog dialog = new JDialog(this, "Loading", true);
+        dialog.setUndecorated(true);
+        dialog.setSize(320, 130);
+        dialog.setLocationRelativeTo(this);
 
         JPanel panel = new JPanel(new BorderLayout(10, 10));
         panel.setBackground(Color.WHITE);
@@ -1430,24 +1785,43 @@ public class AdvisorySystemGUI extends JFrame {
         JLabel label = new JLabel(message, SwingConstants.CENTER);
         label.setFont(LABEL_FONT);
 
-        JProgressBar progressBar = new JProgressBar();
+        JProgressBar progressBar = new JProgressBar(0, 100);
         progressBar.setIndeterminate(true);
         progressBar.setForeground(PRIMARY_COLOR);
+        task.onProgress((percent, status) -> {
+            progressBar.setIndeterminate(percent < 0);
+            if (percent >= 0) progressBar.setValue(percent);
+            if (status != null) label.setText(status);
+        });
+
+        JButton cancelBtn = new JButton("Cancel");
+        cancelBtn.addActionListener(e -> {
+            task.cancel();
+            hideLoadingDialog(task);
+        });
+        JPanel btnPanel = new JPanel(new FlowLayout(FlowLayout.RIGHT, 0, 0));
+        btnPanel.setOpaque(false);
+        btnPanel.add(cancelBtn);
 
         panel.add(label, BorderLayout.NORTH);
         panel.add(progressBar, BorderLayout.CENTER);
+        panel.add(btnPanel, BorderLayout.SOUTH);
 
-        loadingDialog.setContentPane(panel);
+        dialog.setContentPane(panel);
+        loadingDialogs.put(task, dialog);
 
-        // Show in separate thread
-        new Thread(() -> loadingDialog.setVisible(true)).start();
+        javax.swing.Timer timer = new javax.swing.Timer(LOADING_DIALOG_DELAY_MS, e -> {
+            if (loadingDialogs.get(task) == dialog && !task.isFinished()) dialog.setVisible(true);
+        });
+        timer.setRepeats(false);
+        timer.start();
     }
 
 
-    private void hideLoadingDialog() {
-        if (loadingDialog != null) {
-            loadingDialog.dispose();
-            loadingDialog = null;
+    private void hideLoadingDialog(BackgroundTasks.Task<?> task) {
+        JDialog dialog = loadingDialogs.remove(task);
+        if (dialog != null) {
+            dialog.dispose();
         }
     }
 
@@ -1531,41 +1905,65 @@ public class AdvisorySystemGUI extends JFrame {
     }
 
 
-    private JPanel createLogoPanel(int size) {
-        JPanel logoPanel = new JPanel() {
+    // Gradient behind the admin dashboard header
+    static final DecoratedPanel.Decoration HEADER_GRADIENT = new DecoratedPanel.Decoration() {
+        @Override
+        public void paint(Graphics2D g, int width, int height) {
+            g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+            g.setPaint(new GradientPaint(0, 0, PRIMARY_COLOR, width, 0, PRIMARY_DARK));
+            g.fillRect(0, 0, width, height);
+        }
+
+        @Override
+        public boolean opaque() {
+            return true;
+        }
+    };
+
+    // "FAS" in a circle of diameter size, centered in the panel
+    static DecoratedPanel.Decoration logoDecoration(int size) {
+        return new DecoratedPanel.Decoration() {
             @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2 = (Graphics2D) g;
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+            public void paint(Graphics2D g, int width, int height) {
+                g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
 
-                int centerX = (getWidth() - size) / 2;
-                int centerY = (getHeight() - size) / 2;
+                int centerX = (width - size) / 2;
+                int centerY = (height - size) / 2;
 
                 // Draw circle
-                g2.setColor(PRIMARY_COLOR);
-                g2.fillOval(centerX, centerY, size, size);
+                g.setColor(PRIMARY_COLOR);
+                g.fillOval(centerX, centerY, size, size);
 
                 // Draw initials
-                g2.setColor(Color.WHITE);
-                Font logoFont = new Font("Segoe UI", Font.BOLD, size / 2);
-                g2.setFont(logoFont);
-                FontMetrics fm = g2.getFontMetrics();
+                g.setColor(Color.WHITE);
+                g.setFont(new Font("Segoe UI", Font.BOLD, size / 2));
+                FontMetrics fm = g.getFontMetrics();
                 String text = "FAS";
                 int textX = centerX + (size - fm.stringWidth(text)) / 2;
                 int textY = centerY + (size + fm.getAscent() - fm.getDescent()) / 2;
-                g2.drawString(text, textX, textY);
+                g.drawString(text, textX, textY);
+            }
+
+            @Override
+            public Rectangle bounds(int width, int height) {
+                // One pixel of margin for antialiasing
+                return new Rectangle((width - size) / 2 - 1, (height - size) / 2 - 1, size + 2, size + 2);
             }
         };
+    }
+
+    private JPanel createLogoPanel(int size) {
+        JPanel logoPanel = new DecoratedPanel("logo-" + size, logoDecoration(size));
         logoPanel.setBackground(Color.WHITE);
         logoPanel.setPreferredSize(new Dimension(size + 20, size + 20));
         return logoPanel;
     }
 
 
-    class Crop {
-        String name, season, soilType, region, waterRequirement;
-        double expectedYield;
+    // Immutable, so a catalog version can be shared with background readers
+    static class Crop {
+        final String name, season, soilType, region, waterRequirement;
+        final double expectedYield;
 
         Crop(String name, String season, String soilType, String region, String waterRequirement, double expectedYield) {
             this.name = name;
@@ -1577,7 +1975,7 @@ public class AdvisorySystemGUI extends JFrame {
         }
     }
 
-    class Region {
+    static class Region {
         String name, climate;
         double avgRainfall;
         String commonCrops;
@@ -1590,17 +1988,18 @@ public class AdvisorySystemGUI extends JFrame {
         }
     }
 
-    class User {
-        String username, password, role;
+    static class User {
+        // passwordHash is a PasswordHash string, never the password itself
+        String username, passwordHash, role;
 
-        User(String username, String password, String role) {
+        User(String username, String passwordHash, String role) {
             this.username = username;
-            this.password = password;
+            this.passwordHash = passwordHash;
             this.role = role;
         }
     }
 
-    class Recommendation {
+    static class Recommendation {
         Crop crop;
         int score;
 
@@ -0,0 +1,399 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongConsumer;
+
+/**
+ * Random access and queries over the segments written by {@link AuditLog}.
+ *
+ * Entries are numbered from 0 (oldest) across all segments. Each segment has a sparse
+ * index holding the byte offset and timestamp of every {@link #SAMPLE_INTERVAL}th line, so
+ * reading any page seeks straight to the nearest sample and skips at most that many lines,
+ * however deep the page is. Time ranges are found by binary search over the sampled
+ * timestamps. Indexes of completed segments are saved next to them
+ * ({@code audit-000001.idx}) and only the active segment is rescanned, from where the last
+ * scan stopped.
+ */
+final class AuditHistory {
+
+    static final int SAMPLE_INTERVAL = 256;
+
+    private static final int INDEX_MAGIC = 0x46415849; // "FAXI"
+    private static final int INDEX_VERSION = 1;
+    private static final int TIMESTAMP_LENGTH = 21;     // "[yyyy-MM-dd HH:mm:ss]"
+
+    private final AuditLog log;
+    private final ZoneId zone = ZoneId.systemDefault();
+
+    // Guarded by this
+    private final List<SegmentIndex> segments = new ArrayList<>();
+    private long[] firstEntry = new long[0];
+    private long size;
+
+    private static final class SegmentIndex {
+        final int number;
+        boolean sealed;
+        int lines;
+        long bytes;          // length of the complete lines scanned so far
+        long[] offsets = new long[16];
+        long[] times = new long[16];
+        int samples;
+
+        SegmentIndex(int number) {
+            this.number = number;
+        }
+
+        void addSample(long offset, long time) {
+            if (samples == offsets.length) {
+                offsets = Arrays.copyOf(offsets, samples * 2);
+                times = Arrays.copyOf(times, samples * 2);
+            }
+            offsets[samples] = offset;
+            times[samples] = time;
+            samples++;
+        }
+    }
+
+    AuditHistory(AuditLog log) {
+        this.log = log;
+    }
+
+    /**
+     * Pick up entries written since the last refresh.
+     */
+    synchronized void refresh() throws IOException {
+        Path dir = log.dir();
+        int active = log.activeSegment();
+        List<Integer> numbers = AuditLog.segmentNumbers(dir);
+        for (int i = 0; i < numbers.size(); i++) {
+            int number = numbers.get(i);
+            SegmentIndex index;
+            if (i < segments.size()) {
+                index = segments.get(i);
+            } else {
+                index = number < active ? loadIndex(number) : null;
+                if (index == null) index = new SegmentIndex(number);
+                segments.add(index);
+            }
+            if (!index.sealed) {
+                indexSegment(index);
+                if (number < active) {
+                    index.sealed = true;
+                    saveIndex(index);
+                }
+            }
+        }
+        firstEntry = new long[segments.size()];
+        long total = 0;
+        for (int i = 0; i < segments.size(); i++) {
+            firstEntry[i] = total;
+            total += segments.get(i).lines;
+        }
+        size = total;
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    /**
+     * Entries {@code first} to {@code first + count - 1}, clipped to the log.
+     */
+    List<String> read(long first, int count) throws IOException {
+        long end = Math.min(first + count, size());
+        List<String> entries = new ArrayList<>((int) Math.max(0, end - first));
+        try (Reader reader = new Reader()) {
+            for (long e = first; e < end; e++) entries.add(reader.entry(e));
+        }
+        return entries;
+    }
+
+    /**
+     * The entries whose numbers are {@code ids[from]} to {@code ids[from + count - 1]};
+     * the numbers must be ascending.
+     */
+    List<String> read(long[] ids, int from, int count) throws IOException {
+        List<String> entries = new ArrayList<>(count);
+        try (Reader reader = new Reader()) {
+            for (int i = from; i < from + count; i++) entries.add(reader.entry(ids[i]));
+        }
+        return entries;
+    }
+
+    /**
+     * Number of the first entry logged at or after {@code epochSecond}, or {@link #size()}
+     * if there is none.
+     */
+    long firstAtOrAfter(long epochSecond) throws IOException {
+        long candidate = 0;
+        synchronized (this) {
+            // Last sample logged before the requested time
+            for (int s = segments.size() - 1; s >= 0; s--) {
+                SegmentIndex index = segments.get(s);
+                if (index.samples == 0 || index.times[0] >= epochSecond) continue;
+                int lo = 0, hi = index.samples - 1;
+                while (lo < hi) {
+                    int mid = (lo + hi + 1) >>> 1;
+                    if (index.times[mid] < epochSecond) lo = mid;
+                    else hi = mid - 1;
+                }
+                candidate = firstEntry[s] + (long) lo * SAMPLE_INTERVAL;
+                break;
+            }
+        }
+        long end = size();
+        try (Reader reader = new Reader()) {
+            for (long e = candidate; e < end; e++) {
+                if (parseTime(reader.entry(e)) >= epochSecond) return e;
+            }
+        }
+        return end;
+    }
+
+    /**
+     * Report every entry in {@code [from, to)} containing {@code keyword} (ignoring case)
+     * to {@code onMatch}, in order. Stops early once {@code cancelled} returns true.
+     */
+    void scan(long from, long to, String keyword, LongConsumer onMatch, BooleanSupplier cancelled) throws IOException {
+        String needle = keyword.toLowerCase();
+        try (Reader reader = new Reader()) {
+            for (long e = from; e < to; e++) {
+                if ((e & 4095) == 0 && cancelled.getAsBoolean()) return;
+                if (reader.entry(e).toLowerCase().contains(needle)) onMatch.accept(e);
+            }
+        }
+    }
+
+    // Sequential reader that seeks through the sparse index only when it has to move backwards
+    // or skip more than one sample interval ahead
+    private final class Reader implements Closeable {
+        private int segment = -1;
+        private long next;            // entry number of the next line the stream returns
+        private final LineInput in = new LineInput(1 << 14);
+
+        String entry(long e) throws IOException {
+            int s;
+            long lineInSegment;
+            SegmentIndex index;
+            synchronized (AuditHistory.this) {
+                s = segmentOf(e);
+                index = segments.get(s);
+                lineInSegment = e - firstEntry[s];
+            }
+            if (s != segment || e < next || e - next >= SAMPLE_INTERVAL) {
+                int sample = (int) (lineInSegment / SAMPLE_INTERVAL);
+                in.open(AuditLog.segmentPath(log.dir(), index.number), index.offsets[sample]);
+                segment = s;
+                next = e - (lineInSegment - (long) sample * SAMPLE_INTERVAL);
+            }
+            while (next < e) {
+                in.skipLine();
+                next++;
+            }
+            next++;
+            return in.readLine();
+        }
+
+        @Override
+        public void close() throws IOException {
+            in.close();
+        }
+    }
+
+    // Line reader over a file channel with its own unsynchronized buffer
+    private static final class LineInput implements Closeable {
+        private final byte[] buffer;
+        private final ByteBuffer wrapper;
+        private FileChannel channel;
+        private int pos, limit;
+        private long position;        // file offset of buffer[pos]
+        private byte[] line = new byte[256];
+
+        LineInput(int bufferSize) {
+            buffer = new byte[bufferSize];
+            wrapper = ByteBuffer.wrap(buffer);
+        }
+
+        void open(Path path, long offset) throws IOException {
+            close();
+            channel = FileChannel.open(path, StandardOpenOption.READ);
+            channel.position(offset);
+            position = offset;
+            pos = limit = 0;
+        }
+
+        long position() {
+            return position;
+        }
+
+        // False at end of file
+        private boolean fill() throws IOException {
+            wrapper.clear();
+            int n = channel.read(wrapper);
+            pos = 0;
+            limit = Math.max(n, 0);
+            return n > 0;
+        }
+
+        // Skips past the next '\n'; false if the file ended first
+        boolean skipLine() throws IOException {
+            while (true) {
+                if (pos == limit && !fill()) return false;
+                for (int i = pos; i < limit; i++) {
+                    if (buffer[i] == '\n') {
+                        position += i + 1 - pos;
+                        pos = i + 1;
+                        return true;
+                    }
+                }
+                position += limit - pos;
+                pos = limit;
+            }
+        }
+
+        // The next line without its '\n', or null at end of file
+        String readLine() throws IOException {
+            int length = readLineBytes();
+            return length < 0 ? null : new String(line, 0, length, StandardCharsets.UTF_8);
+        }
+
+        // Copies the next line into {@code line}; returns its length, or -1 if no complete line is left
+        int readLineBytes() throws IOException {
+            int length = 0;
+            while (true) {
+                if (pos == limit && !fill()) return -1;
+                int i = pos;
+                while (i < limit && buffer[i] != '\n') i++;
+                int chunk = i - pos;
+                if (length + chunk > line.length) line = Arrays.copyOf(line, Math.max(line.length * 2, length + chunk));
+                System.arraycopy(buffer, pos, line, length, chunk);
+                length += chunk;
+                position += chunk;
+                pos = i;
+                if (i < limit) {
+                    pos++;
+                    position++;
+                    return length;
+                }
+            }
+        }
+
+        byte[] lineBytes() {
+            return line;
+        }
+
+        @Override
+        public void close() throws IOException {
+            if (channel != null) channel.close();
+            channel = null;
+        }
+    }
+
+    // Called with the lock held
+    private int segmentOf(long entry) {
+        if (entry < 0 || entry >= size) throw new IndexOutOfBoundsException("Entry " + entry + " of " + size);
+        int s = Arrays.binarySearch(firstEntry, entry);
+        if (s < 0) return -s - 2;
+        // Skip empty segments that share the same first entry
+        while (s + 1 < firstEntry.length && firstEntry[s + 1] == entry) s++;
+        return s;
+    }
+
+    // Index the complete lines added to a segment since the last scan
+    private void indexSegment(SegmentIndex index) throws IOException {
+        Path path = AuditLog.segmentPath(log.dir(), index.number);
+        if (Files.size(path) <= index.bytes) return;
+        try (LineInput in = new LineInput(1 << 16)) {
+            in.open(path, index.bytes);
+            while (true) {
+                long lineStart = in.position();
+                if (index.lines % SAMPLE_INTERVAL == 0) {
+                    int length = in.readLineBytes();
+                    if (length < 0) break;
+                    long time = parseTime(new String(in.lineBytes(), 0, Math.min(length, TIMESTAMP_LENGTH), StandardCharsets.US_ASCII));
+                    // Keep sampled times ascending even if a line has no valid timestamp
+                    if (index.samples > 0) time = Math.max(time, index.times[index.samples - 1]);
+                    index.addSample(lineStart, time);
+                } else if (!in.skipLine()) {
+                    break;
+                }
+                index.lines++;
+                index.bytes = in.position();
+            }
+        }
+    }
+
+    // Epoch second of an entry's "[yyyy-MM-dd HH:mm:ss]" prefix, or Long.MIN_VALUE if it has none
+    private long parseTime(String entry) {
+        if (entry.length() < TIMESTAMP_LENGTH || entry.charAt(0) != '[' || entry.charAt(20) != ']') return Long.MIN_VALUE;
+        try {
+            return LocalDateTime.of(digits(entry, 1, 4), digits(entry, 6, 2), digits(entry, 9, 2),
+                    digits(entry, 12, 2), digits(entry, 15, 2), digits(entry, 18, 2)).atZone(zone).toEpochSecond();
+        } catch (RuntimeException e) {
+            return Long.MIN_VALUE;
+        }
+    }
+
+    private static int digits(String s, int from, int count) {
+        int value = 0;
+        for (int i = from; i < from + count; i++) {
+            char c = s.charAt(i);
+            if (c < '0' || c > '9') throw new NumberFormatException(s.substring(from, from + count));
+            value = value * 10 + (c - '0');
+        }
+        return value;
+    }
+
+    private Path indexPath(int number) {
+        return log.dir().resolve(String.format("audit-%06d.idx", number));
+    }
+
+    private SegmentIndex loadIndex(int number) {
+        Path path = indexPath(number);
+        if (!Files.exists(path)) return null;
+        try (DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != INDEX_MAGIC || in.readInt() != INDEX_VERSION) return null;
+            SegmentIndex index = new SegmentIndex(number);
+            index.bytes = in.readLong();
+            // A segment that changed since it was indexed is rescanned
+            if (index.bytes != Files.size(AuditLog.segmentPath(log.dir(), number))) return null;
+            index.lines = in.readInt();
+            int samples = in.readInt();
+            index.offsets = new long[Math.max(samples, 1)];
+            index.times = new long[Math.max(samples, 1)];
+            for (int i = 0; i < samples; i++) {
+                index.offsets[i] = in.readLong();
+                index.times[i] = in.readLong();
+            }
+            index.samples = samples;
+            index.sealed = true;
+            return index;
+        } catch (IOException e) {
+            return null;
+        }
+    }
+
+    private void saveIndex(SegmentIndex index) {
+        Path path = indexPath(index.number);
+        try (DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(INDEX_VERSION);
+            out.writeLong(index.bytes);
+            out.writeInt(index.lines);
+            out.writeInt(index.samples);
+            for (int i = 0; i < index.samples; i++) {
+                out.writeLong(index.offsets[i]);
+                out.writeLong(index.times[i]);
+            }
+        } catch (IOException e) {
+            // Only costs a rescan next time
+            System.err.println("Could not save audit index " + path + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,105 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+
+/**
+ * Builds a large audit history and times what the history dialog does with it: indexing
+ * the segments, reading a page at random depths, finding the start of a time range and
+ * scanning for a keyword. Page reads should stay well under 50 ms at any depth.
+ *
+ * Run with: java AuditHistoryBenchmark [entries]   (default: 2000000)
+ */
+public class AuditHistoryBenchmark {
+
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+    private static final String[] ACTIONS = {"User logged in", "Searched crops", "Viewed recommendations",
+            "Updated crop", "Added crop", "Generated report", "Viewed soil suggestions"};
+
+    public static void main(String[] args) throws Exception {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 2_000_000;
+        Path dir = Files.createTempDirectory("audit-bench");
+        long firstSecond = Instant.parse("2024-01-01T00:00:00Z").getEpochSecond();
+
+        long start = System.nanoTime();
+        writeSegments(dir, entries, firstSecond);
+        System.out.printf("wrote %,d entries in %.0f ms%n", entries, ms(System.nanoTime() - start));
+
+        try (AuditLog log = AuditLog.open(dir)) {
+            AuditHistory history = new AuditHistory(log);
+            start = System.nanoTime();
+            history.refresh();
+            System.out.printf("index build: %.0f ms (%,d entries)%n", ms(System.nanoTime() - start), history.size());
+
+            AuditHistory reopened = new AuditHistory(log);
+            start = System.nanoTime();
+            reopened.refresh();
+            System.out.printf("index load:  %.0f ms%n", ms(System.nanoTime() - start));
+
+            Random random = new Random(42);
+            long[] pageTimes = new long[500];
+            for (int i = 0; i < pageTimes.length; i++) {
+                long first = (long) (random.nextDouble() * (history.size() - HistoryListModel.PAGE_SIZE));
+                long t = System.nanoTime();
+                List<String> page = history.read(first, HistoryListModel.PAGE_SIZE);
+                pageTimes[i] = System.nanoTime() - t;
+                if (page.size() != HistoryListModel.PAGE_SIZE || !page.get(0).endsWith("#" + first)) {
+                    throw new IllegalStateException("Wrong page at " + first + ": " + page.get(0));
+                }
+            }
+            report("page read", pageTimes);
+
+            long[] seekTimes = new long[500];
+            for (int i = 0; i < seekTimes.length; i++) {
+                long expected = random.nextInt(entries);
+                long t = System.nanoTime();
+                long found = history.firstAtOrAfter(firstSecond + expected);
+                seekTimes[i] = System.nanoTime() - t;
+                if (found != expected) throw new IllegalStateException("Time seek found " + found + ", expected " + expected);
+            }
+            report("time seek", seekTimes);
+
+            long[] matches = {0};
+            start = System.nanoTime();
+            history.scan(0, history.size(), "generated report", e -> matches[0]++, () -> false);
+            double scanMs = ms(System.nanoTime() - start);
+            System.out.printf("keyword scan: %.0f ms, %,d matches, %.1f M entries/s%n",
+                    scanMs, matches[0], history.size() / scanMs / 1000.0);
+        }
+    }
+
+    // One entry per second, written straight into 1 MiB segments the way AuditLog lays them out
+    private static void writeSegments(Path dir, int entries, long firstSecond) throws IOException {
+        int segment = 1;
+        long segmentSize = 0;
+        OutputStream out = new BufferedOutputStream(Files.newOutputStream(AuditLog.segmentPath(dir, segment)), 1 << 16);
+        for (int i = 0; i < entries; i++) {
+            String line = "[" + TIMESTAMP.format(Instant.ofEpochSecond(firstSecond + i)) + "] "
+                    + ACTIONS[i % ACTIONS.length] + " #" + i + "\n";
+            byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+            if (segmentSize + bytes.length > AuditLog.SEGMENT_BYTES) {
+                out.close();
+                out = new BufferedOutputStream(Files.newOutputStream(AuditLog.segmentPath(dir, ++segment)), 1 << 16);
+                segmentSize = 0;
+            }
+            out.write(bytes);
+            segmentSize += bytes.length;
+        }
+        out.close();
+    }
+
+    private static void report(String name, long[] nanos) {
+        long[] sorted = nanos.clone();
+        Arrays.sort(sorted);
+        System.out.printf("%-10s p50 %.3f ms, p99 %.3f ms, max %.3f ms%n", name,
+                ms(sorted[sorted.length / 2]), ms(sorted[sorted.length * 99 / 100]), ms(sorted[sorted.length - 1]));
+    }
+
+    private static double ms(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
@@ -0,0 +1,270 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.*;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Asynchronous, append-only audit log kept in rolling segment files.
+ *
+ * {@link #log} stores the entry in a fixed-size ring buffer and returns; it never waits
+ * for I/O or for other callers. A single writer thread drains the ring, formats each entry
+ * as {@code [yyyy-MM-dd HH:mm:ss] message} on one line (line breaks in the message are
+ * written as {@code \n} and {@code \r}) and appends it to the current segment
+ * ({@code audit-000001.log}, ...), starting a new segment once it reaches
+ * {@link #SEGMENT_BYTES}. Segments are never deleted, so history is unlimited while heap use
+ * stays bounded by the ring. If the ring is full the entry is counted as dropped and a
+ * note is written in its place once the writer catches up. {@link AuditHistory} reads
+ * the segments back.
+ */
+final class AuditLog implements Closeable {
+
+    static final int SEGMENT_BYTES = 1 << 20;
+    private static final int RING_SIZE = 1 << 16;
+    private static final long IDLE_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    private static final DateTimeFormatter TIMESTAMP =
+            DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss").withZone(ZoneId.systemDefault());
+
+    private final Path dir;
+
+    // Ring buffer: producers claim a sequence number, fill the slot, then publish it
+    private final long[] times = new long[RING_SIZE];
+    private final String[] messages = new String[RING_SIZE];
+    private final AtomicLongArray published = new AtomicLongArray(RING_SIZE);
+    private final AtomicLong tail = new AtomicLong();
+    private volatile long head;
+    // Sequence number up to which entries have been flushed to the segment file
+    private volatile long flushed;
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder logged = new LongAdder();
+
+    private final Thread writer;
+    private volatile boolean running = true;
+    // Set while the writer is parked, so producers only pay for unpark when it is needed
+    private volatile boolean writerParked;
+    private volatile Runnable onLogged;
+
+    // Writer thread state
+    private OutputStream out;
+    private final StringBuilder line = new StringBuilder(128);
+    private volatile int segment;
+    private long segmentSize;
+    private long lastSecond = Long.MIN_VALUE;
+    private String lastTimestamp;
+
+    static AuditLog open(Path dir) throws IOException {
+        return new AuditLog(dir);
+    }
+
+    private AuditLog(Path dir) throws IOException {
+        this.dir = dir;
+        Files.createDirectories(dir);
+        List<Integer> existing = segmentNumbers(dir);
+        segment = existing.isEmpty() ? 1 : existing.get(existing.size() - 1);
+        openSegment();
+        writer = new Thread(this::writeLoop, "audit-log");
+        writer.setDaemon(true);
+        writer.start();
+    }
+
+    /**
+     * Record {@code message} with the current time. Never blocks.
+     */
+    void log(String message) {
+        long now = System.currentTimeMillis();
+        long seq;
+        do {
+            seq = tail.get();
+            if (seq - head >= RING_SIZE) {
+                dropped.increment();
+                return;
+            }
+        } while (!tail.compareAndSet(seq, seq + 1));
+        int slot = (int) (seq & (RING_SIZE - 1));
+        times[slot] = now;
+        messages[slot] = message;
+        published.set(slot, seq + 1);
+        logged.increment();
+        if (writerParked) LockSupport.unpark(writer);
+        Runnable listener = onLogged;
+        if (listener != null) listener.run();
+    }
+
+    /**
+     * Run {@code listener} on the logging thread after each entry is accepted. It is called on
+     * the hot path, so it must only flag that something changed.
+     */
+    void onLogged(Runnable listener) {
+        onLogged = listener;
+    }
+
+    /**
+     * Entries logged since this log was opened.
+     */
+    long loggedCount() {
+        return logged.sum();
+    }
+
+    long droppedCount() {
+        return dropped.sum();
+    }
+
+    /**
+     * Wait until every entry logged so far has been written to the segment files.
+     */
+    void flush() throws InterruptedException {
+        long target = tail.get();
+        while (flushed < target && writer.isAlive()) {
+            LockSupport.unpark(writer);
+            Thread.sleep(1);
+        }
+    }
+
+    Path dir() {
+        return dir;
+    }
+
+    /**
+     * Number of the segment currently being written; lower-numbered segments are complete.
+     */
+    int activeSegment() {
+        return segment;
+    }
+
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(writer);
+        try {
+            writer.join(2000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void writeLoop() {
+        long reportedDrops = 0;
+        while (true) {
+            int written = drain();
+            long drops = dropped.sum();
+            if (drops > reportedDrops) {
+                write(System.currentTimeMillis(), (drops - reportedDrops) + " audit entries dropped (log buffer full)");
+                reportedDrops = drops;
+            }
+            if (written == 0) {
+                try {
+                    out.flush();
+                    flushed = head;
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+                if (!running && head == tail.get()) break;
+                writerParked = true;
+                if (!isReadable()) LockSupport.parkNanos(this, IDLE_PARK_NANOS);
+                writerParked = false;
+            }
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private boolean isReadable() {
+        return published.get((int) (head & (RING_SIZE - 1))) == head + 1;
+    }
+
+    // Writes every published entry in sequence order; returns how many were written
+    private int drain() {
+        int count = 0;
+        long seq = head;
+        while (true) {
+            int slot = (int) (seq & (RING_SIZE - 1));
+            if (published.get(slot) != seq + 1) break;
+            long time = times[slot];
+            String message = messages[slot];
+            messages[slot] = null;
+            head = ++seq;
+            write(time, message);
+            count++;
+        }
+        return count;
+    }
+
+    private void write(long time, String message) {
+        line.setLength(0);
+        line.append('[').append(timestamp(time)).append("] ");
+        appendSingleLine(line, message);
+        line.append('\n');
+        byte[] bytes = line.toString().getBytes(StandardCharsets.UTF_8);
+        try {
+            if (segmentSize > 0 && segmentSize + bytes.length > SEGMENT_BYTES) {
+                out.close();
+                segment++;
+                openSegment();
+            }
+            out.write(bytes);
+            segmentSize += bytes.length;
+        } catch (IOException e) {
+            System.err.println("Audit log write failed: " + e.getMessage());
+        }
+    }
+
+    // One entry per line: messages can carry names from imported files, so line breaks are escaped
+    private static void appendSingleLine(StringBuilder line, String message) {
+        for (int i = 0; i < message.length(); i++) {
+            char c = message.charAt(i);
+            if (c == '\n') line.append("\\n");
+            else if (c == '\r') line.append("\\r");
+            else line.append(c);
+        }
+    }
+
+    // Entries arrive in bursts within the same second, so reuse the last formatted value
+    private String timestamp(long time) {
+        long second = Math.floorDiv(time, 1000L);
+        if (second != lastSecond) {
+            lastSecond = second;
+            lastTimestamp = TIMESTAMP.format(Instant.ofEpochSecond(second));
+        }
+        return lastTimestamp;
+    }
+
+    private void openSegment() throws IOException {
+        Path path = segmentPath(segment);
+        out = new BufferedOutputStream(Files.newOutputStream(path, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 1 << 16);
+        segmentSize = Files.size(path);
+    }
+
+    private Path segmentPath(int number) {
+        return segmentPath(dir, number);
+    }
+
+    static Path segmentPath(Path dir, int number) {
+        return dir.resolve(String.format("audit-%06d.log", number));
+    }
+
+    static List<Integer> segmentNumbers(Path dir) throws IOException {
+        List<Integer> numbers = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "audit-*.log")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    numbers.add(Integer.parseInt(name.substring(6, name.length() - 4)));
+                } catch (NumberFormatException ignored) {
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+}
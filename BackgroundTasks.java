@@ -0,0 +1,218 @@
+import javax.swing.*;
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Runs UI work off the event dispatch thread and reports back on it.
+ *
+ * Work runs on virtual threads when the JVM has them, otherwise on a fixed pool of daemon
+ * threads. A {@link Task} reports progress and intermediate results from the worker;
+ * these are coalesced, so however often the worker reports, the EDT runs at most one
+ * pending update per event and only sees the latest values. Completion callbacks run on
+ * the EDT after every pending update. A cancelled task interrupts its thread, and none of
+ * its callbacks run afterwards except {@code onFinished}.
+ */
+final class BackgroundTasks {
+
+    interface Work<T> {
+        T run(Task<T> task) throws Exception;
+    }
+
+    interface ProgressListener {
+        /**
+         * @param percent 0-100, or -1 when the amount of work is unknown
+         */
+        void progress(int percent, String message);
+    }
+
+    private static final BackgroundTasks SHARED = new BackgroundTasks();
+
+    private final ExecutorService executor = newExecutor("background");
+
+    static BackgroundTasks shared() {
+        return SHARED;
+    }
+
+    <T> Task<T> newTask(String name, Work<T> work) {
+        return new Task<>(name, work);
+    }
+
+    /**
+     * A virtual thread per task where the JVM has them, otherwise a pool of daemon threads
+     * named {@code threadName-N}, one per processor. Virtual threads need JDK 21, so they are
+     * looked up reflectively and the code still builds on 17.
+     */
+    static ExecutorService newExecutor(String threadName) {
+        try {
+            Method factory = Executors.class.getMethod("newVirtualThreadPerTaskExecutor");
+            return (ExecutorService) factory.invoke(null);
+        } catch (ReflectiveOperationException e) {
+            int threads = Math.max(2, Runtime.getRuntime().availableProcessors());
+            AtomicInteger count = new AtomicInteger();
+            ThreadPoolExecutor pool = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                Thread t = new Thread(r, threadName + "-" + count.incrementAndGet());
+                t.setDaemon(true);
+                return t;
+            });
+            pool.allowCoreThreadTimeOut(true);
+            return pool;
+        }
+    }
+
+    /**
+     * One piece of background work. Register callbacks, then {@link #start}.
+     */
+    final class Task<T> {
+        private final String name;
+        private final Work<T> work;
+        private Consumer<T> onDone = r -> { };
+        private Consumer<Throwable> onFailure = e -> {
+            System.err.println("Background task '" + Task.this.name + "' failed");
+            e.printStackTrace();
+        };
+        private ProgressListener onProgress;
+        private Runnable onFinished = () -> { };
+
+        private Future<?> future;
+        private volatile boolean cancelled;
+        private volatile boolean finished;
+        // Set by whichever comes first: the worker starting, or a cancel before it started
+        private final AtomicBoolean started = new AtomicBoolean();
+
+        // Latest values waiting for the EDT, and whether a flush is already queued
+        private final AtomicReference<Object[]> pendingProgress = new AtomicReference<>();
+        private final AtomicReference<Runnable> pendingUpdate = new AtomicReference<>();
+        private final AtomicBoolean flushQueued = new AtomicBoolean();
+
+        private Task(String name, Work<T> work) {
+            this.name = name;
+            this.work = work;
+        }
+
+        Task<T> onDone(Consumer<T> callback) {
+            onDone = callback;
+            return this;
+        }
+
+        Task<T> onFailure(Consumer<Throwable> callback) {
+            onFailure = callback;
+            return this;
+        }
+
+        Task<T> onProgress(ProgressListener listener) {
+            onProgress = listener;
+            return this;
+        }
+
+        /**
+         * Run on the EDT once the task ends, whether it succeeded, failed or was cancelled.
+         */
+        Task<T> onFinished(Runnable callback) {
+            onFinished = callback;
+            return this;
+        }
+
+        Task<T> start() {
+            future = executor.submit(this::execute);
+            return this;
+        }
+
+        void cancel() {
+            cancelled = true;
+            if (future == null) return;
+            if (started.compareAndSet(false, true)) {
+                // execute() will never run, so the callbacks are queued from here
+                future.cancel(false);
+                finish(null, null);
+            } else {
+                future.cancel(true);
+            }
+        }
+
+        boolean isCancelled() {
+            return cancelled;
+        }
+
+        boolean isFinished() {
+            return finished;
+        }
+
+        String name() {
+            return name;
+        }
+
+        // --- Called by the work ---
+
+        /**
+         * Report progress; {@code total <= 0} means unknown.
+         */
+        void progress(long done, long total, String message) {
+            int percent = total <= 0 ? -1 : (int) Math.min(100, done * 100 / total);
+            pendingProgress.set(new Object[]{percent, message});
+            queueFlush();
+        }
+
+        /**
+         * Run {@code update} on the EDT, unless a later update replaces it first.
+         */
+        void update(Runnable update) {
+            pendingUpdate.set(update);
+            queueFlush();
+        }
+
+        /**
+         * Throw {@link CancellationException} if the task was cancelled.
+         */
+        void checkCancelled() {
+            if (cancelled || Thread.currentThread().isInterrupted()) throw new CancellationException(name);
+        }
+
+        private void queueFlush() {
+            if (flushQueued.compareAndSet(false, true)) SwingUtilities.invokeLater(this::flush);
+        }
+
+        // On the EDT
+        private void flush() {
+            flushQueued.set(false);
+            Object[] progress = pendingProgress.getAndSet(null);
+            Runnable update = pendingUpdate.getAndSet(null);
+            if (cancelled) return;
+            if (progress != null && onProgress != null) onProgress.progress((Integer) progress[0], (String) progress[1]);
+            if (update != null) update.run();
+        }
+
+        private void execute() {
+            if (!started.compareAndSet(false, true)) return;
+            T result = null;
+            Throwable failure = null;
+            try {
+                result = work.run(this);
+            } catch (CancellationException | InterruptedException e) {
+                cancelled = true;
+            } catch (Throwable e) {
+                failure = e;
+            }
+            finish(result, failure);
+        }
+
+        private void finish(T value, Throwable error) {
+            SwingUtilities.invokeLater(() -> {
+                flush();
+                finished = true;
+                try {
+                    if (!cancelled) {
+                        if (error != null) onFailure.accept(error);
+                        else onDone.accept(value);
+                    }
+                } finally {
+                    onFinished.run();
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,317 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Headless batch scoring of farm plots.
+ *
+ * Reads plots as CSV (plot_id, soil, season, region) and writes the top recommendations
+ * for each plot as CSV or JSON lines. Input is read in fixed-size batches that are scored
+ * on a fork-join pool while the next batch is read, and only a few batches are in flight
+ * at once, so memory stays bounded regardless of the input size. Plots are answered from the
+ * catalog's recommendation cache where possible; the distinct plots of a slice that miss it
+ * are scored against every crop profile in one {@link ScoringModel} matrix product.
+ *
+ * Crops come from the catalog file given by {@code --data} (the GUI's catalog by default),
+ * or from the built-in defaults when that file does not exist.
+ *
+ * Usage: java FarmerAdvisoryApp --batch [--in plots.csv] [--out results.csv]
+ *        [--format csv|json] [--top 5] [--threads N] [--batch-size 4096] [--data catalog.dat]
+ */
+public class BatchAdvisor {
+
+    private static final int SPLIT_THRESHOLD = 256;
+    private static final int PROGRESS_INTERVAL = 100_000;
+
+    private String input = "-";
+    private String output = "-";
+    private boolean json;
+    private int top = 5;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    private int batchSize = 4096;
+    private Path data = CatalogFile.defaultPath();
+
+    public static void main(String[] args) {
+        BatchAdvisor batch = new BatchAdvisor();
+        try {
+            batch.parseArgs(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println("Usage: --batch [--in plots.csv] [--out results.csv] [--format csv|json]"
+                    + " [--top 5] [--threads N] [--batch-size 4096] [--data catalog.dat]");
+            System.exit(2);
+        }
+        try {
+            batch.run(Files.exists(batch.data) ? CropCatalog.open(batch.data) : CropCatalog.withDefaults());
+        } catch (IOException e) {
+            System.err.println("Batch failed: " + e.getMessage());
+            System.exit(1);
+        }
+    }
+
+    private void parseArgs(String[] args) {
+        for (int i = 0; i < args.length; i++) {
+            String arg = args[i];
+            if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + arg);
+            String value = args[++i];
+            switch (arg) {
+                case "--in": input = value; break;
+                case "--out": output = value; break;
+                case "--format":
+                    if (!value.equals("csv") && !value.equals("json")) {
+                        throw new IllegalArgumentException("Unknown format: " + value);
+                    }
+                    json = value.equals("json");
+                    break;
+                case "--top": top = positive(arg, value); break;
+                case "--threads": threads = positive(arg, value); break;
+                case "--batch-size": batchSize = positive(arg, value); break;
+                case "--data": data = Paths.get(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+    }
+
+    private static int positive(String option, String value) {
+        try {
+            int n = Integer.parseInt(value);
+            if (n > 0) return n;
+        } catch (NumberFormatException ignored) {
+        }
+        throw new IllegalArgumentException(option + " expects a positive number, got " + value);
+    }
+
+    void run(CropCatalog catalog) throws IOException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        int maxInFlight = 4;
+        ScoringModel model = catalog.scoringModel();
+
+        long start = System.nanoTime();
+        long plots = 0;
+        long rejected = 0;
+        long nextProgress = PROGRESS_INTERVAL;
+
+        try (BufferedReader in = openInput(); Writer out = openOutput()) {
+            PlotReader reader = new PlotReader(in);
+            if (!json) out.write("plot_id,rank,crop,score,season,expected_yield\n");
+
+            ArrayDeque<Plot[]> batches = new ArrayDeque<>();
+            ArrayDeque<ForkJoinTask<Void>> tasks = new ArrayDeque<>();
+            Plot[] batch;
+            while ((batch = reader.readBatch(batchSize)) != null) {
+                if (tasks.size() >= maxInFlight) {
+                    tasks.removeFirst().join();
+                    rejected += write(batches.removeFirst(), out);
+                }
+                batches.addLast(batch);
+                tasks.addLast(pool.submit(new ScoreTask(model, catalog.recommendationCache, batch, 0, batch.length, top)));
+
+                plots += batch.length;
+                if (plots >= nextProgress) {
+                    System.err.printf("... %,d plots read (%,.0f plots/sec)%n", plots, rate(plots, start));
+                    nextProgress += PROGRESS_INTERVAL;
+                }
+            }
+            while (!tasks.isEmpty()) {
+                tasks.removeFirst().join();
+                rejected += write(batches.removeFirst(), out);
+            }
+        } finally {
+            pool.shutdown();
+        }
+
+        double seconds = (System.nanoTime() - start) / 1e9;
+        System.err.printf("Scored %,d plots (%,d rejected) in %.2f s: %,.0f plots/sec on %d threads%n",
+                plots, rejected, seconds, rate(plots, start), threads);
+        System.err.println("Scoring model: " + model);
+        System.err.println("Recommendation cache: " + catalog.recommendationCache);
+    }
+
+    private static double rate(long plots, long startNanos) {
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        return seconds > 0 ? plots / seconds : 0;
+    }
+
+    private BufferedReader openInput() throws IOException {
+        InputStream in = input.equals("-") ? System.in : new FileInputStream(input);
+        return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    private Writer openOutput() throws IOException {
+        OutputStream out = output.equals("-") ? new FileOutputStream(FileDescriptor.out) : new FileOutputStream(output);
+        return new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 1 << 16);
+    }
+
+    // Writes one scored batch and returns how many plots were rejected
+    private long write(Plot[] batch, Writer out) throws IOException {
+        long rejected = 0;
+        for (Plot plot : batch) {
+            if (plot.error != null) {
+                rejected++;
+                System.err.println("line " + plot.line + ": " + plot.error);
+                if (json) out.write("{\"plot_id\":" + Json.quote(plot.id) + ",\"error\":" + Json.quote(plot.error) + "}\n");
+                continue;
+            }
+            if (json) {
+                StringBuilder sb = new StringBuilder(128);
+                sb.append("{\"plot_id\":").append(Json.quote(plot.id))
+                  .append(",\"soil\":").append(Json.quote(plot.soil))
+                  .append(",\"season\":").append(Json.quote(plot.season))
+                  .append(",\"region\":").append(Json.quote(plot.region))
+                  .append(",\"recommendations\":[");
+                for (int i = 0; i < plot.recommendations.size(); i++) {
+                    AdvisorySystemGUI.Recommendation rec = plot.recommendations.get(i);
+                    if (i > 0) sb.append(',');
+                    sb.append("{\"crop\":").append(Json.quote(rec.crop.name))
+                      .append(",\"score\":").append(rec.score)
+                      .append(",\"season\":").append(Json.quote(rec.crop.season))
+                      .append(",\"expected_yield\":").append(rec.crop.expectedYield).append('}');
+                }
+                out.write(sb.append("]}\n").toString());
+            } else {
+                String id = Csv.escape(plot.id);
+                for (int i = 0; i < plot.recommendations.size(); i++) {
+                    AdvisorySystemGUI.Recommendation rec = plot.recommendations.get(i);
+                    out.write(id + "," + (i + 1) + "," + Csv.escape(rec.crop.name) + "," + rec.score + ","
+                            + Csv.escape(rec.crop.season) + "," + rec.crop.expectedYield + "\n");
+                }
+            }
+        }
+        return rejected;
+    }
+
+    static class Plot {
+        final long line;
+        String id, soil, season, region, error;
+        List<AdvisorySystemGUI.Recommendation> recommendations = Collections.emptyList();
+
+        Plot(long line) {
+            this.line = line;
+        }
+    }
+
+    // Reads plot rows, honouring an optional header that names the columns
+    static class PlotReader {
+        private final BufferedReader in;
+        private int idCol = 0, soilCol = 1, seasonCol = 2, regionCol = 3;
+        private long lineNumber;
+        private boolean firstLine = true;
+
+        PlotReader(BufferedReader in) {
+            this.in = in;
+        }
+
+        Plot[] readBatch(int size) throws IOException {
+            List<Plot> batch = new ArrayList<>(size);
+            String line;
+            while (batch.size() < size && (line = in.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) continue;
+                List<String> fields = Csv.parseLine(line);
+                if (firstLine) {
+                    firstLine = false;
+                    if (readHeader(fields)) continue;
+                }
+                batch.add(toPlot(fields));
+            }
+            return batch.isEmpty() ? null : batch.toArray(new Plot[0]);
+        }
+
+        private boolean readHeader(List<String> fields) {
+            int soil = -1, season = -1, region = -1, id = -1;
+            for (int i = 0; i < fields.size(); i++) {
+                switch (fields.get(i).toLowerCase()) {
+                    case "plot_id": case "plot": case "id": id = i; break;
+                    case "soil": case "soil_type": case "soiltype": soil = i; break;
+                    case "season": season = i; break;
+                    case "region": case "tehsil": region = i; break;
+                    default:
+                }
+            }
+            if (soil < 0 || season < 0 || region < 0) return false;
+            idCol = id;
+            soilCol = soil;
+            seasonCol = season;
+            regionCol = region;
+            return true;
+        }
+
+        private Plot toPlot(List<String> fields) {
+            Plot plot = new Plot(lineNumber);
+            plot.id = idCol >= 0 && idCol < fields.size() ? fields.get(idCol) : String.valueOf(lineNumber);
+            int needed = Math.max(soilCol, Math.max(seasonCol, regionCol)) + 1;
+            if (fields.size() < needed) {
+                plot.error = "expected at least " + needed + " fields, found " + fields.size();
+                return plot;
+            }
+            plot.soil = fields.get(soilCol);
+            plot.season = fields.get(seasonCol);
+            plot.region = fields.get(regionCol);
+            if (plot.soil.isEmpty() || plot.season.isEmpty() || plot.region.isEmpty()) {
+                plot.error = "soil, season and region are required";
+            }
+            return plot;
+        }
+    }
+
+    // Scores a slice of a batch, splitting until slices are small enough
+    @SuppressWarnings("serial")
+    static class ScoreTask extends RecursiveAction {
+        private final ScoringModel model;
+        private final RecommendationCache cache;
+        private final Plot[] plots;
+        private final int from, to, top;
+
+        ScoreTask(ScoringModel model, RecommendationCache cache, Plot[] plots, int from, int to, int top) {
+            this.model = model;
+            this.cache = cache;
+            this.plots = plots;
+            this.from = from;
+            this.to = to;
+            this.top = top;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= SPLIT_THRESHOLD) {
+                // Score row of each distinct plot the cache cannot answer yet
+                Map<List<String>, Integer> rows = new LinkedHashMap<>();
+                for (int i = from; i < to; i++) {
+                    Plot plot = plots[i];
+                    if (plot.error == null && cache.peek(plot.soil, plot.season, plot.region, top) == null) {
+                        rows.putIfAbsent(key(plot), rows.size());
+                    }
+                }
+                ScoringModel.Query[] queries = new ScoringModel.Query[rows.size()];
+                for (Map.Entry<List<String>, Integer> row : rows.entrySet()) {
+                    List<String> k = row.getKey();
+                    queries[row.getValue()] = model.query(k.get(0), k.get(1), k.get(2));
+                }
+                double[] scores = model.profileScores(queries);
+                for (int i = from; i < to; i++) {
+                    Plot plot = plots[i];
+                    if (plot.error != null) continue;
+                    Integer row = rows.get(key(plot));
+                    // An entry evicted since the peek has no row and is scored on its own
+                    plot.recommendations = cache.get(plot.soil, plot.season, plot.region, top, () -> row != null
+                            ? model.recommend(scores, row, top)
+                            : model.recommend(plot.soil, plot.season, plot.region, top));
+                }
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new ScoreTask(model, cache, plots, from, mid, top),
+                    new ScoreTask(model, cache, plots, mid, to, top));
+        }
+
+        private static List<String> key(Plot plot) {
+            return Arrays.asList(plot.soil, plot.season, plot.region);
+        }
+    }
+}
@@ -0,0 +1,167 @@
+import java.util.*;
+
+/**
+ * Per-region and per-season crop counts, crop lists and yield statistics for one
+ * {@link CropCatalog.Version}.
+ *
+ * Each new version derives its aggregates from the previous one by applying only the crops
+ * that changed, copying just the groups they touch, so reports read ready-made totals
+ * instead of grouping the whole catalog. Instances are immutable.
+ */
+final class CatalogAggregates {
+
+    /**
+     * The crops sharing one region or season, in the order they joined the group.
+     */
+    static final class Group {
+        final String key;
+        final List<AdvisorySystemGUI.Crop> crops;
+        final double totalYield;
+        final double minYield;
+        final double maxYield;
+
+        private volatile String names;
+
+        private Group(String key, List<AdvisorySystemGUI.Crop> crops) {
+            this.key = key;
+            this.crops = Collections.unmodifiableList(crops);
+            double total = 0, min = Double.POSITIVE_INFINITY, max = Double.NEGATIVE_INFINITY;
+            for (AdvisorySystemGUI.Crop crop : crops) {
+                total += crop.expectedYield;
+                min = Math.min(min, crop.expectedYield);
+                max = Math.max(max, crop.expectedYield);
+            }
+            this.totalYield = total;
+            this.minYield = crops.isEmpty() ? 0 : min;
+            this.maxYield = crops.isEmpty() ? 0 : max;
+        }
+
+        int count() {
+            return crops.size();
+        }
+
+        double averageYield() {
+            return crops.isEmpty() ? 0 : totalYield / crops.size();
+        }
+
+        /**
+         * Crop names joined with ", ", built on first use.
+         */
+        String names() {
+            String n = names;
+            if (n == null) {
+                StringBuilder sb = new StringBuilder();
+                for (AdvisorySystemGUI.Crop crop : crops) {
+                    if (sb.length() > 0) sb.append(", ");
+                    sb.append(crop.name);
+                }
+                names = n = sb.toString();
+            }
+            return n;
+        }
+    }
+
+    private static final Group EMPTY_REGION = new Group("", Collections.emptyList());
+
+    private final Map<String, Group> byRegion;
+    private final Map<String, Group> bySeason;
+    private final long updatedAtMillis;
+
+    private CatalogAggregates(Map<String, Group> byRegion, Map<String, Group> bySeason, long updatedAtMillis) {
+        this.byRegion = byRegion;
+        this.bySeason = bySeason;
+        this.updatedAtMillis = updatedAtMillis;
+    }
+
+    /**
+     * Group every crop from scratch.
+     */
+    static CatalogAggregates of(List<AdvisorySystemGUI.Crop> crops) {
+        Map<String, List<AdvisorySystemGUI.Crop>> regions = new LinkedHashMap<>();
+        Map<String, List<AdvisorySystemGUI.Crop>> seasons = new LinkedHashMap<>();
+        for (AdvisorySystemGUI.Crop crop : crops) {
+            regions.computeIfAbsent(crop.region, k -> new ArrayList<>()).add(crop);
+            seasons.computeIfAbsent(crop.season, k -> new ArrayList<>()).add(crop);
+        }
+        return new CatalogAggregates(groups(regions), groups(seasons), System.currentTimeMillis());
+    }
+
+    /**
+     * The aggregates after {@code changes}, given as {old, new} pairs where either side may
+     * be null. Only the groups of the changed crops are rebuilt.
+     */
+    CatalogAggregates apply(List<AdvisorySystemGUI.Crop[]> changes) {
+        Map<String, List<AdvisorySystemGUI.Crop>> regions = new HashMap<>();
+        Map<String, List<AdvisorySystemGUI.Crop>> seasons = new HashMap<>();
+        for (AdvisorySystemGUI.Crop[] change : changes) {
+            AdvisorySystemGUI.Crop old = change[0], updated = change[1];
+            if (old != null && updated != null && old.region.equals(updated.region)) {
+                replace(touched(regions, byRegion, old.region), old, updated);
+            } else {
+                if (old != null) touched(regions, byRegion, old.region).remove(old);
+                if (updated != null) touched(regions, byRegion, updated.region).add(updated);
+            }
+            if (old != null && updated != null && old.season.equals(updated.season)) {
+                replace(touched(seasons, bySeason, old.season), old, updated);
+            } else {
+                if (old != null) touched(seasons, bySeason, old.season).remove(old);
+                if (updated != null) touched(seasons, bySeason, updated.season).add(updated);
+            }
+        }
+        return new CatalogAggregates(merge(byRegion, regions), merge(bySeason, seasons), System.currentTimeMillis());
+    }
+
+    Group region(String name) {
+        Group group = byRegion.get(name);
+        return group != null ? group : EMPTY_REGION;
+    }
+
+    Collection<Group> regions() {
+        return byRegion.values();
+    }
+
+    Collection<Group> seasons() {
+        return bySeason.values();
+    }
+
+    /**
+     * When these aggregates were computed, in epoch milliseconds.
+     */
+    long updatedAtMillis() {
+        return updatedAtMillis;
+    }
+
+    // Writable copy of a group's crops, made the first time a batch touches it
+    private static List<AdvisorySystemGUI.Crop> touched(Map<String, List<AdvisorySystemGUI.Crop>> touched,
+                                                        Map<String, Group> groups, String key) {
+        return touched.computeIfAbsent(key, k -> {
+            Group group = groups.get(k);
+            return group == null ? new ArrayList<>() : new ArrayList<>(group.crops);
+        });
+    }
+
+    private static void replace(List<AdvisorySystemGUI.Crop> crops, AdvisorySystemGUI.Crop old, AdvisorySystemGUI.Crop updated) {
+        int i = crops.indexOf(old);
+        if (i >= 0) crops.set(i, updated);
+        else crops.add(updated);
+    }
+
+    // Copy of groups with the touched ones rebuilt; groups left empty are dropped
+    private static Map<String, Group> merge(Map<String, Group> groups, Map<String, List<AdvisorySystemGUI.Crop>> touched) {
+        if (touched.isEmpty()) return groups;
+        Map<String, Group> merged = new LinkedHashMap<>(groups);
+        for (Map.Entry<String, List<AdvisorySystemGUI.Crop>> e : touched.entrySet()) {
+            if (e.getValue().isEmpty()) merged.remove(e.getKey());
+            else merged.put(e.getKey(), new Group(e.getKey(), e.getValue()));
+        }
+        return Collections.unmodifiableMap(merged);
+    }
+
+    private static Map<String, Group> groups(Map<String, List<AdvisorySystemGUI.Crop>> members) {
+        Map<String, Group> groups = new LinkedHashMap<>();
+        for (Map.Entry<String, List<AdvisorySystemGUI.Crop>> e : members.entrySet()) {
+            groups.put(e.getKey(), new Group(e.getKey(), e.getValue()));
+        }
+        return Collections.unmodifiableMap(groups);
+    }
+}
@@ -0,0 +1,317 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+
+/**
+ * Versioned binary catalog file.
+ *
+ * Layout (big-endian):
+ * <pre>
+ *   header     magic "FASC", version, region/user/crop counts, section offsets, snapshot end
+ *   regions    name, climate, common crops, rainfall
+ *   users      username, password, role
+ *   crops      name, season, soil, region, water requirement, expected yield
+ *   crop index one long offset per crop, for random access
+ * </pre>
+ * Strings are a u16 byte length followed by UTF-8. The file is memory-mapped and crop
+ * records are decoded only when first accessed. Edits made since the snapshot was written
+ * live in a {@link CropJournal} next to it.
+ */
+final class CatalogFile implements Closeable {
+
+    static final int MAGIC = 0x46415343; // "FASC"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 64;
+
+    private final Path path;
+    private final FileChannel channel;
+    private final MappedByteBuffer map;
+    private final int regionCount, userCount, cropCount;
+    private final long regionsOffset, usersOffset, cropsOffset, indexOffset;
+
+    static Path defaultPath() {
+        String dir = System.getProperty("fas.data.dir",
+                Paths.get(System.getProperty("user.home"), ".farmer-advisory").toString());
+        return Paths.get(dir, "catalog.dat");
+    }
+
+    private CatalogFile(Path path) throws IOException {
+        this.path = path;
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        try {
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            if (channel.read(header, 0) < HEADER_SIZE) throw new IOException("Truncated catalog header: " + path);
+            header.flip();
+            if (header.getInt() != MAGIC) throw new IOException("Not a catalog file: " + path);
+            int version = header.getInt();
+            if (version != VERSION) throw new IOException("Unsupported catalog version " + version + ": " + path);
+            regionCount = header.getInt();
+            userCount = header.getInt();
+            cropCount = header.getInt();
+            regionsOffset = header.getLong();
+            usersOffset = header.getLong();
+            cropsOffset = header.getLong();
+            indexOffset = header.getLong();
+            long snapshotEnd = header.getLong();
+            if (snapshotEnd > channel.size()) throw new IOException("Truncated catalog snapshot: " + path);
+
+            map = channel.map(FileChannel.MapMode.READ_ONLY, 0, snapshotEnd);
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    static CatalogFile open(Path path) throws IOException {
+        return new CatalogFile(path);
+    }
+
+    /**
+     * Write a fresh snapshot. The old file is renamed to a side file and the new one moved into
+     * its place, since a file that is still mapped can be renamed everywhere but not replaced or
+     * deleted on every platform. Side files are deleted once they are no longer mapped, at the
+     * latest by a later write; while an older one is still mapped, the next side file gets a
+     * higher number instead. {@link #recover} puts the newest one back if a write stopped
+     * between the two moves. Open the file again afterwards to read the new snapshot.
+     */
+    static void write(Path path, Collection<AdvisorySystemGUI.Region> regions, List<AdvisorySystemGUI.User> users,
+                      List<AdvisorySystemGUI.Crop> crops) throws IOException {
+        Path dir = path.toAbsolutePath().getParent();
+        Files.createDirectories(dir);
+        Path tmp = Files.createTempFile(dir, "catalog", ".tmp");
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.WRITE)) {
+            CountingOutput out = new CountingOutput(Channels.newOutputStream(ch.position(HEADER_SIZE)), HEADER_SIZE);
+
+            long regionsOffset = out.count;
+            for (AdvisorySystemGUI.Region r : regions) {
+                writeString(out.data, r.name);
+                writeString(out.data, r.climate);
+                writeString(out.data, r.commonCrops);
+                out.data.writeDouble(r.avgRainfall);
+            }
+            long usersOffset = out.count;
+            for (AdvisorySystemGUI.User u : users) {
+                writeString(out.data, u.username);
+                writeString(out.data, u.passwordHash);
+                writeString(out.data, u.role);
+            }
+            long cropsOffset = out.count;
+            long[] offsets = new long[crops.size()];
+            for (int i = 0; i < crops.size(); i++) {
+                offsets[i] = out.count;
+                writeCrop(out.data, crops.get(i));
+            }
+            long indexOffset = out.count;
+            for (long offset : offsets) out.data.writeLong(offset);
+            out.data.flush();
+            long snapshotEnd = out.count;
+
+            ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE);
+            header.putInt(MAGIC).putInt(VERSION)
+                  .putInt(regions.size()).putInt(users.size()).putInt(crops.size())
+                  .putLong(regionsOffset).putLong(usersOffset).putLong(cropsOffset).putLong(indexOffset)
+                  .putLong(snapshotEnd);
+            header.clear();
+            ch.write(header, 0);
+            ch.force(true);
+
+            if (Files.exists(path)) {
+                Files.move(path, previousPath(path, deletePrevious(path) + 1), StandardCopyOption.ATOMIC_MOVE);
+            }
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(tmp);
+            throw e;
+        }
+        Files.move(tmp, path, StandardCopyOption.ATOMIC_MOVE);
+        deletePrevious(path);
+    }
+
+    /**
+     * Whether a snapshot exists at {@code path}, first moving the previous snapshot back if a
+     * {@link #write} stopped after renaming it.
+     */
+    static boolean recover(Path path) throws IOException {
+        if (!Files.exists(path)) {
+            TreeMap<Integer, Path> previous = previousSnapshots(path);
+            if (!previous.isEmpty()) Files.move(previous.lastEntry().getValue(), path, StandardCopyOption.ATOMIC_MOVE);
+        }
+        deletePrevious(path);
+        return Files.exists(path);
+    }
+
+    // Side files are <name>.prev, then <name>.prev.1, .prev.2 and so on; the highest number is the newest
+    private static Path previousPath(Path path, int number) {
+        return path.resolveSibling(path.getFileName() + (number == 0 ? ".prev" : ".prev." + number));
+    }
+
+    private static TreeMap<Integer, Path> previousSnapshots(Path path) throws IOException {
+        String prefix = path.getFileName() + ".prev";
+        TreeMap<Integer, Path> found = new TreeMap<>();
+        try (DirectoryStream<Path> siblings = Files.newDirectoryStream(path.toAbsolutePath().getParent(),
+                p -> p.getFileName().toString().startsWith(prefix))) {
+            for (Path sibling : siblings) {
+                String suffix = sibling.getFileName().toString().substring(prefix.length());
+                if (suffix.isEmpty()) found.put(0, sibling);
+                else if (suffix.matches("\\.[1-9][0-9]{0,8}")) found.put(Integer.parseInt(suffix.substring(1)), sibling);
+            }
+        }
+        return found;
+    }
+
+    // Deletes the side files that are no longer mapped; returns the highest number left, or -1
+    private static int deletePrevious(Path path) throws IOException {
+        int highest = -1;
+        for (Map.Entry<Integer, Path> previous : previousSnapshots(path).entrySet()) {
+            try {
+                Files.deleteIfExists(previous.getValue());
+            } catch (IOException e) {
+                // Still mapped by a reader of an older version (Windows); a later write retries
+                highest = previous.getKey();
+            }
+        }
+        return highest;
+    }
+
+    Path path() {
+        return path;
+    }
+
+    List<AdvisorySystemGUI.Region> regions() {
+        List<AdvisorySystemGUI.Region> regions = new ArrayList<>(regionCount);
+        int[] pos = {(int) regionsOffset};
+        for (int i = 0; i < regionCount; i++) {
+            String name = readString(map, pos);
+            String climate = readString(map, pos);
+            String commonCrops = readString(map, pos);
+            double rainfall = map.getDouble(pos[0]);
+            pos[0] += 8;
+            regions.add(new AdvisorySystemGUI.Region(name, climate, rainfall, commonCrops));
+        }
+        return regions;
+    }
+
+    List<AdvisorySystemGUI.User> users() {
+        List<AdvisorySystemGUI.User> users = new ArrayList<>(userCount);
+        int[] pos = {(int) usersOffset};
+        for (int i = 0; i < userCount; i++) {
+            users.add(new AdvisorySystemGUI.User(readString(map, pos), readString(map, pos), readString(map, pos)));
+        }
+        return users;
+    }
+
+    int cropCount() {
+        return cropCount;
+    }
+
+    /**
+     * The snapshot's crops as a read-only list that decodes each record on first access.
+     */
+    List<AdvisorySystemGUI.Crop> crops() {
+        return new MappedCropList();
+    }
+
+    /**
+     * Decode only the name of crop {@code i}, without materializing the record.
+     */
+    String cropName(int i) {
+        return readString(map, new int[]{(int) map.getLong((int) (indexOffset + 8L * i))});
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    // Crop and string encoding, shared with CropJournal
+
+    static void writeCrop(DataOutput out, AdvisorySystemGUI.Crop crop) throws IOException {
+        writeString(out, crop.name);
+        writeString(out, crop.season);
+        writeString(out, crop.soilType);
+        writeString(out, crop.region);
+        writeString(out, crop.waterRequirement);
+        out.writeDouble(crop.expectedYield);
+    }
+
+    static void writeString(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > 0xFFFF) throw new IOException("String too long for catalog: " + bytes.length + " bytes");
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    static AdvisorySystemGUI.Crop readCrop(ByteBuffer buffer, int[] pos) {
+        String name = readString(buffer, pos);
+        String season = readString(buffer, pos);
+        String soil = readString(buffer, pos);
+        String region = readString(buffer, pos);
+        String water = readString(buffer, pos);
+        double yield = buffer.getDouble(pos[0]);
+        pos[0] += 8;
+        return new AdvisorySystemGUI.Crop(name, season, soil, region, water, yield);
+    }
+
+    // Reads a string at pos[0] using absolute gets, so the shared buffer is never repositioned
+    static String readString(ByteBuffer buffer, int[] pos) {
+        int length = buffer.getShort(pos[0]) & 0xFFFF;
+        byte[] bytes = new byte[length];
+        buffer.get(pos[0] + 2, bytes);
+        pos[0] += 2 + length;
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private final class MappedCropList extends AbstractList<AdvisorySystemGUI.Crop> implements RandomAccess {
+        private final AdvisorySystemGUI.Crop[] decoded = new AdvisorySystemGUI.Crop[cropCount];
+
+        @Override
+        public AdvisorySystemGUI.Crop get(int i) {
+            if (i < 0 || i >= cropCount) throw new IndexOutOfBoundsException("Crop " + i + " of " + cropCount);
+            AdvisorySystemGUI.Crop crop = decoded[i];
+            if (crop == null) {
+                synchronized (this) {
+                    crop = decoded[i];
+                    if (crop == null) {
+                        int offset = (int) map.getLong((int) (indexOffset + 8L * i));
+                        crop = readCrop(map, new int[]{offset});
+                        decoded[i] = crop;
+                    }
+                }
+            }
+            return crop;
+        }
+
+        @Override
+        public int size() {
+            return cropCount;
+        }
+    }
+
+    // DataOutputStream wrapper that tracks the absolute file offset
+    private static final class CountingOutput {
+        final DataOutputStream data;
+        long count;
+
+        CountingOutput(OutputStream target, long start) {
+            this.count = start;
+            // Count before buffering, so count is always the offset of the next byte
+            this.data = new DataOutputStream(new FilterOutputStream(new BufferedOutputStream(target, 1 << 16)) {
+                @Override
+                public void write(int b) throws IOException {
+                    this.out.write(b);
+                    count++;
+                }
+
+                @Override
+                public void write(byte[] b, int off, int len) throws IOException {
+                    this.out.write(b, off, len);
+                    count += len;
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,617 @@
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Crop, region and user data shared by the Swing UI and the headless entry points.
+ *
+ * The catalog contents are an immutable {@link Version}. Readers take the current version
+ * without locking and see one consistent catalog for as long as they hold it. Writers are
+ * serialized, apply their changes to a private copy and publish it as the next version in
+ * one atomic swap.
+ *
+ * A catalog opened from a {@link CatalogFile} reads crops straight from the mapped snapshot,
+ * decoding each record on first use. Every change is queued to a {@link CropJournal} before
+ * it is published; the journal is replayed over the snapshot on open and periodically
+ * compacted into a new snapshot. Crop edits return once their journal records are on disk.
+ */
+class CropCatalog {
+
+    private static final long COMMIT_DELAY_MILLIS = 5;
+    private static final long COMPACT_THRESHOLD_BYTES = 256 * 1024;
+    private static final long COMPACT_INTERVAL_MINUTES = 5;
+
+    private final AtomicReference<Version> current = new AtomicReference<>(
+            new Version(0, Collections.emptyList(), Collections.emptyMap(), Collections.emptyList(), Collections.emptySet()));
+    private final Object writeLock = new Object();
+
+    private CatalogFile file;
+    private Path path;
+    private CropJournal journal;
+    private ScheduledExecutorService compactor;
+    private boolean compactionScheduled;
+    private CropTextIndex textIndex;
+    private final List<Consumer<Version>> changeListeners = new CopyOnWriteArrayList<>();
+    final RecommendationCache recommendationCache = new RecommendationCache(256);
+
+    /**
+     * One immutable state of the catalog. Structures derived from it (columnar store,
+     * scoring model, report aggregates) are built on first use and shared by all its
+     * readers. Once a version's aggregates exist, the next version's are derived from them
+     * incrementally.
+     */
+    static final class Version {
+        final long number;
+        final List<AdvisorySystemGUI.Crop> crops;
+        final Map<String, AdvisorySystemGUI.Region> regions;
+        final List<AdvisorySystemGUI.User> users;
+        // Lower-case crop names, for duplicate checks
+        final Set<String> cropNames;
+
+        private volatile CropStore store;
+        private volatile ScoringModel scoringModel;
+        private volatile CatalogAggregates aggregates;
+        private volatile Map<String, AdvisorySystemGUI.User> usersByName;
+
+        Version(long number, List<AdvisorySystemGUI.Crop> crops, Map<String, AdvisorySystemGUI.Region> regions,
+                List<AdvisorySystemGUI.User> users, Set<String> cropNames) {
+            this.number = number;
+            this.crops = crops;
+            this.regions = regions;
+            this.users = users;
+            this.cropNames = cropNames;
+        }
+
+        CropStore store() {
+            CropStore s = store;
+            if (s == null) {
+                synchronized (this) {
+                    s = store;
+                    if (s == null) store = s = new CropStore(crops);
+                }
+            }
+            return s;
+        }
+
+        ScoringModel scoringModel() {
+            ScoringModel m = scoringModel;
+            if (m == null) {
+                synchronized (this) {
+                    m = scoringModel;
+                    if (m == null) scoringModel = m = new ScoringModel(store(), regions.values());
+                }
+            }
+            return m;
+        }
+
+        CatalogAggregates aggregates() {
+            CatalogAggregates a = aggregates;
+            if (a == null) {
+                synchronized (this) {
+                    a = aggregates;
+                    if (a == null) aggregates = a = CatalogAggregates.of(crops);
+                }
+            }
+            return a;
+        }
+
+        Map<String, AdvisorySystemGUI.User> usersByName() {
+            Map<String, AdvisorySystemGUI.User> m = usersByName;
+            if (m == null) {
+                synchronized (this) {
+                    m = usersByName;
+                    if (m == null) {
+                        m = new HashMap<>(users.size() * 4 / 3 + 1);
+                        for (AdvisorySystemGUI.User user : users) m.put(user.username, user);
+                        usersByName = m = Collections.unmodifiableMap(m);
+                    }
+                }
+            }
+            return m;
+        }
+    }
+
+    /**
+     * A writer's private copy of the catalog. Nothing is visible to readers until the
+     * enclosing {@link #write} call publishes it.
+     */
+    final class Batch {
+        private final Version base;
+        private List<AdvisorySystemGUI.Crop> crops;
+        private Map<String, AdvisorySystemGUI.Region> regions;
+        private List<AdvisorySystemGUI.User> users;
+        private Set<String> cropNames;
+        // Crop changes in order, for the journal and the text index: {old, new}, either may be null
+        private final List<AdvisorySystemGUI.Crop[]> changes = new ArrayList<>();
+
+        private Batch(Version base) {
+            this.base = base;
+            this.crops = base.crops;
+            this.regions = base.regions;
+            this.users = base.users;
+            this.cropNames = base.cropNames;
+        }
+
+        boolean addCrop(AdvisorySystemGUI.Crop crop) {
+            if (cropNames.contains(crop.name.toLowerCase())) return false;
+            writableCrops().add(crop);
+            writableCropNames().add(crop.name.toLowerCase());
+            changes.add(new AdvisorySystemGUI.Crop[]{null, crop});
+            return true;
+        }
+
+        /**
+         * Replace the crop called {@code name} with {@code updated}, keeping its position.
+         */
+        boolean replaceCrop(String name, AdvisorySystemGUI.Crop updated) {
+            int i = indexOf(name);
+            if (i < 0) return false;
+            AdvisorySystemGUI.Crop old = writableCrops().set(i, updated);
+            if (!old.name.equalsIgnoreCase(updated.name)) {
+                writableCropNames().remove(old.name.toLowerCase());
+                cropNames.add(updated.name.toLowerCase());
+            }
+            changes.add(new AdvisorySystemGUI.Crop[]{old, updated});
+            return true;
+        }
+
+        boolean removeCrop(String name) {
+            int i = indexOf(name);
+            if (i < 0) return false;
+            AdvisorySystemGUI.Crop old = writableCrops().remove(i);
+            writableCropNames().remove(name.toLowerCase());
+            changes.add(new AdvisorySystemGUI.Crop[]{old, null});
+            return true;
+        }
+
+        AdvisorySystemGUI.Crop findCrop(String name) {
+            int i = indexOf(name);
+            return i < 0 ? null : crops.get(i);
+        }
+
+        void addRegion(AdvisorySystemGUI.Region region) {
+            if (regions == base.regions) regions = new HashMap<>(regions);
+            regions.put(region.name, region);
+        }
+
+        void addUser(AdvisorySystemGUI.User user) {
+            if (users == base.users) users = new ArrayList<>(users);
+            users.add(user);
+        }
+
+        boolean replaceUser(String username, AdvisorySystemGUI.User updated) {
+            for (int i = 0; i < users.size(); i++) {
+                if (users.get(i).username.equals(username)) {
+                    if (users == base.users) users = new ArrayList<>(users);
+                    users.set(i, updated);
+                    return true;
+                }
+            }
+            return false;
+        }
+
+        private int indexOf(String name) {
+            for (int i = 0; i < crops.size(); i++) {
+                if (crops.get(i).name.equals(name)) return i;
+            }
+            return -1;
+        }
+
+        // Copied from the base version on the first change
+        private List<AdvisorySystemGUI.Crop> writableCrops() {
+            if (crops == base.crops) crops = new ArrayList<>(crops);
+            return crops;
+        }
+
+        private Set<String> writableCropNames() {
+            if (cropNames == base.cropNames) cropNames = new HashSet<>(cropNames);
+            return cropNames;
+        }
+
+        private boolean changed() {
+            return crops != base.crops || regions != base.regions || users != base.users;
+        }
+
+        private Version toVersion() {
+            Version next = new Version(base.number + 1,
+                    crops == base.crops ? base.crops : Collections.unmodifiableList(crops),
+                    regions == base.regions ? base.regions : Collections.unmodifiableMap(regions),
+                    users == base.users ? base.users : Collections.unmodifiableList(users),
+                    cropNames == base.cropNames ? base.cropNames : Collections.unmodifiableSet(cropNames));
+            // Carry the aggregates forward if they have been built; otherwise they are built on first use
+            CatalogAggregates aggregates = base.aggregates;
+            if (aggregates != null) next.aggregates = changes.isEmpty() ? aggregates : aggregates.apply(changes);
+            return next;
+        }
+    }
+
+    static CropCatalog withDefaults() {
+        CropCatalog catalog = new CropCatalog();
+        catalog.write(b -> {
+            loadDefaults(b);
+            return null;
+        });
+        return catalog;
+    }
+
+    /**
+     * Open the catalog stored at {@code path}, creating it from the defaults if it does not exist.
+     */
+    static CropCatalog open(Path path) throws IOException {
+        if (!CatalogFile.recover(path)) {
+            Version defaults = withDefaults().current();
+            CatalogFile.write(path, defaults.regions.values(), defaults.users, defaults.crops);
+        }
+        CropCatalog catalog = new CropCatalog();
+        CatalogFile file = CatalogFile.open(path);
+        catalog.loadFrom(file);
+
+        // Replay edits made since the snapshot was written
+        Path journalPath = CropJournal.pathFor(path);
+        List<CropJournal.Edit> edits = CropJournal.replay(journalPath);
+        catalog.write(b -> {
+            for (CropJournal.Edit edit : edits) apply(b, edit);
+            return null;
+        });
+        // Snapshots from before passwords were hashed: hash them and rewrite the snapshot now
+        if (catalog.write(CropCatalog::hashPlainPasswords)) {
+            Version version = catalog.current();
+            CatalogFile.write(path, version.regions.values(), version.users, version.crops);
+            // Read from the new snapshot rather than the replaced one
+            file.close();
+            file = CatalogFile.open(path);
+            catalog.loadFrom(file);
+        }
+        catalog.file = file;
+        catalog.path = path;
+        catalog.journal = CropJournal.open(journalPath, COMMIT_DELAY_MILLIS);
+        catalog.startCompactor();
+        // Flush journaled edits still waiting for their group commit when the app exits
+        Runtime.getRuntime().addShutdownHook(new Thread(catalog::close, "catalog-close"));
+        return catalog;
+    }
+
+    private static void loadDefaults(Batch b) {
+        // Add default users
+        b.addUser(new AdvisorySystemGUI.User("admin", PasswordHash.hash("admin123".toCharArray()), "ADMIN"));
+        b.addUser(new AdvisorySystemGUI.User("farmer", PasswordHash.hash("farmer123".toCharArray()), "FARMER"));
+        b.addUser(new AdvisorySystemGUI.User("ali", PasswordHash.hash("ali123".toCharArray()), "FARMER"));
+
+        // Add Mianwali District regions (Tehsils)
+        b.addRegion(new AdvisorySystemGUI.Region("Mianwali City", "Semi-Arid", 380, "Wheat,Chickpea,Sugarcane"));
+        b.addRegion(new AdvisorySystemGUI.Region("Piplan", "Semi-Arid", 350, "Wheat,Maize,Groundnut"));
+        b.addRegion(new AdvisorySystemGUI.Region("Isa Khel", "Arid", 300, "Sorghum,Millet,Chickpea"));
+        b.addRegion(new AdvisorySystemGUI.Region("Wan Bhachran", "Semi-Arid", 320, "Wheat,Barley,Lentils"));
+        b.addRegion(new AdvisorySystemGUI.Region("Kalabagh", "Arid", 280, "Dates,Wheat,Cotton"));
+
+        // Add 20 crops common in Mianwali region
+        b.addCrop(new AdvisorySystemGUI.Crop("Wheat", "Rabi (Winter)", "Loamy", "Mianwali City", "Medium", 3.8));
+        b.addCrop(new AdvisorySystemGUI.Crop("Chickpea", "Rabi (Winter)", "Sandy Loam", "Mianwali City", "Low", 1.2));
+        b.addCrop(new AdvisorySystemGUI.Crop("Sugarcane", "Kharif (Summer)", "Clay Loam", "Mianwali City", "High", 55.0));
+        b.addCrop(new AdvisorySystemGUI.Crop("Maize", "Kharif (Summer)", "Loamy", "Piplan", "Medium", 3.5));
+        b.addCrop(new AdvisorySystemGUI.Crop("Groundnut", "Kharif (Summer)", "Sandy Loam", "Piplan", "Medium", 2.0));
+        b.addCrop(new AdvisorySystemGUI.Crop("Sorghum", "Kharif (Summer)", "Sandy", "Isa Khel", "Low", 2.2));
+        b.addCrop(new AdvisorySystemGUI.Crop("Millet", "Kharif (Summer)", "Sandy", "Isa Khel", "Low", 1.8));
+        b.addCrop(new AdvisorySystemGUI.Crop("Barley", "Rabi (Winter)", "Loamy", "Wan Bhachran", "Low", 2.5));
+        b.addCrop(new AdvisorySystemGUI.Crop("Lentils", "Rabi (Winter)", "Clay", "Wan Bhachran", "Low", 1.0));
+        b.addCrop(new AdvisorySystemGUI.Crop("Cotton", "Kharif (Summer)", "Sandy Loam", "Kalabagh", "Medium", 2.8));
+        b.addCrop(new AdvisorySystemGUI.Crop("Mustard", "Rabi (Winter)", "Loamy", "Mianwali City", "Low", 1.5));
+        b.addCrop(new AdvisorySystemGUI.Crop("Sunflower", "Kharif (Summer)", "Sandy Loam", "Piplan", "Medium", 2.0));
+        b.addCrop(new AdvisorySystemGUI.Crop("Rice", "Kharif (Summer)", "Clay", "Mianwali City", "High", 4.2));
+        b.addCrop(new AdvisorySystemGUI.Crop("Onion", "Both Seasons", "Loamy", "Wan Bhachran", "Medium", 18.0));
+        b.addCrop(new AdvisorySystemGUI.Crop("Tomato", "Both Seasons", "Sandy Loam", "Piplan", "Medium", 25.0));
+        b.addCrop(new AdvisorySystemGUI.Crop("Potato", "Rabi (Winter)", "Sandy Loam", "Mianwali City", "Medium", 22.0));
+        b.addCrop(new AdvisorySystemGUI.Crop("Mango", "Perennial", "Loamy", "Kalabagh", "Medium", 12.0));
+        b.addCrop(new AdvisorySystemGUI.Crop("Citrus", "Perennial", "Sandy Loam", "Isa Khel", "Medium", 15.0));
+        b.addCrop(new AdvisorySystemGUI.Crop("Fodder", "Both Seasons", "Clay Loam", "Wan Bhachran", "High", 40.0));
+        b.addCrop(new AdvisorySystemGUI.Crop("Sesame", "Kharif (Summer)", "Sandy", "Kalabagh", "Low", 0.8));
+    }
+
+    private void loadFrom(CatalogFile file) {
+        Map<String, AdvisorySystemGUI.Region> regions = new HashMap<>();
+        for (AdvisorySystemGUI.Region region : file.regions()) regions.put(region.name, region);
+        Set<String> cropNames = new HashSet<>();
+        for (int i = 0; i < file.cropCount(); i++) {
+            cropNames.add(file.cropName(i).toLowerCase());
+        }
+        // The mapped crop list is read-only; the first edit copies it
+        current.set(new Version(1, file.crops(), Collections.unmodifiableMap(regions),
+                Collections.unmodifiableList(file.users()), Collections.unmodifiableSet(cropNames)));
+    }
+
+    private static boolean hashPlainPasswords(Batch b) {
+        boolean changed = false;
+        for (AdvisorySystemGUI.User user : new ArrayList<>(b.users)) {
+            if (PasswordHash.isHash(user.passwordHash)) continue;
+            b.replaceUser(user.username, new AdvisorySystemGUI.User(user.username,
+                    PasswordHash.hash(user.passwordHash.toCharArray()), user.role));
+            changed = true;
+        }
+        return changed;
+    }
+
+    // Replaying is idempotent, so edits already folded into the snapshot may be applied again
+    private static void apply(Batch b, CropJournal.Edit edit) {
+        if (edit.crop == null) {
+            b.removeCrop(edit.name);
+        } else if (!b.replaceCrop(edit.name, edit.crop)) {
+            b.addCrop(edit.crop);
+        }
+    }
+
+    /**
+     * The current catalog contents. Never blocks; the returned version never changes.
+     */
+    Version current() {
+        return current.get();
+    }
+
+    List<AdvisorySystemGUI.Crop> crops() {
+        return current().crops;
+    }
+
+    Map<String, AdvisorySystemGUI.Region> regions() {
+        return current().regions;
+    }
+
+    List<AdvisorySystemGUI.User> users() {
+        return current().users;
+    }
+
+    /**
+     * Apply {@code changes} to a copy of the current version and publish the result as one
+     * new version. Writers run one at a time; readers are never blocked.
+     */
+    <T> T write(Function<Batch, T> changes) {
+        return write(changes, new ArrayList<>());
+    }
+
+    /**
+     * Like {@link #write}, but the returned future completes with the result only once the
+     * changes are on disk, and fails if they could not be saved. Readers see the new version
+     * straight away either way.
+     */
+    <T> CompletableFuture<T> writeSaved(Function<Batch, T> changes) {
+        List<CompletableFuture<Void>> saves = new ArrayList<>();
+        T result = write(changes, saves);
+        return CompletableFuture.allOf(saves.toArray(new CompletableFuture<?>[0])).thenApply(saved -> result);
+    }
+
+    private <T> T write(Function<Batch, T> changes, List<CompletableFuture<Void>> saves) {
+        synchronized (writeLock) {
+            Batch batch = new Batch(current.get());
+            T result = changes.apply(batch);
+            if (!batch.changed()) return result;
+
+            // Queue the journal records first, so no version is visible before its changes are logged
+            for (AdvisorySystemGUI.Crop[] change : batch.changes) {
+                saves.add(change[1] != null ? persistPut(change[1]) : persistDelete(change[0].name));
+            }
+
+            // Index before publishing, so whoever sees the new version also finds its crops
+            if (textIndex != null) {
+                for (AdvisorySystemGUI.Crop[] change : batch.changes) {
+                    if (change[0] != null && change[1] != null) textIndex.replace(change[0], change[1]);
+                    else if (change[0] != null) textIndex.remove(change[0]);
+                    else textIndex.add(change[1]);
+                }
+            }
+            // Publish before invalidating, so a cache miss after invalidation loads from the new version
+            current.set(batch.toVersion());
+            recommendationCache.invalidate();
+            compactIfLarge();
+            Version published = current.get();
+            for (Consumer<Version> listener : changeListeners) listener.accept(published);
+            return result;
+        }
+    }
+
+    /**
+     * Call {@code listener} with every newly published version, on the writing thread and
+     * while writes are still serialized, so it must return quickly.
+     */
+    void addChangeListener(Consumer<Version> listener) {
+        changeListeners.add(listener);
+    }
+
+    /**
+     * Add {@code crop}, returning once it is saved. Blocks on disk I/O, so call it off the EDT.
+     *
+     * @return false if a crop with that name already exists
+     * @throws IOException if the crop was added but could not be saved
+     */
+    boolean addCrop(AdvisorySystemGUI.Crop crop) throws IOException, InterruptedException {
+        return saved(writeSaved(b -> b.addCrop(crop)));
+    }
+
+    /**
+     * Replace the crop called {@code name} with {@code updated}, returning once the change is
+     * saved. Crops are never edited in place, so readers holding an older version keep seeing
+     * the old values.
+     *
+     * @return false if there is no crop called {@code name}
+     * @throws IOException if the crop was replaced but the change could not be saved
+     */
+    boolean updateCrop(String name, AdvisorySystemGUI.Crop updated) throws IOException, InterruptedException {
+        return saved(writeSaved(b -> b.replaceCrop(name, updated)));
+    }
+
+    /**
+     * Remove the crop called {@code name}, returning once the change is saved.
+     *
+     * @return false if there is no crop called {@code name}
+     * @throws IOException if the crop was removed but the change could not be saved
+     */
+    boolean removeCrop(String name) throws IOException, InterruptedException {
+        return saved(writeSaved(b -> b.removeCrop(name)));
+    }
+
+    private static <T> T saved(CompletableFuture<T> save) throws IOException, InterruptedException {
+        try {
+            return save.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    AdvisorySystemGUI.Crop findCrop(String name) {
+        for (AdvisorySystemGUI.Crop c : crops()) {
+            if (c.name.equals(name)) return c;
+        }
+        return null;
+    }
+
+    /**
+     * The text index over all crops, built on first use and kept current by later edits.
+     */
+    CropTextIndex textIndex() {
+        synchronized (writeLock) {
+            if (textIndex == null) {
+                textIndex = new CropTextIndex(crops());
+            }
+            return textIndex;
+        }
+    }
+
+    /**
+     * Columnar copy of the current version.
+     */
+    CropStore store() {
+        return current().store();
+    }
+
+    /**
+     * Recommendation scoring over the current version's crops and regions.
+     */
+    ScoringModel scoringModel() {
+        return current().scoringModel();
+    }
+
+    /**
+     * Report aggregates of the current version.
+     */
+    CatalogAggregates aggregates() {
+        return current().aggregates();
+    }
+
+    List<AdvisorySystemGUI.Recommendation> getRecommendations(String soilType, String season, String region) {
+        return getRecommendations(soilType, season, region, Integer.MAX_VALUE);
+    }
+
+    List<AdvisorySystemGUI.Recommendation> getRecommendations(String soilType, String season, String region, int limit) {
+        return recommendationCache.get(soilType, season, region, limit,
+                () -> scoringModel().recommend(soilType, season, region, limit));
+    }
+
+    private CompletableFuture<Void> persistPut(AdvisorySystemGUI.Crop crop) {
+        if (journal == null) return CompletableFuture.completedFuture(null);
+        return journal.appendPut(crop).whenComplete((ok, e) -> {
+            if (e != null) {
+                System.err.println("Could not save crop '" + crop.name + "' to " + path);
+                e.printStackTrace();
+            }
+        });
+    }
+
+    private CompletableFuture<Void> persistDelete(String name) {
+        if (journal == null) return CompletableFuture.completedFuture(null);
+        return journal.appendDelete(name).whenComplete((ok, e) -> {
+            if (e != null) {
+                System.err.println("Could not save deletion of '" + name + "' to " + path);
+                e.printStackTrace();
+            }
+        });
+    }
+
+    /**
+     * Block until every change made so far is on disk.
+     *
+     * @throws IOException if some of those changes could not be saved
+     */
+    void sync() throws IOException, InterruptedException {
+        if (journal != null) journal.sync();
+    }
+
+    /**
+     * Fold the journal into a new snapshot. The catalog stays usable while the snapshot is
+     * written; edits made meanwhile go to the fresh journal. The new snapshot is then mapped
+     * in place of the old one.
+     */
+    void compact() throws IOException, InterruptedException {
+        if (journal == null) return;
+        Version version;
+        synchronized (writeLock) {
+            compactionScheduled = false;
+            if (journal.records() == 0) return;
+            version = current.get();
+            journal.roll();
+        }
+        CatalogFile.write(path, version.regions.values(), version.users, version.crops);
+        journal.deleteRolled();
+        CatalogFile fresh = CatalogFile.open(path);
+        CatalogFile replaced;
+        synchronized (writeLock) {
+            replaced = file;
+            file = fresh;
+        }
+        replaced.close();
+    }
+
+    /**
+     * Write pending changes and stop background compaction.
+     */
+    void close() {
+        if (compactor != null) compactor.shutdownNow();
+        try {
+            if (journal != null) journal.close();
+            CatalogFile mapped;
+            synchronized (writeLock) {
+                mapped = file;
+            }
+            if (mapped != null) mapped.close();
+        } catch (IOException e) {
+            e.printStackTrace();
+        }
+    }
+
+    private void startCompactor() {
+        compactor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread t = new Thread(r, "catalog-compactor");
+            t.setDaemon(true);
+            return t;
+        });
+        compactor.scheduleWithFixedDelay(this::compactQuietly,
+                COMPACT_INTERVAL_MINUTES, COMPACT_INTERVAL_MINUTES, TimeUnit.MINUTES);
+        synchronized (writeLock) {
+            compactIfLarge();
+        }
+    }
+
+    // Called with writeLock held
+    private void compactIfLarge() {
+        if (compactor == null || compactionScheduled || journal.size() < COMPACT_THRESHOLD_BYTES) return;
+        compactionScheduled = true;
+        compactor.execute(this::compactQuietly);
+    }
+
+    private void compactQuietly() {
+        try {
+            compact();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            // The journal is kept, so nothing is lost; try again next time
+            System.err.println("Catalog compaction failed: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,257 @@
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.*;
+import java.util.function.BooleanSupplier;
+
+/**
+ * Bulk import of crops from CSV or JSON into a {@link CropCatalog}.
+ *
+ * The file is streamed through a buffered NIO channel reader and processed in batches of
+ * {@link #BATCH_SIZE} rows. Each batch is validated in parallel: name and yield must be
+ * present, season, soil type and water requirement must be one of the values the crop
+ * dialogs offer (ignoring case, and "Rabi" matches "Rabi (Winter)"), and the region must
+ * exist. Valid rows of a batch are then added in one {@link CropCatalog#write} call, which
+ * checks every name against the catalog's name set and publishes the whole batch as a single
+ * new version. A cancelled import stops between batches and keeps the batches already applied.
+ *
+ * CSV files may start with a header naming the columns (name, season, soil, region, water,
+ * yield); otherwise columns are read in that order. JSON files hold an array of objects, or
+ * one object per line, with the same keys.
+ */
+final class CropImporter {
+
+    static final int BATCH_SIZE = 10_000;
+    // Rejected rows kept for the report; the rest are only counted
+    static final int MAX_REPORTED_REJECTIONS = 10_000;
+
+    private static final String[] FIELDS = {"name", "season", "soil", "region", "water", "yield"};
+    private static final int NAME = 0, SEASON = 1, SOIL = 2, REGION = 3, WATER = 4, YIELD = 5;
+
+    interface ProgressListener {
+        void progress(long bytesRead, long totalBytes, int imported, int rejected);
+    }
+
+    /**
+     * A row that was not imported.
+     */
+    static final class Rejection {
+        final long line;
+        final String name;
+        final String reason;
+
+        Rejection(long line, String name, String reason) {
+            this.line = line;
+            this.name = name;
+            this.reason = reason;
+        }
+    }
+
+    static final class Result {
+        int rows;
+        int imported;
+        int rejectedCount;
+        boolean cancelled;
+        final List<Rejection> rejected = new ArrayList<>();
+
+        void reject(Rejection rejection) {
+            rejectedCount++;
+            if (rejected.size() < MAX_REPORTED_REJECTIONS) rejected.add(rejection);
+        }
+    }
+
+    // One input record before validation; crop is set once it passes
+    private static final class Row {
+        final long line;
+        final String[] values;
+        AdvisorySystemGUI.Crop crop;
+        String error;
+
+        Row(long line, String[] values) {
+            this.line = line;
+            this.values = values;
+        }
+
+        String name() {
+            return values[NAME] == null ? "" : values[NAME];
+        }
+    }
+
+    private interface RowSource {
+        List<Row> next(int count) throws IOException;
+    }
+
+    private final CropCatalog catalog;
+    private final Map<String, String> seasons = vocabulary(AdvisorySystemGUI.SEASONS);
+    private final Map<String, String> soils = vocabulary(AdvisorySystemGUI.SOIL_TYPES);
+    private final Map<String, String> water = vocabulary(AdvisorySystemGUI.WATER_LEVELS);
+    private final Map<String, String> regions;
+
+    CropImporter(CropCatalog catalog) {
+        this.catalog = catalog;
+        this.regions = vocabulary(catalog.regions().keySet().toArray(new String[0]));
+    }
+
+    /**
+     * Import {@code file}, read as JSON if its name ends in ".json" and as CSV otherwise.
+     */
+    Result importFile(Path file, ProgressListener listener, BooleanSupplier cancelled) throws IOException {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             BufferedReader in = new BufferedReader(Channels.newReader(channel, StandardCharsets.UTF_8.newDecoder(), -1), 1 << 16)) {
+            long totalBytes = channel.size();
+            RowSource source = file.getFileName().toString().toLowerCase().endsWith(".json") ? jsonRows(in) : csvRows(in);
+            Result result = new Result();
+            List<Row> batch;
+            while ((batch = source.next(BATCH_SIZE)) != null) {
+                if (cancelled.getAsBoolean()) {
+                    result.cancelled = true;
+                    break;
+                }
+                result.rows += batch.size();
+                batch.parallelStream().forEach(this::validate);
+                apply(batch, result);
+                if (listener != null) listener.progress(channel.position(), totalBytes, result.imported, result.rejectedCount);
+            }
+            return result;
+        }
+    }
+
+    private void validate(Row row) {
+        String[] v = row.values;
+        if (v[NAME] == null || v[NAME].isEmpty()) {
+            row.error = "name is required";
+            return;
+        }
+        String season = lookup(seasons, v[SEASON]);
+        String soil = lookup(soils, v[SOIL]);
+        String region = lookup(regions, v[REGION]);
+        String waterLevel = lookup(water, v[WATER]);
+        if (season == null) row.error = "unknown season '" + nullToEmpty(v[SEASON]) + "'";
+        else if (soil == null) row.error = "unknown soil type '" + nullToEmpty(v[SOIL]) + "'";
+        else if (region == null) row.error = "unknown region '" + nullToEmpty(v[REGION]) + "'";
+        else if (waterLevel == null) row.error = "unknown water requirement '" + nullToEmpty(v[WATER]) + "'";
+        if (row.error != null) return;
+        double yield;
+        try {
+            yield = Double.parseDouble(nullToEmpty(v[YIELD]));
+        } catch (NumberFormatException e) {
+            row.error = "invalid yield '" + nullToEmpty(v[YIELD]) + "'";
+            return;
+        }
+        if (!(yield >= 0) || Double.isInfinite(yield)) {
+            row.error = "yield must be a non-negative number";
+            return;
+        }
+        row.crop = new AdvisorySystemGUI.Crop(v[NAME], season, soil, region, waterLevel, yield);
+    }
+
+    // Adds a batch's valid rows as one catalog version; names already taken are rejected
+    private void apply(List<Row> batch, Result result) {
+        List<Row> duplicates = catalog.write(b -> {
+            List<Row> rejected = new ArrayList<>();
+            for (Row row : batch) {
+                if (row.crop != null && !b.addCrop(row.crop)) rejected.add(row);
+            }
+            return rejected;
+        });
+        for (Row row : duplicates) {
+            row.error = "a crop with this name already exists";
+            row.crop = null;
+        }
+        for (Row row : batch) {
+            if (row.crop != null) result.imported++;
+            else result.reject(new Rejection(row.line, row.name(), row.error));
+        }
+    }
+
+    private static RowSource csvRows(BufferedReader in) {
+        int[] columns = {0, 1, 2, 3, 4, 5};
+        long[] lineNumber = {0};
+        boolean[] firstLine = {true};
+        return count -> {
+            List<Row> rows = new ArrayList<>(count);
+            String line;
+            while (rows.size() < count && (line = in.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.trim().isEmpty()) continue;
+                List<String> fields = Csv.parseLine(line);
+                if (firstLine[0]) {
+                    firstLine[0] = false;
+                    if (readHeader(fields, columns)) continue;
+                }
+                String[] values = new String[FIELDS.length];
+                for (int f = 0; f < FIELDS.length; f++) {
+                    int column = columns[f];
+                    values[f] = column >= 0 && column < fields.size() ? fields.get(column) : null;
+                }
+                rows.add(new Row(lineNumber[0], values));
+            }
+            return rows.isEmpty() ? null : rows;
+        };
+    }
+
+    // Maps header names to columns; false if the line is not a header
+    private static boolean readHeader(List<String> fields, int[] columns) {
+        int[] found = new int[FIELDS.length];
+        Arrays.fill(found, -1);
+        for (int i = 0; i < fields.size(); i++) {
+            int field = fieldIndex(fields.get(i));
+            if (field >= 0) found[field] = i;
+        }
+        if (found[NAME] < 0 || found[YIELD] < 0) return false;
+        System.arraycopy(found, 0, columns, 0, columns.length);
+        return true;
+    }
+
+    private static RowSource jsonRows(BufferedReader in) {
+        Json.ObjectReader reader = new Json.ObjectReader(in);
+        return count -> {
+            List<Row> rows = new ArrayList<>(count);
+            Map<String, String> object;
+            while (rows.size() < count && (object = reader.next()) != null) {
+                String[] values = new String[FIELDS.length];
+                for (Map.Entry<String, String> e : object.entrySet()) {
+                    int field = fieldIndex(e.getKey());
+                    if (field >= 0) values[field] = e.getValue() == null ? null : e.getValue().trim();
+                }
+                rows.add(new Row(reader.line(), values));
+            }
+            return rows.isEmpty() ? null : rows;
+        };
+    }
+
+    private static int fieldIndex(String name) {
+        switch (name.trim().toLowerCase()) {
+            case "name": case "crop": case "crop_name": return NAME;
+            case "season": return SEASON;
+            case "soil": case "soil_type": case "soiltype": return SOIL;
+            case "region": case "tehsil": return REGION;
+            case "water": case "water_requirement": case "waterrequirement": return WATER;
+            case "yield": case "expected_yield": case "expectedyield": return YIELD;
+            default: return -1;
+        }
+    }
+
+    // Lower-case value -> canonical spelling; "Rabi" also matches "Rabi (Winter)"
+    private static Map<String, String> vocabulary(String[] values) {
+        Map<String, String> map = new HashMap<>();
+        for (String value : values) {
+            map.put(value.toLowerCase(), value);
+            int paren = value.indexOf(" (");
+            if (paren > 0) map.putIfAbsent(value.substring(0, paren).toLowerCase(), value);
+        }
+        return map;
+    }
+
+    private static String lookup(Map<String, String> vocabulary, String value) {
+        return value == null ? null : vocabulary.get(value.trim().toLowerCase());
+    }
+
+    private static String nullToEmpty(String value) {
+        return value == null ? "" : value;
+    }
+}
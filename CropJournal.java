@@ -0,0 +1,357 @@
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.zip.CRC32;
+
+/**
+ * Append-only write-ahead journal of crop edits made since the last {@link CatalogFile} snapshot.
+ *
+ * Record layout (big-endian): u32 payload length, u32 CRC32 of the payload, then the payload,
+ * which is PUT_CROP followed by a crop record or DELETE_CROP followed by a name. Replay stops
+ * at the first record that is incomplete or fails its checksum, and opening the journal for
+ * writing cuts such a tail off.
+ *
+ * Appends are queued and written by a single commit thread. Everything queued while the
+ * previous fsync was running goes out in the next write and shares one fsync (group commit),
+ * so a burst of edits costs a single sync. Each append returns a future that completes once
+ * its record is on disk. If a write or sync fails, the file is cut back to the end of the last
+ * committed batch and every record of the failed batch fails its future, so later batches
+ * never follow a torn record.
+ *
+ * For compaction, {@link #roll()} moves the current records to a side file that is deleted
+ * once the new snapshot has been written; replay reads the side file first if it still exists.
+ */
+final class CropJournal implements Closeable {
+
+    static final byte PUT_CROP = 1;
+    static final byte DELETE_CROP = 2;
+
+    private static final int RECORD_HEADER = 8;
+    private static final int MAX_RECORD = 1 << 20;
+
+    private final Path path;
+    private final Path rolledPath;
+    private final long commitDelayMillis;
+    private final Thread committer;
+    private FileChannel channel;
+
+    // Guarded by this
+    private final ArrayDeque<Pending> queue = new ArrayDeque<>();
+    private List<Pending> inFlight = Collections.emptyList();
+    // Length of the records known to be on disk; the next batch is written from here
+    private long committedSize;
+    private long size;
+    private int records;
+    private boolean committing;
+    private boolean closed;
+
+    /**
+     * One journaled edit: a crop upsert, or a delete when {@code crop} is null.
+     */
+    static final class Edit {
+        final String name;
+        final AdvisorySystemGUI.Crop crop;
+
+        Edit(String name, AdvisorySystemGUI.Crop crop) {
+            this.name = name;
+            this.crop = crop;
+        }
+    }
+
+    private static final class Pending {
+        final byte[] record;
+        final CompletableFuture<Void> done = new CompletableFuture<>();
+
+        Pending(byte[] record) {
+            this.record = record;
+        }
+    }
+
+    static Path pathFor(Path catalogFile) {
+        return catalogFile.resolveSibling(catalogFile.getFileName() + ".journal");
+    }
+
+    /**
+     * Open the journal for appending, cutting off a torn or corrupt tail.
+     *
+     * @param commitDelayMillis how long the commit thread waits for more records before
+     *                          syncing, trading a little latency for fewer fsyncs
+     */
+    static CropJournal open(Path path, long commitDelayMillis) throws IOException {
+        return new CropJournal(path, commitDelayMillis);
+    }
+
+    private CropJournal(Path path, long commitDelayMillis) throws IOException {
+        this.path = path;
+        this.rolledPath = path.resolveSibling(path.getFileName() + ".old");
+        this.commitDelayMillis = commitDelayMillis;
+        this.channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE);
+        List<Edit> existing = new ArrayList<>();
+        size = read(channel, existing);
+        records = existing.size();
+        if (size < channel.size()) {
+            channel.truncate(size);
+            channel.force(false);
+        }
+        committedSize = size;
+        committer = new Thread(this::commitLoop, "crop-journal");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /**
+     * Edits not yet in the snapshot, oldest first: the rolled-over side file, then the journal.
+     */
+    static List<Edit> replay(Path path) throws IOException {
+        List<Edit> edits = new ArrayList<>();
+        for (Path p : new Path[]{path.resolveSibling(path.getFileName() + ".old"), path}) {
+            if (!Files.exists(p)) continue;
+            try (FileChannel ch = FileChannel.open(p, StandardOpenOption.READ)) {
+                read(ch, edits);
+            }
+        }
+        return edits;
+    }
+
+    CompletableFuture<Void> appendPut(AdvisorySystemGUI.Crop crop) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(96);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(PUT_CROP);
+            CatalogFile.writeCrop(out, crop);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return append(bytes.toByteArray());
+    }
+
+    CompletableFuture<Void> appendDelete(String name) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(32);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeByte(DELETE_CROP);
+            CatalogFile.writeString(out, name);
+        } catch (IOException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        return append(bytes.toByteArray());
+    }
+
+    private synchronized CompletableFuture<Void> append(byte[] payload) {
+        if (closed) return CompletableFuture.failedFuture(new IOException("Journal is closed: " + path));
+        CRC32 crc = new CRC32();
+        crc.update(payload);
+        byte[] record = ByteBuffer.allocate(RECORD_HEADER + payload.length)
+                .putInt(payload.length).putInt((int) crc.getValue()).put(payload).array();
+        Pending pending = new Pending(record);
+        queue.add(pending);
+        records++;
+        size += record.length;
+        notifyAll();
+        return pending.done;
+    }
+
+    /**
+     * Block until every record appended so far is on disk.
+     *
+     * @throws IOException if one of the records still pending could not be written
+     */
+    void sync() throws IOException, InterruptedException {
+        List<CompletableFuture<Void>> pending = new ArrayList<>();
+        synchronized (this) {
+            for (Pending p : inFlight) pending.add(p.done);
+            for (Pending p : queue) pending.add(p.done);
+        }
+        try {
+            CompletableFuture.allOf(pending.toArray(new CompletableFuture<?>[0])).get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            throw cause instanceof IOException ? (IOException) cause : new IOException(cause);
+        }
+    }
+
+    synchronized long size() {
+        return size;
+    }
+
+    synchronized int records() {
+        return records;
+    }
+
+    /**
+     * Start a new, empty journal. Records written so far move to the side file (appended to
+     * it if an earlier compaction never finished) until {@link #deleteRolled()} is called.
+     */
+    synchronized void roll() throws IOException, InterruptedException {
+        while ((committing || !queue.isEmpty()) && !closed) wait();
+        if (closed) throw new IOException("Journal is closed: " + path);
+        channel.close();
+        if (Files.exists(rolledPath)) {
+            try (FileChannel from = FileChannel.open(path, StandardOpenOption.READ);
+                 FileChannel to = FileChannel.open(rolledPath, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+                long position = 0;
+                while (position < from.size()) position += from.transferTo(position, from.size() - position, to);
+                to.force(false);
+            }
+            Files.delete(path);
+        } else {
+            Files.move(path, rolledPath, StandardCopyOption.ATOMIC_MOVE);
+        }
+        channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        committedSize = 0;
+        size = 0;
+        records = 0;
+    }
+
+    /**
+     * Called once a snapshot containing the rolled records has been written.
+     */
+    void deleteRolled() throws IOException {
+        Files.deleteIfExists(rolledPath);
+    }
+
+    @Override
+    public void close() throws IOException {
+        IOException failure = null;
+        try {
+            sync();
+        } catch (IOException e) {
+            failure = e;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            closed = true;
+            notifyAll();
+        }
+        try {
+            committer.join(1000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        synchronized (this) {
+            channel.close();
+        }
+        if (failure != null) throw failure;
+    }
+
+    private void commitLoop() {
+        while (true) {
+            List<Pending> batch;
+            FileChannel target;
+            long position;
+            synchronized (this) {
+                try {
+                    while (queue.isEmpty() && !closed) wait();
+                    if (queue.isEmpty()) return;
+                    // Give a burst of edits a moment to join this commit
+                    long deadline = System.currentTimeMillis() + commitDelayMillis;
+                    for (long left = commitDelayMillis; left > 0 && !closed; left = deadline - System.currentTimeMillis()) {
+                        wait(left);
+                    }
+                } catch (InterruptedException e) {
+                    return;
+                }
+                batch = new ArrayList<>(queue);
+                queue.clear();
+                inFlight = batch;
+                committing = true;
+                target = channel;
+                position = committedSize;
+            }
+
+            int length = 0;
+            for (Pending p : batch) length += p.record.length;
+            IOException failure = null;
+            try {
+                ByteBuffer buffer = ByteBuffer.allocate(length);
+                for (Pending p : batch) buffer.put(p.record);
+                buffer.flip();
+                while (buffer.hasRemaining()) target.write(buffer, position + buffer.position());
+                target.force(false);
+            } catch (IOException e) {
+                failure = e;
+                // Drop whatever part of the batch made it to the file
+                try {
+                    target.truncate(position);
+                } catch (IOException truncateFailure) {
+                    failure.addSuppressed(truncateFailure);
+                }
+            }
+
+            synchronized (this) {
+                committing = false;
+                inFlight = Collections.emptyList();
+                if (failure == null) {
+                    committedSize = position + length;
+                } else {
+                    size -= length;
+                    records -= batch.size();
+                }
+                notifyAll();
+            }
+            for (Pending p : batch) {
+                if (failure == null) p.done.complete(null);
+                else p.done.completeExceptionally(failure);
+            }
+        }
+    }
+
+    // Appends valid records to edits and returns the byte length of the valid prefix
+    private static long read(FileChannel ch, List<Edit> edits) throws IOException {
+        long fileSize = ch.size();
+        ByteBuffer header = ByteBuffer.allocate(RECORD_HEADER);
+        long position = 0;
+        CRC32 crc = new CRC32();
+        while (position + RECORD_HEADER <= fileSize) {
+            header.clear();
+            if (readFully(ch, header, position) < RECORD_HEADER) break;
+            header.flip();
+            int length = header.getInt();
+            int checksum = header.getInt();
+            if (length <= 0 || length > MAX_RECORD || position + RECORD_HEADER + length > fileSize) break;
+
+            ByteBuffer payload = ByteBuffer.allocate(length);
+            if (readFully(ch, payload, position + RECORD_HEADER) < length) break;
+            crc.reset();
+            crc.update(payload.array());
+            if ((int) crc.getValue() != checksum) break;
+
+            Edit edit = decode(payload);
+            if (edit == null) break;
+            edits.add(edit);
+            position += RECORD_HEADER + length;
+        }
+        return position;
+    }
+
+    private static Edit decode(ByteBuffer payload) {
+        int[] pos = {1};
+        try {
+            switch (payload.get(0)) {
+                case PUT_CROP:
+                    AdvisorySystemGUI.Crop crop = CatalogFile.readCrop(payload, pos);
+                    return new Edit(crop.name, crop);
+                case DELETE_CROP:
+                    return new Edit(CatalogFile.readString(payload, pos), null);
+                default:
+                    return null;
+            }
+        } catch (IndexOutOfBoundsException e) {
+            return null;
+        }
+    }
+
+    private static int readFully(FileChannel ch, ByteBuffer buffer, long position) throws IOException {
+        int total = 0;
+        while (buffer.hasRemaining()) {
+            int n = ch.read(buffer, position + total);
+            if (n < 0) break;
+            total += n;
+        }
+        return total;
+    }
+}
@@ -0,0 +1,107 @@
+import javax.swing.*;
+import javax.swing.Timer;
+import java.util.*;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Debounced crop search that runs off the event dispatch thread.
+ *
+ * Keystrokes restart a short timer; when it fires, the query runs as a {@link BackgroundTasks}
+ * task and any older query still running is cancelled. Queries are answered from a
+ * {@link CropTextIndex}, ranked, falling back to typo-tolerant matches when nothing matches
+ * exactly. When the new query contains the previous one, the index has not changed and the
+ * previous exact matches are few, only those are re-checked. Results are delivered on the
+ * EDT, and only for the most recent query.
+ */
+class CropSearcher {
+
+    interface ResultHandler {
+        void onResults(String query, List<AdvisorySystemGUI.Crop> results);
+    }
+
+    // Above this many previous matches an indexed search is faster than re-checking them
+    private static final int MAX_REFINE = 1_000;
+
+    private final CropTextIndex index;
+    private final ResultHandler handler;
+    private final Timer debounceTimer;
+    private final AtomicLong latestRequest = new AtomicLong();
+
+    private String pendingQuery = "";
+    private BackgroundTasks.Task<List<AdvisorySystemGUI.Crop>> running;
+
+    // Last exact search, used for incremental refinement (guarded by this)
+    private String lastQuery;
+    private long lastVersion;
+    private List<AdvisorySystemGUI.Crop> lastResults;
+
+    CropSearcher(CropTextIndex index, ResultHandler handler, int debounceMillis) {
+        this.index = index;
+        this.handler = handler;
+        this.debounceTimer = new Timer(debounceMillis, e -> searchNow(pendingQuery));
+        this.debounceTimer.setRepeats(false);
+    }
+
+    /**
+     * Schedule a search for {@code query} once typing pauses. Must be called on the EDT.
+     */
+    void queryChanged(String query) {
+        pendingQuery = query;
+        debounceTimer.restart();
+    }
+
+    /**
+     * Search immediately, cancelling any pending or running search. Must be called on the EDT.
+     */
+    void searchNow(String query) {
+        debounceTimer.stop();
+        long request = latestRequest.incrementAndGet();
+        String needle = query.trim().toLowerCase();
+
+        if (running != null) running.cancel();
+        running = BackgroundTasks.shared().<List<AdvisorySystemGUI.Crop>>newTask("crop-search", task -> search(needle, request))
+                .onDone(results -> {
+                    if (results != null && request == latestRequest.get()) handler.onResults(query, results);
+                })
+                .start();
+    }
+
+    void dispose() {
+        debounceTimer.stop();
+        latestRequest.incrementAndGet();
+        if (running != null) running.cancel();
+    }
+
+    // Returns null when a newer request superseded this one
+    private List<AdvisorySystemGUI.Crop> search(String needle, long request) {
+        List<AdvisorySystemGUI.Crop> results = exactMatches(needle);
+        if (results.isEmpty() && needle.length() >= 3 && request == latestRequest.get()) {
+            results = index.search(needle, Integer.MAX_VALUE, true);
+        }
+        return request == latestRequest.get() ? results : null;
+    }
+
+    private List<AdvisorySystemGUI.Crop> exactMatches(String needle) {
+        String previousQuery;
+        long previousVersion;
+        List<AdvisorySystemGUI.Crop> previous;
+        synchronized (this) {
+            previousQuery = lastQuery;
+            previousVersion = lastVersion;
+            previous = lastResults;
+        }
+        // Read first: if the index changes during the search, the next refinement searches again
+        long version = index.version();
+        List<AdvisorySystemGUI.Crop> results = previousQuery != null && !previousQuery.isEmpty() && needle.contains(previousQuery)
+                && previous.size() <= MAX_REFINE
+                ? index.refine(needle, previous, previousVersion)
+                : index.search(needle, Integer.MAX_VALUE);
+        synchronized (this) {
+            lastQuery = needle;
+            lastVersion = version;
+            lastResults = results;
+        }
+        return results;
+    }
+}
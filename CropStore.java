@@ -0,0 +1,131 @@
+import java.util.*;
+
+/**
+ * Column-oriented, read-only copy of the crop catalog.
+ *
+ * Season, soil, region and water requirement are dictionary-encoded into primitive code
+ * columns and yield is kept in a {@code double[]}, so filters and aggregates run as loops
+ * over arrays instead of chasing {@code Crop} objects and comparing strings. String tests
+ * are evaluated once per distinct value and then looked up by code. Row {@code i} is
+ * {@code crops().get(i)}.
+ */
+final class CropStore {
+
+    private final List<AdvisorySystemGUI.Crop> crops;
+    private final int size;
+
+    // Distinct values, indexed by code
+    final String[] seasonValues;
+    final String[] soilValues;
+    final String[] regionValues;
+    final String[] waterValues;
+
+    // One entry per crop
+    final int[] season;
+    final int[] soil;
+    final int[] region;
+    final byte[] water;
+    final double[] yield;
+
+    /**
+     * Row numbers grouped by the values of one column, in catalog order within each group.
+     */
+    static final class Groups {
+        final String[] values;
+        final int[][] members;
+
+        Groups(String[] values, int[][] members) {
+            this.values = values;
+            this.members = members;
+        }
+    }
+
+    CropStore(List<AdvisorySystemGUI.Crop> crops) {
+        this.crops = crops;
+        this.size = crops.size();
+        season = new int[size];
+        soil = new int[size];
+        region = new int[size];
+        water = new byte[size];
+        yield = new double[size];
+
+        Map<String, Integer> seasonCodes = new HashMap<>();
+        Map<String, Integer> soilCodes = new HashMap<>();
+        Map<String, Integer> regionCodes = new HashMap<>();
+        Map<String, Integer> waterCodes = new HashMap<>();
+        for (int i = 0; i < size; i++) {
+            AdvisorySystemGUI.Crop crop = crops.get(i);
+            season[i] = code(seasonCodes, crop.season);
+            soil[i] = code(soilCodes, crop.soilType);
+            region[i] = code(regionCodes, crop.region);
+            int w = code(waterCodes, crop.waterRequirement);
+            if (w > 0xFF) throw new IllegalArgumentException("More than 256 distinct water requirements");
+            water[i] = (byte) w;
+            yield[i] = crop.expectedYield;
+        }
+        seasonValues = values(seasonCodes);
+        soilValues = values(soilCodes);
+        regionValues = values(regionCodes);
+        waterValues = values(waterCodes);
+    }
+
+    int size() {
+        return size;
+    }
+
+    List<AdvisorySystemGUI.Crop> crops() {
+        return crops;
+    }
+
+    /**
+     * Rows whose soil type contains {@code soilQuery}, ignoring case, in catalog order.
+     */
+    int[] filterSoil(String soilQuery) {
+        String needle = soilQuery.toLowerCase();
+        boolean[] match = new boolean[soilValues.length];
+        for (int s = 0; s < soilValues.length; s++) {
+            match[s] = soilValues[s].toLowerCase().contains(needle);
+        }
+        int[] rows = new int[size];
+        int count = 0;
+        for (int i = 0; i < size; i++) {
+            if (match[soil[i]]) rows[count++] = i;
+        }
+        return Arrays.copyOf(rows, count);
+    }
+
+    Groups groupByRegion() {
+        return groupBy(region, regionValues);
+    }
+
+    // Counting sort of row numbers by code; rows stay in catalog order within a group
+    private Groups groupBy(int[] column, String[] values) {
+        int[] counts = new int[values.length];
+        for (int i = 0; i < size; i++) counts[column[i]]++;
+        int[][] members = new int[values.length][];
+        for (int v = 0; v < values.length; v++) members[v] = new int[counts[v]];
+        int[] fill = new int[values.length];
+        for (int i = 0; i < size; i++) {
+            int v = column[i];
+            members[v][fill[v]++] = i;
+        }
+        return new Groups(values, members);
+    }
+
+    private static int code(Map<String, Integer> codes, String value) {
+        Integer code = codes.get(value);
+        if (code == null) {
+            code = codes.size();
+            codes.put(value, code);
+        }
+        return code;
+    }
+
+    private static String[] values(Map<String, Integer> codes) {
+        String[] values = new String[codes.size()];
+        for (Map.Entry<String, Integer> e : codes.entrySet()) {
+            values[e.getValue()] = e.getKey();
+        }
+        return values;
+    }
+}
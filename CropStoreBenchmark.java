@@ -0,0 +1,82 @@
+import java.util.*;
+
+/**
+ * Compares scans over the {@code Crop} object list with the same scans over {@link CropStore}
+ * columns: the soil filter and the per-region report grouping. Recommendation scoring over
+ * the columns is measured by {@link ScoringBenchmark}.
+ *
+ * Run with: java -Xmx2g CropStoreBenchmark [sizes...]   (default: 10000 1000000)
+ */
+public class CropStoreBenchmark {
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{10_000, 1_000_000};
+
+        System.out.printf("%-10s %-22s %14s%n", "crops", "method", "us/op");
+        for (int size : sizes) {
+            List<AdvisorySystemGUI.Crop> crops = RecommendationBenchmark.syntheticCrops(size, 42);
+            long buildStart = System.nanoTime();
+            CropStore store = new CropStore(crops);
+            report(size, "store-build", (System.nanoTime() - buildStart) / 1000.0);
+            verify(crops, store);
+
+            int iterations = Math.max(10, 1_000_000 / size);
+            report(size, "soil-filter-objects", time(iterations, i -> soilFilter(crops, soil(i)).length));
+            report(size, "soil-filter-columns", time(iterations, i -> store.filterSoil(soil(i)).length));
+            report(size, "group-region-objects", time(iterations, i -> groupByRegion(crops).size()));
+            report(size, "group-region-columns", time(iterations, i -> store.groupByRegion().members.length));
+        }
+    }
+
+    private static String soil(int i) {
+        return RecommendationBenchmark.QUERY_SOILS[i % RecommendationBenchmark.QUERY_SOILS.length];
+    }
+
+    // The object-list versions below are the loops the soil panel and reports dialog used before
+    private static int[] soilFilter(List<AdvisorySystemGUI.Crop> crops, String soil) {
+        String soilLower = soil.toLowerCase();
+        int[] matches = new int[crops.size()];
+        int count = 0;
+        for (int i = 0; i < crops.size(); i++) {
+            if (crops.get(i).soilType.toLowerCase().contains(soilLower)) matches[count++] = i;
+        }
+        return Arrays.copyOf(matches, count);
+    }
+
+    private static Map<String, List<AdvisorySystemGUI.Crop>> groupByRegion(List<AdvisorySystemGUI.Crop> crops) {
+        Map<String, List<AdvisorySystemGUI.Crop>> groups = new HashMap<>();
+        for (AdvisorySystemGUI.Crop crop : crops) {
+            groups.computeIfAbsent(crop.region, k -> new ArrayList<>()).add(crop);
+        }
+        return groups;
+    }
+
+    private static void verify(List<AdvisorySystemGUI.Crop> crops, CropStore store) {
+        for (int q = 0; q < RecommendationBenchmark.QUERY_SOILS.length; q++) {
+            if (!Arrays.equals(soilFilter(crops, soil(q)), store.filterSoil(soil(q)))) {
+                throw new IllegalStateException("Soil filter mismatch for " + soil(q));
+            }
+        }
+    }
+
+    interface Op {
+        int run(int i);
+    }
+
+    private static double time(int iterations, Op op) {
+        long sink = 0;
+        // Warm up
+        for (int i = 0; i < iterations; i++) sink += op.run(i);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) sink += op.run(i);
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) System.out.print("");
+        return elapsed / 1000.0 / iterations;
+    }
+
+    private static void report(int size, String method, double micros) {
+        System.out.printf("%-10d %-22s %14.2f%n", size, method, micros);
+    }
+}
@@ -0,0 +1,536 @@
+import java.util.*;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.IntPredicate;
+
+/**
+ * Full-text index over crop name, season and region, kept up to date by the catalog.
+ *
+ * Names are indexed by trigram and by word prefix; seasons and regions have few distinct
+ * values, so each distinct value keeps a posting list of the crops that use it. Removing or
+ * changing a crop leaves its old postings in place, so add, update and delete are all cheap;
+ * stale entries are filtered out by re-checking the current values, and a posting list is
+ * compacted once half of it is stale. Words that no crop uses any more are dropped with
+ * their last posting.
+ *
+ * Results are ranked: name prefix matches, then other name matches, then season or region
+ * matches, then (optionally) names within a small edit distance. Ties keep catalog order.
+ * {@link #refine} re-ranks the exact results of a shorter query instead of searching again.
+ */
+class CropTextIndex {
+
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+
+    // Per-entry state, indexed by entry id (ids grow with insertion order)
+    private AdvisorySystemGUI.Crop[] entries = new AdvisorySystemGUI.Crop[64];
+    private String[] names = new String[64];
+    private int[] seasonOf = new int[64];
+    private int[] regionOf = new int[64];
+    private final BitSet live = new BitSet();
+    private int nextId;
+    private int liveCount;
+    // Bumped by every add, replace and remove
+    private long version;
+    private final IdentityHashMap<AdvisorySystemGUI.Crop, Integer> ids = new IdentityHashMap<>();
+
+    // Name indexes
+    private final HashMap<Long, Postings> trigrams = new HashMap<>();
+    private final TreeMap<String, Postings> prefixes = new TreeMap<>();
+    private final HashMap<Long, List<String>> wordTrigrams = new HashMap<>();
+
+    // Season and region dictionaries
+    private final FieldIndex seasons = new FieldIndex();
+    private final FieldIndex regions = new FieldIndex();
+
+    CropTextIndex() {
+    }
+
+    CropTextIndex(Collection<AdvisorySystemGUI.Crop> crops) {
+        for (AdvisorySystemGUI.Crop crop : crops) add(crop);
+    }
+
+    int size() {
+        lock.readLock().lock();
+        try {
+            return liveCount;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    void add(AdvisorySystemGUI.Crop crop) {
+        lock.writeLock().lock();
+        try {
+            if (ids.containsKey(crop)) return;
+            int id = nextId++;
+            if (id == entries.length) grow();
+            entries[id] = crop;
+            ids.put(crop, id);
+            live.set(id);
+            liveCount++;
+            version++;
+            indexName(id, crop.name);
+            indexFields(id, crop);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Index {@code updated} in place of {@code old}, keeping its position in the ranking.
+     */
+    void replace(AdvisorySystemGUI.Crop old, AdvisorySystemGUI.Crop updated) {
+        lock.writeLock().lock();
+        try {
+            Integer id = ids.remove(old);
+            if (id == null) return;
+            version++;
+            ids.put(updated, id);
+            entries[id] = updated;
+            String oldName = names[id];
+            if (!updated.name.toLowerCase().equals(oldName)) {
+                indexName(id, updated.name);
+                unindexName(oldName, names[id]);
+            }
+            int oldSeason = seasonOf[id], oldRegion = regionOf[id];
+            seasonOf[id] = seasons.code(updated.season);
+            regionOf[id] = regions.code(updated.region);
+            if (seasonOf[id] != oldSeason) {
+                seasons.postings.get(seasonOf[id]).add(id);
+                seasons.postings.get(oldSeason).removed(other -> live.get(other) && seasonOf[other] == oldSeason);
+            }
+            if (regionOf[id] != oldRegion) {
+                regions.postings.get(regionOf[id]).add(id);
+                regions.postings.get(oldRegion).removed(other -> live.get(other) && regionOf[other] == oldRegion);
+            }
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    void remove(AdvisorySystemGUI.Crop crop) {
+        lock.writeLock().lock();
+        try {
+            Integer id = ids.remove(crop);
+            if (id == null) return;
+            version++;
+            live.clear(id);
+            liveCount--;
+            entries[id] = null;
+            String oldName = names[id];
+            names[id] = null;
+            unindexName(oldName, null);
+            int season = seasonOf[id], region = regionOf[id];
+            seasons.postings.get(season).removed(other -> live.get(other) && seasonOf[other] == season);
+            regions.postings.get(region).removed(other -> live.get(other) && regionOf[other] == region);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Changes with every add, replace and remove, so results kept from an earlier search can
+     * be told apart from current ones.
+     */
+    long version() {
+        lock.readLock().lock();
+        try {
+            return version;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Same as {@code search(query, Integer.MAX_VALUE)}, given {@code previous}: the complete
+     * exact results of a query contained in {@code query}, taken at {@link #version()}
+     * {@code previousVersion}. A longer query can only match a subset of those, so only they
+     * are re-checked and re-ranked. Searches the whole index if it has changed since.
+     */
+    List<AdvisorySystemGUI.Crop> refine(String query, List<AdvisorySystemGUI.Crop> previous, long previousVersion) {
+        String q = query.trim().toLowerCase();
+        lock.readLock().lock();
+        try {
+            if (previousVersion == version && !q.isEmpty()) {
+                int[][] byRank = new int[3][previous.size()];
+                int[] counts = new int[3];
+                for (AdvisorySystemGUI.Crop crop : previous) {
+                    Integer id = ids.get(crop);
+                    int rank = id == null ? -1 : rank(id, q);
+                    if (rank >= 0) byRank[rank][counts[rank]++] = id;
+                }
+                List<AdvisorySystemGUI.Crop> results = new ArrayList<>(counts[0] + counts[1] + counts[2]);
+                for (int rank = 0; rank < byRank.length; rank++) {
+                    Arrays.sort(byRank[rank], 0, counts[rank]);
+                    for (int i = 0; i < counts[rank]; i++) results.add(entries[byRank[rank][i]]);
+                }
+                return results;
+            }
+        } finally {
+            lock.readLock().unlock();
+        }
+        return search(q, Integer.MAX_VALUE);
+    }
+
+    // The exact-match rank search() gives a live entry, or -1 if it does not match
+    private int rank(int id, String q) {
+        if (hasWordPrefix(names[id], q)) return 0;
+        if (names[id].contains(q)) return 1;
+        if (seasons.values.get(seasonOf[id]).contains(q) || regions.values.get(regionOf[id]).contains(q)) return 2;
+        return -1;
+    }
+
+    List<AdvisorySystemGUI.Crop> search(String query, int limit) {
+        return search(query, limit, false);
+    }
+
+    /**
+     * Crops matching {@code query} (case-insensitive substring of name, season or region),
+     * best ranked first. With {@code fuzzy}, names within edit distance 1 (2 for queries
+     * longer than 5 characters) are appended after the exact matches.
+     */
+    List<AdvisorySystemGUI.Crop> search(String query, int limit, boolean fuzzy) {
+        String q = query.trim().toLowerCase();
+        lock.readLock().lock();
+        try {
+            List<AdvisorySystemGUI.Crop> results = new ArrayList<>(Math.min(limit, 64));
+            if (q.isEmpty()) {
+                for (int id = live.nextSetBit(0); id >= 0 && results.size() < limit; id = live.nextSetBit(id + 1)) {
+                    results.add(entries[id]);
+                }
+                return results;
+            }
+            BitSet seen = new BitSet(nextId);
+            collectPrefix(q, limit, seen, results);
+            if (results.size() < limit) collectName(q, limit, seen, results);
+            if (results.size() < limit) collectFields(q, limit, seen, results);
+            if (fuzzy && results.size() < limit && q.length() >= 3) collectFuzzy(q, limit, seen, results);
+            return results;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // Rank 0: a word of the name starts with the query
+    private void collectPrefix(String q, int limit, BitSet seen, List<AdvisorySystemGUI.Crop> results) {
+        SortedMap<String, Postings> range = prefixes.subMap(q, q + Character.MAX_VALUE);
+        if (range.isEmpty()) return;
+        IntHeap heap = new IntHeap();
+        for (Postings p : range.values()) heap.addAll(p);
+        int id;
+        while (results.size() < limit && (id = heap.poll()) >= 0) {
+            if (seen.get(id) || !live.get(id) || !hasWordPrefix(names[id], q)) continue;
+            seen.set(id);
+            results.add(entries[id]);
+        }
+    }
+
+    // Rank 1: the name contains the query anywhere
+    private void collectName(String q, int limit, BitSet seen, List<AdvisorySystemGUI.Crop> results) {
+        if (q.length() < 3) {
+            // Too short for trigrams: walk names in catalog order, stopping at the limit
+            for (int id = live.nextSetBit(0); id >= 0 && results.size() < limit; id = live.nextSetBit(id + 1)) {
+                if (!seen.get(id) && names[id].contains(q)) {
+                    seen.set(id);
+                    results.add(entries[id]);
+                }
+            }
+            return;
+        }
+        // Every trigram of the query must occur in the name, so the rarest one bounds the candidates
+        Postings rarest = null;
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            Postings p = trigrams.get(trigram(q, i));
+            if (p == null) return;
+            if (rarest == null || p.size < rarest.size) rarest = p;
+        }
+        rarest.sortIfNeeded();
+        for (int i = 0; i < rarest.size && results.size() < limit; i++) {
+            int id = rarest.ids[i];
+            if (seen.get(id) || !live.get(id) || !names[id].contains(q)) continue;
+            seen.set(id);
+            results.add(entries[id]);
+        }
+    }
+
+    // Rank 2: season or region contains the query
+    private void collectFields(String q, int limit, BitSet seen, List<AdvisorySystemGUI.Crop> results) {
+        IntHeap heap = new IntHeap();
+        List<Integer> seasonCodes = seasons.matching(q);
+        List<Integer> regionCodes = regions.matching(q);
+        for (int code : seasonCodes) heap.addAll(seasons.postings.get(code));
+        for (int code : regionCodes) heap.addAll(regions.postings.get(code));
+        if (heap.isEmpty()) return;
+        Set<Integer> seasonSet = new HashSet<>(seasonCodes);
+        Set<Integer> regionSet = new HashSet<>(regionCodes);
+        int id;
+        while (results.size() < limit && (id = heap.poll()) >= 0) {
+            if (seen.get(id) || !live.get(id)) continue;
+            if (!seasonSet.contains(seasonOf[id]) && !regionSet.contains(regionOf[id])) continue;
+            seen.set(id);
+            results.add(entries[id]);
+        }
+    }
+
+    // Rank 3: a word of the name is within a small edit distance of the query
+    private void collectFuzzy(String q, int limit, BitSet seen, List<AdvisorySystemGUI.Crop> results) {
+        int maxEdits = q.length() > 5 ? 2 : 1;
+        // Candidate words share a trigram with the query, or at least its first character
+        Set<String> candidates = new HashSet<>();
+        for (int i = 0; i + 3 <= q.length(); i++) {
+            List<String> words = wordTrigrams.get(trigram(q, i));
+            if (words != null) candidates.addAll(words);
+        }
+        String first = q.substring(0, 1);
+        for (String word : prefixes.subMap(first, first + Character.MAX_VALUE).keySet()) {
+            if (Math.abs(word.length() - q.length()) <= maxEdits) candidates.add(word);
+        }
+
+        IntHeap heap = new IntHeap();
+        Set<String> close = new HashSet<>();
+        for (String word : candidates) {
+            if (Math.abs(word.length() - q.length()) <= maxEdits && withinEdits(word, q, maxEdits)) {
+                close.add(word);
+                heap.addAll(prefixes.get(word));
+            }
+        }
+        int id;
+        while (results.size() < limit && (id = heap.poll()) >= 0) {
+            // Postings can still list crops renamed since, so check the current name's words
+            if (seen.get(id) || !live.get(id) || !hasAnyWord(names[id], close)) continue;
+            seen.set(id);
+            results.add(entries[id]);
+        }
+    }
+
+    private void indexName(int id, String name) {
+        String lower = name.toLowerCase();
+        names[id] = lower;
+        HashSet<Long> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= lower.length(); i++) {
+            long gram = trigram(lower, i);
+            if (grams.add(gram)) trigrams.computeIfAbsent(gram, k -> new Postings()).add(id);
+        }
+        for (String word : new HashSet<>(words(lower))) {
+            Postings postings = prefixes.get(word);
+            if (postings == null) {
+                postings = new Postings();
+                prefixes.put(word, postings);
+                // Typo matching only makes sense for words, not variety numbers
+                for (int i = 0; Character.isLetter(word.charAt(0)) && i + 3 <= word.length(); i++) {
+                    wordTrigrams.computeIfAbsent(trigram(word, i), k -> new ArrayList<>()).add(word);
+                }
+            }
+            postings.add(id);
+        }
+    }
+
+    // Notes the postings of a name that an entry no longer has; current is its new name, or null
+    private void unindexName(String old, String current) {
+        HashSet<Long> grams = new HashSet<>();
+        for (int i = 0; i + 3 <= old.length(); i++) {
+            long gram = trigram(old, i);
+            if (!grams.add(gram) || current != null && containsTrigram(current, gram)) continue;
+            Postings postings = trigrams.get(gram);
+            if (postings == null) continue;
+            postings.removed(other -> live.get(other) && containsTrigram(names[other], gram));
+            if (postings.size == 0) trigrams.remove(gram);
+        }
+        List<String> currentWords = current == null ? Collections.emptyList() : words(current);
+        for (String word : new HashSet<>(words(old))) {
+            if (currentWords.contains(word)) continue;
+            Postings postings = prefixes.get(word);
+            if (postings == null) continue;
+            postings.removed(other -> live.get(other) && words(names[other]).contains(word));
+            if (postings.size > 0) continue;
+            prefixes.remove(word);
+            for (int i = 0; i + 3 <= word.length(); i++) {
+                long gram = trigram(word, i);
+                List<String> words = wordTrigrams.get(gram);
+                if (words != null && words.remove(word) && words.isEmpty()) wordTrigrams.remove(gram);
+            }
+        }
+    }
+
+    private void indexFields(int id, AdvisorySystemGUI.Crop crop) {
+        seasonOf[id] = seasons.index(id, crop.season);
+        regionOf[id] = regions.index(id, crop.region);
+    }
+
+    private void grow() {
+        int capacity = entries.length * 2;
+        entries = Arrays.copyOf(entries, capacity);
+        names = Arrays.copyOf(names, capacity);
+        seasonOf = Arrays.copyOf(seasonOf, capacity);
+        regionOf = Arrays.copyOf(regionOf, capacity);
+    }
+
+    private static long trigram(String s, int i) {
+        return ((long) s.charAt(i) << 32) | ((long) s.charAt(i + 1) << 16) | s.charAt(i + 2);
+    }
+
+    private static boolean containsTrigram(String s, long gram) {
+        for (int i = 0; i + 3 <= s.length(); i++) {
+            if (trigram(s, i) == gram) return true;
+        }
+        return false;
+    }
+
+    private static List<String> words(String lower) {
+        List<String> words = new ArrayList<>(4);
+        int start = -1;
+        for (int i = 0; i <= lower.length(); i++) {
+            boolean wordChar = i < lower.length() && Character.isLetterOrDigit(lower.charAt(i));
+            if (wordChar && start < 0) start = i;
+            else if (!wordChar && start >= 0) {
+                words.add(lower.substring(start, i));
+                start = -1;
+            }
+        }
+        return words;
+    }
+
+    private static boolean hasAnyWord(String name, Set<String> words) {
+        for (String word : words(name)) {
+            if (words.contains(word)) return true;
+        }
+        return false;
+    }
+
+    private static boolean hasWordPrefix(String name, String q) {
+        int from = 0;
+        while ((from = name.indexOf(q, from)) >= 0) {
+            if (from == 0 || !Character.isLetterOrDigit(name.charAt(from - 1))) return true;
+            from++;
+        }
+        return false;
+    }
+
+    // Levenshtein distance with early exit once every cell in a row exceeds the bound
+    static boolean withinEdits(String a, String b, int maxEdits) {
+        int[] prev = new int[b.length() + 1];
+        int[] cur = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) prev[j] = j;
+        for (int i = 1; i <= a.length(); i++) {
+            cur[0] = i;
+            int rowMin = cur[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                cur[j] = Math.min(Math.min(cur[j - 1] + 1, prev[j] + 1), prev[j - 1] + cost);
+                rowMin = Math.min(rowMin, cur[j]);
+            }
+            if (rowMin > maxEdits) return false;
+            int[] t = prev;
+            prev = cur;
+            cur = t;
+        }
+        return prev[b.length()] <= maxEdits;
+    }
+
+    // List of entry ids; sorted lazily if an id is appended out of order
+    static class Postings {
+        int[] ids = new int[4];
+        int size;
+        // Listed ids known to no longer belong here
+        private int stale;
+        private volatile boolean sorted = true;
+
+        void add(int id) {
+            if (size > 0 && ids[size - 1] >= id) {
+                if (ids[size - 1] == id) return;
+                sorted = false;
+            }
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+
+        /**
+         * Note that one listed id no longer belongs here. Once half the list is stale, keeps
+         * only the ids that {@code belongs} accepts. Called with the index write lock held.
+         */
+        void removed(IntPredicate belongs) {
+            if (++stale * 2 <= size) return;
+            int n = 0;
+            for (int i = 0; i < size; i++) {
+                if (belongs.test(ids[i])) ids[n++] = ids[i];
+            }
+            size = n;
+            stale = 0;
+            if (size < ids.length / 4) ids = Arrays.copyOf(ids, Math.max(4, size * 2));
+        }
+
+        void sortIfNeeded() {
+            if (sorted) return;
+            synchronized (this) {
+                if (sorted) return;
+                Arrays.sort(ids, 0, size);
+                int n = 0;
+                for (int i = 0; i < size; i++) {
+                    if (n == 0 || ids[n - 1] != ids[i]) ids[n++] = ids[i];
+                }
+                size = n;
+                sorted = true;
+            }
+        }
+    }
+
+    // Distinct field values (lower-cased) with the entries that use each one
+    static class FieldIndex {
+        final HashMap<String, Integer> codes = new HashMap<>();
+        final List<String> values = new ArrayList<>();
+        final List<Postings> postings = new ArrayList<>();
+
+        int index(int id, String value) {
+            int code = code(value);
+            postings.get(code).add(id);
+            return code;
+        }
+
+        // The code of a value, adding it to the dictionary if it is new
+        int code(String value) {
+            String lower = value.toLowerCase();
+            Integer code = codes.get(lower);
+            if (code == null) {
+                code = values.size();
+                codes.put(lower, code);
+                values.add(lower);
+                postings.add(new Postings());
+            }
+            return code;
+        }
+
+        List<Integer> matching(String q) {
+            List<Integer> matched = new ArrayList<>();
+            for (int code = 0; code < values.size(); code++) {
+                if (values.get(code).contains(q)) matched.add(code);
+            }
+            return matched;
+        }
+    }
+
+    // K-way merge of sorted postings, yielding ids in ascending order (duplicates included)
+    static class IntHeap {
+        private final PriorityQueue<int[]> heads = new PriorityQueue<>((a, b) -> Integer.compare(a[0], b[0]));
+        private final List<Postings> lists = new ArrayList<>();
+
+        void addAll(Postings p) {
+            if (p.size == 0) return;
+            p.sortIfNeeded();
+            lists.add(p);
+            heads.add(new int[]{p.ids[0], lists.size() - 1, 0});
+        }
+
+        boolean isEmpty() {
+            return heads.isEmpty();
+        }
+
+        int poll() {
+            int[] head = heads.poll();
+            if (head == null) return -1;
+            Postings p = lists.get(head[1]);
+            int next = head[2] + 1;
+            if (next < p.size) heads.add(new int[]{p.ids[next], head[1], next});
+            return head[0];
+        }
+    }
+}
@@ -0,0 +1,113 @@
+import java.util.*;
+
+/**
+ * Lookup latency of {@link CropTextIndex} against a linear scan over the same crops.
+ *
+ * Run with: java -Xmx2g CropTextIndexBenchmark [entries] [limit]   (default: 1000000 50)
+ */
+public class CropTextIndexBenchmark {
+
+    static final String[] BASES = {"Wheat", "Chickpea", "Sugarcane", "Maize", "Groundnut", "Sorghum", "Millet",
+            "Barley", "Lentils", "Cotton", "Mustard", "Sunflower", "Rice", "Onion", "Tomato", "Potato", "Mango",
+            "Citrus", "Fodder", "Sesame"};
+    static final String[] SYLLABLES = {"ka", "ra", "fa", "sal", "ba", "dar", "ghu", "lam", "nur", "pak", "sha",
+            "zar", "ta", "mi", "an", "wal", "har", "qa", "sun", "del"};
+
+    public static void main(String[] args) {
+        int entries = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int limit = args.length > 1 ? Integer.parseInt(args[1]) : 50;
+
+        verify(syntheticCrops(10_000, 7));
+
+        List<AdvisorySystemGUI.Crop> crops = syntheticCrops(entries, 42);
+        long buildStart = System.nanoTime();
+        CropTextIndex index = new CropTextIndex(crops);
+        System.out.printf("Indexed %,d entries in %d ms%n", entries, (System.nanoTime() - buildStart) / 1_000_000);
+
+        String[] queries = {"wheat", "karasal", "pak", "ghudel", "kharif", "isa khel", "mi", "sesame ta", "wheet"};
+        System.out.printf("%-12s %10s %12s %12s %14s%n", "query", "results", "index avg us", "index p99 us", "scan avg us");
+        for (String q : queries) {
+            boolean fuzzy = q.equals("wheet");
+            int iterations = 2_000;
+            long[] samples = new long[iterations];
+            int found = 0;
+            for (int i = 0; i < iterations; i++) index.search(q, limit, fuzzy);
+            for (int i = 0; i < iterations; i++) {
+                long t = System.nanoTime();
+                found = index.search(q, limit, fuzzy).size();
+                samples[i] = System.nanoTime() - t;
+            }
+            Arrays.sort(samples);
+            double avg = Arrays.stream(samples).average().orElse(0) / 1000.0;
+            double p99 = samples[(int) (iterations * 0.99)] / 1000.0;
+            System.out.printf("%-12s %10d %12.1f %12.1f %14.1f%n", q, found, avg, p99, scanMicros(crops, q, limit));
+        }
+
+        // Incremental maintenance cost
+        long t = System.nanoTime();
+        for (int i = 0; i < 10_000; i++) {
+            AdvisorySystemGUI.Crop crop = crops.get(i);
+            index.replace(crop, new AdvisorySystemGUI.Crop(crop.name, "Perennial", crop.soilType, crop.region,
+                    crop.waterRequirement, crop.expectedYield));
+        }
+        for (int i = 10_000; i < 20_000; i++) index.remove(crops.get(i));
+        System.out.printf("10k updates + 10k removals: %.1f us/op%n", (System.nanoTime() - t) / 1000.0 / 20_000);
+    }
+
+    static List<AdvisorySystemGUI.Crop> syntheticCrops(int size, long seed) {
+        Random random = new Random(seed);
+        List<AdvisorySystemGUI.Crop> crops = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            String variety = SYLLABLES[random.nextInt(SYLLABLES.length)] + SYLLABLES[random.nextInt(SYLLABLES.length)]
+                    + SYLLABLES[random.nextInt(SYLLABLES.length)];
+            crops.add(new AdvisorySystemGUI.Crop(BASES[random.nextInt(BASES.length)] + " " + variety + " " + i,
+                    RecommendationBenchmark.SEASONS[random.nextInt(RecommendationBenchmark.SEASONS.length)],
+                    RecommendationBenchmark.SOILS[random.nextInt(RecommendationBenchmark.SOILS.length)],
+                    RecommendationBenchmark.REGIONS[random.nextInt(RecommendationBenchmark.REGIONS.length)],
+                    RecommendationBenchmark.WATER[random.nextInt(RecommendationBenchmark.WATER.length)],
+                    Math.round(random.nextDouble() * 500) / 10.0));
+        }
+        return crops;
+    }
+
+    // The index must return exactly the crops the scan matches, and refining a shorter
+    // query's results must give exactly what a full search gives
+    private static void verify(List<AdvisorySystemGUI.Crop> crops) {
+        CropTextIndex index = new CropTextIndex(crops);
+        String previous = "";
+        for (String q : new String[]{"w", "wh", "wheat", "karasal", "rabi", "kala", "12", "a", "zzz"}) {
+            List<AdvisorySystemGUI.Crop> actual = index.search(q, Integer.MAX_VALUE);
+            if (!previous.isEmpty() && q.contains(previous)
+                    && !index.refine(q, index.search(previous, Integer.MAX_VALUE), index.version()).equals(actual)) {
+                throw new IllegalStateException("Refining '" + previous + "' to '" + q + "' disagrees with a search");
+            }
+            previous = q;
+            Set<AdvisorySystemGUI.Crop> expected = Collections.newSetFromMap(new IdentityHashMap<>());
+            for (AdvisorySystemGUI.Crop crop : crops) if (matches(crop, q)) expected.add(crop);
+            Set<AdvisorySystemGUI.Crop> actualSet = Collections.newSetFromMap(new IdentityHashMap<>());
+            actualSet.addAll(actual);
+            if (actual.size() != actualSet.size() || !expected.equals(actualSet)) {
+                throw new IllegalStateException("Index and scan disagree for '" + q + "'");
+            }
+        }
+    }
+
+    private static double scanMicros(List<AdvisorySystemGUI.Crop> crops, String q, int limit) {
+        int iterations = 5;
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            int found = 0;
+            for (AdvisorySystemGUI.Crop crop : crops) {
+                if (matches(crop, q) && ++found >= limit) break;
+            }
+        }
+        return (System.nanoTime() - start) / 1000.0 / iterations;
+    }
+
+    // The index's exact-match rule: the name, season or region contains the query
+    private static boolean matches(AdvisorySystemGUI.Crop crop, String lowerCaseQuery) {
+        return crop.name.toLowerCase().contains(lowerCaseQuery)
+                || crop.season.toLowerCase().contains(lowerCaseQuery)
+                || crop.region.toLowerCase().contains(lowerCaseQuery);
+    }
+}
@@ -0,0 +1,300 @@
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.CancellationException;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.ToDoubleFunction;
+import java.util.stream.Stream;
+
+/**
+ * Streams rows to a CSV, JSON or compact binary file.
+ *
+ * Rows are pulled one at a time from an iterator and written through a fixed 64 KB buffer,
+ * so an export holds one row in memory however many there are; exporting the catalog walks
+ * the current version's crop list, which for a file-backed catalog decodes each crop from the
+ * mapped file as it is reached. The file is written under a temporary name and moved into
+ * place when complete, so a cancelled or failed export never leaves a partial file behind.
+ *
+ * The binary format is big-endian: the magic "FASX", a version int, a column count short,
+ * then each column's name (short length + UTF-8) and type byte ('S' text, 'D' double).
+ * Each row is a 1 byte followed by its values, texts as length-prefixed UTF-8 and numbers as
+ * 8-byte doubles. A 0 byte and the row count as a long end the file.
+ */
+final class DataExporter {
+
+    static final int MAGIC = 0x46415358; // "FASX"
+    static final int VERSION = 1;
+
+    private static final int BUFFER_SIZE = 1 << 16;
+    // Rows between progress reports and cancellation checks
+    private static final int PROGRESS_ROWS = 8192;
+
+    enum Format {
+        CSV("csv"), JSON("json"), BINARY("fasx");
+
+        final String extension;
+
+        Format(String extension) {
+            this.extension = extension;
+        }
+
+        /**
+         * The format named by the file's extension, or null if it has none of ours.
+         */
+        static Format forFile(Path file) {
+            String name = file.getFileName().toString().toLowerCase();
+            for (Format format : values()) {
+                if (name.endsWith("." + format.extension)) return format;
+            }
+            return null;
+        }
+    }
+
+    interface ProgressListener {
+        /**
+         * @param total expected number of rows, or -1 if unknown
+         */
+        void progress(long rows, long total);
+    }
+
+    /**
+     * One exported column: a text or a numeric value computed from the row.
+     */
+    static final class Column<T> {
+        final String name;
+        private final Function<? super T, String> text;
+        private final ToDoubleFunction<? super T> number;
+
+        private Column(String name, Function<? super T, String> text, ToDoubleFunction<? super T> number) {
+            this.name = name;
+            this.text = text;
+            this.number = number;
+        }
+
+        static <T> Column<T> text(String name, Function<? super T, String> value) {
+            return new Column<>(name, value, null);
+        }
+
+        static <T> Column<T> number(String name, ToDoubleFunction<? super T> value) {
+            return new Column<>(name, null, value);
+        }
+
+        boolean numeric() {
+            return number != null;
+        }
+    }
+
+    /**
+     * A catalog aggregate with the grouping it belongs to ("region" or "season").
+     */
+    static final class GroupRow {
+        final String grouping;
+        final CatalogAggregates.Group group;
+
+        GroupRow(String grouping, CatalogAggregates.Group group) {
+            this.grouping = grouping;
+            this.group = group;
+        }
+    }
+
+    static final List<Column<AdvisorySystemGUI.Crop>> CROP_COLUMNS = List.of(
+            Column.text("name", c -> c.name),
+            Column.text("season", c -> c.season),
+            Column.text("soil", c -> c.soilType),
+            Column.text("region", c -> c.region),
+            Column.text("water", c -> c.waterRequirement),
+            Column.number("yield", c -> c.expectedYield));
+
+    static final List<Column<AdvisorySystemGUI.Recommendation>> RECOMMENDATION_COLUMNS = List.of(
+            Column.text("crop", r -> r.crop.name),
+            Column.number("score", r -> r.score),
+            Column.text("season", r -> r.crop.season),
+            Column.text("soil", r -> r.crop.soilType),
+            Column.text("region", r -> r.crop.region),
+            Column.text("water", r -> r.crop.waterRequirement),
+            Column.number("yield", r -> r.crop.expectedYield));
+
+    static final List<Column<GroupRow>> GROUP_COLUMNS = List.of(
+            Column.text("grouping", g -> g.grouping),
+            Column.text("key", g -> g.group.key),
+            Column.number("crops", g -> g.group.count()),
+            Column.number("avg_yield", g -> g.group.averageYield()),
+            Column.number("min_yield", g -> g.group.count() == 0 ? 0 : g.group.minYield),
+            Column.number("max_yield", g -> g.group.count() == 0 ? 0 : g.group.maxYield));
+
+    private DataExporter() {
+    }
+
+    /**
+     * Region groups followed by season groups, in the order the aggregates hold them.
+     */
+    static Iterator<GroupRow> groupRows(CatalogAggregates aggregates) {
+        return Stream.concat(
+                aggregates.regions().stream().map(g -> new GroupRow("region", g)),
+                aggregates.seasons().stream().map(g -> new GroupRow("season", g))).iterator();
+    }
+
+    /**
+     * Write every row from {@code rows} to {@code file}.
+     *
+     * @param total expected number of rows for progress reporting, or -1 if unknown
+     * @return the number of rows written
+     * @throws CancellationException if {@code cancelled} became true; nothing is written then
+     */
+    static <T> long export(Path file, Format format, List<Column<T>> columns, Iterator<? extends T> rows, long total,
+                           ProgressListener listener, BooleanSupplier cancelled) throws IOException {
+        Path dir = file.toAbsolutePath().getParent();
+        Path temp = Files.createTempFile(dir, file.getFileName().toString(), ".part");
+        boolean done = false;
+        try {
+            long count;
+            try (OutputStream out = Files.newOutputStream(temp)) {
+                RowWriter<T> writer = format == Format.BINARY
+                        ? new BinaryWriter<>(out, columns)
+                        : new TextWriter<>(out, columns, format == Format.JSON);
+                writer.begin();
+                for (count = 0; rows.hasNext(); count++) {
+                    if (count % PROGRESS_ROWS == 0) {
+                        if (cancelled != null && cancelled.getAsBoolean()) throw new CancellationException("Export cancelled");
+                        if (listener != null) listener.progress(count, total);
+                    }
+                    writer.row(rows.next(), count);
+                }
+                writer.end(count);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            done = true;
+            if (listener != null) listener.progress(count, total);
+            return count;
+        } finally {
+            if (!done) Files.deleteIfExists(temp);
+        }
+    }
+
+    /**
+     * Write every row from {@code rows} to {@code out} without closing it.
+     *
+     * @return the number of rows written
+     */
+    static <T> long write(OutputStream out, Format format, List<Column<T>> columns, Iterator<? extends T> rows)
+            throws IOException {
+        RowWriter<T> writer = format == Format.BINARY
+                ? new BinaryWriter<>(out, columns)
+                : new TextWriter<>(out, columns, format == Format.JSON);
+        writer.begin();
+        long count;
+        for (count = 0; rows.hasNext(); count++) writer.row(rows.next(), count);
+        writer.end(count);
+        return count;
+    }
+
+    private interface RowWriter<T> {
+        void begin() throws IOException;
+
+        void row(T row, long index) throws IOException;
+
+        void end(long count) throws IOException;
+    }
+
+    // CSV with a header row, or a JSON array with one object per line
+    private static final class TextWriter<T> implements RowWriter<T> {
+        private final Writer out;
+        private final List<Column<T>> columns;
+        private final boolean json;
+        private final String[] keys;
+
+        TextWriter(OutputStream out, List<Column<T>> columns, boolean json) {
+            this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), BUFFER_SIZE);
+            this.columns = columns;
+            this.json = json;
+            this.keys = new String[columns.size()];
+            for (int i = 0; i < keys.length; i++) keys[i] = Json.quote(columns.get(i).name) + ":";
+        }
+
+        @Override
+        public void begin() throws IOException {
+            if (json) {
+                out.write('[');
+                return;
+            }
+            for (int i = 0; i < columns.size(); i++) {
+                if (i > 0) out.write(',');
+                out.write(Csv.escape(columns.get(i).name));
+            }
+            out.write('\n');
+        }
+
+        @Override
+        public void row(T row, long index) throws IOException {
+            if (json) out.write(index == 0 ? "\n{" : ",\n{");
+            for (int i = 0; i < columns.size(); i++) {
+                Column<T> column = columns.get(i);
+                if (i > 0) out.write(',');
+                if (json) out.write(keys[i]);
+                if (column.numeric()) out.write(formatNumber(column.number.applyAsDouble(row)));
+                else if (json) out.write(Json.quote(column.text.apply(row)));
+                else out.write(Csv.escape(column.text.apply(row)));
+            }
+            out.write(json ? "}" : "\n");
+        }
+
+        @Override
+        public void end(long count) throws IOException {
+            if (json) out.write(count == 0 ? "]\n" : "\n]\n");
+            out.flush();
+        }
+
+        // Whole numbers without a trailing ".0"; JSON has no NaN or infinity
+        private String formatNumber(double value) {
+            if (value == Math.rint(value) && Math.abs(value) < 1e15) return Long.toString((long) value);
+            if (Double.isNaN(value) || Double.isInfinite(value)) return json ? "null" : "";
+            return Double.toString(value);
+        }
+    }
+
+    private static final class BinaryWriter<T> implements RowWriter<T> {
+        private final DataOutputStream out;
+        private final List<Column<T>> columns;
+
+        BinaryWriter(OutputStream out, List<Column<T>> columns) {
+            this.out = new DataOutputStream(new BufferedOutputStream(out, BUFFER_SIZE));
+            this.columns = columns;
+        }
+
+        @Override
+        public void begin() throws IOException {
+            out.writeInt(MAGIC);
+            out.writeInt(VERSION);
+            out.writeShort(columns.size());
+            for (Column<T> column : columns) {
+                CatalogFile.writeString(out, column.name);
+                out.writeByte(column.numeric() ? 'D' : 'S');
+            }
+        }
+
+        @Override
+        public void row(T row, long index) throws IOException {
+            out.writeByte(1);
+            for (Column<T> column : columns) {
+                if (column.numeric()) {
+                    out.writeDouble(column.number.applyAsDouble(row));
+                } else {
+                    String value = column.text.apply(row);
+                    CatalogFile.writeString(out, value == null ? "" : value);
+                }
+            }
+        }
+
+        @Override
+        public void end(long count) throws IOException {
+            out.writeByte(0);
+            out.writeLong(count);
+            out.flush();
+        }
+    }
+}
@@ -0,0 +1,183 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.geom.AffineTransform;
+import java.awt.image.BufferedImage;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Panel whose custom decoration is rendered once per size and screen scale and then only
+ * copied to the screen.
+ *
+ * The decoration is drawn into an image created for the panel's graphics configuration at
+ * device resolution, so it stays sharp on HiDPI screens. Java2D keeps such compatible images
+ * in video memory where it can, which gives volatile-image blit speed without having to
+ * handle lost surfaces. Only the decoration's bounds are stored, and an opaque decoration is
+ * stored without alpha and replaces the background fill. While the size and screen stay the
+ * same, a repaint is a single {@code drawImage} and allocates nothing.
+ *
+ * A size seen for the first time is drawn directly, and an image is only rendered once a
+ * repaint comes at the same size again, so dragging a window edge costs no more than before
+ * and does not flood the cache. Images are shared between panels with the same decoration
+ * name through a small LRU cache, so identical logos are rendered once. Children are painted
+ * on top as usual.
+ */
+@SuppressWarnings("serial")
+class DecoratedPanel extends JPanel {
+
+    interface Decoration {
+        /**
+         * Draw the decoration for a panel of {@code width} x {@code height}, in panel coordinates.
+         */
+        void paint(Graphics2D g, int width, int height);
+
+        /**
+         * The part of the panel the decoration draws on; nothing outside it is kept.
+         */
+        default Rectangle bounds(int width, int height) {
+            return new Rectangle(0, 0, width, height);
+        }
+
+        /**
+         * Whether the decoration paints every pixel of the whole panel.
+         */
+        default boolean opaque() {
+            return false;
+        }
+    }
+
+    private static final int MAX_CACHED_IMAGES = 32;
+
+    // Shared by all panels; painting only happens on the EDT
+    private static final Map<Key, BufferedImage> CACHE = new LinkedHashMap<>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Key, BufferedImage> eldest) {
+            return size() > MAX_CACHED_IMAGES;
+        }
+    };
+    private static int renders;
+
+    private final String name;
+    private final Decoration decoration;
+
+    // The image last drawn, where it goes, and the panel size and screen it was drawn for
+    private BufferedImage image;
+    private Rectangle imageBounds;
+    private int imageWidth, imageHeight;
+    private GraphicsConfiguration imageConfig;
+    // Size of the last repaint that found no image, drawn directly
+    private int directWidth = -1, directHeight = -1;
+
+    /**
+     * @param name identifies the decoration in the shared cache; panels that draw differently
+     *             must use different names
+     */
+    DecoratedPanel(String name, Decoration decoration) {
+        this.name = name;
+        this.decoration = decoration;
+    }
+
+    DecoratedPanel(LayoutManager layout, String name, Decoration decoration) {
+        super(layout);
+        this.name = name;
+        this.decoration = decoration;
+    }
+
+    /**
+     * Number of decoration images rendered so far, for the repaint benchmark.
+     */
+    static int renders() {
+        return renders;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        if (!decoration.opaque()) super.paintComponent(g);
+        int width = getWidth(), height = getHeight();
+        if (width <= 0 || height <= 0) return;
+        Graphics2D g2 = (Graphics2D) g;
+        GraphicsConfiguration config = g2.getDeviceConfiguration();
+        if (image == null || width != imageWidth || height != imageHeight || config != imageConfig) {
+            if (!findImage(config, width, height)) {
+                paintDirectly(g2, width, height);
+                return;
+            }
+        }
+        g2.drawImage(image, imageBounds.x, imageBounds.y, imageBounds.width, imageBounds.height, null);
+    }
+
+    // Sets image for this size and screen from the cache, or renders it if this size was painted before
+    private boolean findImage(GraphicsConfiguration config, int width, int height) {
+        AffineTransform device = config.getDefaultTransform();
+        Key key = new Key(name, width, height, device.getScaleX(), device.getScaleY());
+        BufferedImage cached = CACHE.get(key);
+        Rectangle bounds = decoration.bounds(width, height);
+        if (cached == null) {
+            if (width != directWidth || height != directHeight || bounds.isEmpty()) return false;
+            cached = render(config, key, bounds);
+        }
+        image = cached;
+        imageBounds = bounds;
+        imageWidth = width;
+        imageHeight = height;
+        imageConfig = config;
+        directWidth = directHeight = -1;
+        return true;
+    }
+
+    private void paintDirectly(Graphics2D g, int width, int height) {
+        directWidth = width;
+        directHeight = height;
+        Graphics2D direct = (Graphics2D) g.create();
+        try {
+            decoration.paint(direct, width, height);
+        } finally {
+            direct.dispose();
+        }
+    }
+
+    private BufferedImage render(GraphicsConfiguration config, Key key, Rectangle bounds) {
+        int pixelWidth = (int) Math.ceil(bounds.width * key.scaleX);
+        int pixelHeight = (int) Math.ceil(bounds.height * key.scaleY);
+        BufferedImage rendered = config.createCompatibleImage(pixelWidth, pixelHeight,
+                decoration.opaque() ? Transparency.OPAQUE : Transparency.TRANSLUCENT);
+        Graphics2D g = rendered.createGraphics();
+        try {
+            g.scale(key.scaleX, key.scaleY);
+            g.translate(-bounds.x, -bounds.y);
+            decoration.paint(g, key.width, key.height);
+        } finally {
+            g.dispose();
+        }
+        renders++;
+        CACHE.put(key, rendered);
+        return rendered;
+    }
+
+    private static final class Key {
+        final String name;
+        final int width, height;
+        final double scaleX, scaleY;
+
+        Key(String name, int width, int height, double scaleX, double scaleY) {
+            this.name = name;
+            this.width = width;
+            this.height = height;
+            this.scaleX = scaleX;
+            this.scaleY = scaleY;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return width == k.width && height == k.height && scaleX == k.scaleX && scaleY == k.scaleY && name.equals(k.name);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(name, width, height, scaleX, scaleY);
+        }
+    }
+}
@@ -1,10 +1,22 @@
 import javax.swing.*;
 import java.awt.*;
+import java.lang.management.ManagementFactory;
 
 
 public class FarmerAdvisoryApp {
 
     public static void main(String[] args) {
+        // Headless batch scoring: FarmerAdvisoryApp --batch [options]
+        if (args.length > 0 && "--batch".equals(args[0])) {
+            BatchAdvisor.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+        // JSON recommendation service: FarmerAdvisoryApp --server [options]
+        if (args.length > 0 && "--server".equals(args[0])) {
+            AdvisoryHttpServer.main(java.util.Arrays.copyOfRange(args, 1, args.length));
+            return;
+        }
+
         try {
             for (UIManager.LookAndFeelInfo info : UIManager.getInstalledLookAndFeels()) {
                 if ("Nimbus".equals(info.getName())) {
@@ -28,16 +40,16 @@ public class FarmerAdvisoryApp {
             UIManager.put("Button[Default].background", new Color(44, 122, 81));
             UIManager.put("Button.arc", 10);
             
-            UIManager.put("Table.font", new Font("Segoe UI", Font.PLAIN, 13));
-            UIManager.put("TableHeader.font", new Font("Segoe UI", Font.BOLD, 13));
-            UIManager.put("Table.alternateRowColor", new Color(248, 249, 250));
-            UIManager.put("Table.gridColor", new Color(220, 223, 230));
+            UIManager.put("Table.font", UiStyles.BODY_FONT);
+            UIManager.put("TableHeader.font", UiStyles.TABLE_HEADER_FONT);
+            UIManager.put("Table.alternateRowColor", UiStyles.ROW_STRIPE);
+            UIManager.put("Table.gridColor", UiStyles.GRID);
             
-            UIManager.put("ComboBox.font", new Font("Segoe UI", Font.PLAIN, 13));
+            UIManager.put("ComboBox.font", UiStyles.BODY_FONT);
             
             // Label and TextField customizations
             UIManager.put("Label.font", new Font("Segoe UI", Font.PLAIN, 14));
-            UIManager.put("TextField.font", new Font("Segoe UI", Font.PLAIN, 13));
+            UIManager.put("TextField.font", UiStyles.BODY_FONT);
             
         } catch (Exception e) {
             e.printStackTrace();
@@ -48,6 +60,26 @@ public class FarmerAdvisoryApp {
         });
     }
 
+    static final DecoratedPanel.Decoration SPLASH_LOGO = new DecoratedPanel.Decoration() {
+        @Override
+        public void paint(Graphics2D g, int width, int height) {
+            g.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
+
+            g.setColor(new Color(44, 122, 81));
+            g.fillOval(60, 10, 80, 80);
+
+            g.setColor(Color.WHITE);
+            g.setFont(new Font("Segoe UI", Font.BOLD, 32));
+            g.drawString("FAS", 75, 60);
+        }
+
+        @Override
+        public Rectangle bounds(int width, int height) {
+            // The circle, which also contains the text, plus a pixel for antialiasing
+            return new Rectangle(59, 9, 82, 82).intersection(new Rectangle(0, 0, width, height));
+        }
+    };
+
     private static void showSplashScreen() {
         JWindow splash = new JWindow();
         splash.setSize(500, 350);
@@ -62,21 +94,7 @@ public class FarmerAdvisoryApp {
         centerPanel.setBackground(Color.WHITE);
         centerPanel.setBorder(BorderFactory.createEmptyBorder(50, 40, 30, 40));
         
-        JPanel logoPanel = new JPanel() {
-            @Override
-            protected void paintComponent(Graphics g) {
-                super.paintComponent(g);
-                Graphics2D g2 = (Graphics2D) g;
-                g2.setRenderingHint(RenderingHints.KEY_ANTIALIASING, RenderingHints.VALUE_ANTIALIAS_ON);
-                
-                g2.setColor(new Color(44, 122, 81));
-                g2.fillOval(60, 10, 80, 80);
-                
-                g2.setColor(Color.WHITE);
-                g2.setFont(new Font("Segoe UI", Font.BOLD, 32));
-                g2.drawString("FAS", 75, 60);
-            }
-        };
+        JPanel logoPanel = new DecoratedPanel("splash-logo", SPLASH_LOGO);
         logoPanel.setPreferredSize(new Dimension(200, 100));
         logoPanel.setMaximumSize(new Dimension(500, 100));
         logoPanel.setBackground(Color.WHITE);
@@ -105,8 +123,7 @@ public class FarmerAdvisoryApp {
         centerPanel.add(Box.createRigidArea(new Dimension(0, 30)));
         centerPanel.add(versionLabel);
         
-        JProgressBar progressBar = new JProgressBar();
-        progressBar.setIndeterminate(true);
+        JProgressBar progressBar = new JProgressBar(0, 100);
         progressBar.setForeground(new Color(44, 122, 81));
         progressBar.setBorder(BorderFactory.createEmptyBorder(10, 40, 10, 40));
         
@@ -126,12 +143,31 @@ public class FarmerAdvisoryApp {
         splash.setContentPane(content);
         splash.setVisible(true);
         
-        Timer timer = new Timer(2000, e -> {
-            splash.dispose();
-            AdvisorySystemGUI gui = new AdvisorySystemGUI();
-            gui.setVisible(true);
-        });
-        timer.setRepeats(false);
-        timer.start();
+        // Load in the background and open the main window as soon as loading is done
+        BackgroundTasks.shared().<StartupLoader.Result>newTask("startup",
+                task -> StartupLoader.load((done, total, phase) -> task.progress(done, total, "Loaded " + phase + "...")))
+                .onProgress((percent, message) -> {
+                    progressBar.setValue(percent);
+                    loadingLabel.setText(message);
+                })
+                .onDone(data -> {
+                    long windowStart = System.nanoTime();
+                    AdvisorySystemGUI gui = new AdvisorySystemGUI(data);
+                    gui.setVisible(true);
+                    splash.dispose();
+                    if (Boolean.getBoolean("fas.startup.timings")) {
+                        System.out.println(data.summary());
+                        System.out.println("Main window built in " + (System.nanoTime() - windowStart) / 1_000_000
+                                + " ms; visible " + ManagementFactory.getRuntimeMXBean().getUptime() + " ms after JVM start");
+                    }
+                })
+                .onFailure(e -> {
+                    e.printStackTrace();
+                    splash.dispose();
+                    JOptionPane.showMessageDialog(null, "Could not start: " + e.getMessage(),
+                            "Farmer Advisory", JOptionPane.ERROR_MESSAGE);
+                    System.exit(1);
+                })
+                .start();
     }
 }
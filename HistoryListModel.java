@@ -0,0 +1,138 @@
+import javax.swing.*;
+import java.util.*;
+
+/**
+ * List model over {@link AuditHistory} that reads entries a page at a time.
+ *
+ * It shows either a range of entry numbers or a list of matching entry numbers that can
+ * grow while a search is still running. Only recently viewed pages are kept in memory, so
+ * a list over millions of entries costs a few pages of strings.
+ *
+ * Pages are read as {@link BackgroundTasks} tasks, never on the EDT. Rows of a page that
+ * has not arrived yet show a placeholder and are repainted when it does. Only the most
+ * recently requested pages are read; older requests are cancelled, so dragging the scroll
+ * bar through a long list does not queue a read for every page it passes.
+ */
+@SuppressWarnings("serial")
+class HistoryListModel extends AbstractListModel<String> {
+
+    static final int PAGE_SIZE = 128;
+    private static final int CACHED_PAGES = 32;
+    private static final int LOADING_PAGES = 4;
+    static final String LOADING = "Loading...";
+
+    private final AuditHistory history;
+    private long rangeStart;
+    private long[] matches;
+    private int size;
+
+    private final LinkedHashMap<Integer, List<String>> pages = new LinkedHashMap<Integer, List<String>>(16, 0.75f, true) {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Integer, List<String>> eldest) {
+            return size() > CACHED_PAGES;
+        }
+    };
+
+    // Pages being read, oldest request first (EDT only)
+    private final LinkedHashMap<Integer, BackgroundTasks.Task<List<String>>> loading = new LinkedHashMap<>();
+
+    HistoryListModel(AuditHistory history) {
+        this.history = history;
+    }
+
+    /**
+     * Show entries {@code from} (inclusive) to {@code to} (exclusive).
+     */
+    void showRange(long from, long to) {
+        int old = size;
+        rangeStart = from;
+        matches = null;
+        size = (int) Math.min(Integer.MAX_VALUE, Math.max(0, to - from));
+        reset(old);
+    }
+
+    /**
+     * Show the entries whose numbers are the first {@code count} of {@code ids}, which are
+     * ascending. The array may be replaced by a longer one holding the same prefix.
+     */
+    void showMatches(long[] ids, int count) {
+        if (matches != null && count >= size && ids.length >= size) {
+            // Results of the same search grew: keep cached pages and just append
+            int old = size;
+            matches = ids;
+            size = count;
+            pages.remove(old / PAGE_SIZE);
+            cancel(loading.remove(old / PAGE_SIZE));
+            if (count > old) fireIntervalAdded(this, old, count - 1);
+            return;
+        }
+        int old = size;
+        matches = ids;
+        size = count;
+        reset(old);
+    }
+
+    void clear() {
+        showRange(0, 0);
+    }
+
+    @Override
+    public int getSize() {
+        return size;
+    }
+
+    @Override
+    public String getElementAt(int index) {
+        int page = index / PAGE_SIZE;
+        List<String> entries = pages.get(page);
+        if (entries == null) {
+            load(page);
+            return LOADING;
+        }
+        int offset = index - page * PAGE_SIZE;
+        return offset < entries.size() ? entries.get(offset) : "";
+    }
+
+    private void load(int page) {
+        if (loading.containsKey(page)) return;
+        int first = page * PAGE_SIZE;
+        int count = Math.min(PAGE_SIZE, size - first);
+        long start = rangeStart;
+        long[] ids = matches;
+        BackgroundTasks.Task<List<String>> task = BackgroundTasks.shared().newTask("history-page",
+                t -> ids == null ? history.read(start + first, count) : history.read(ids, first, count));
+        task.onDone(entries -> loaded(page, task, entries))
+                .onFailure(e -> {
+                    e.printStackTrace();
+                    loaded(page, task, Collections.nCopies(count, "(unreadable)"));
+                });
+        loading.put(page, task);
+        if (loading.size() > LOADING_PAGES) {
+            Iterator<BackgroundTasks.Task<List<String>>> oldest = loading.values().iterator();
+            cancel(oldest.next());
+            oldest.remove();
+        }
+        task.start();
+    }
+
+    private void loaded(int page, BackgroundTasks.Task<List<String>> task, List<String> entries) {
+        // Dropped if the list was reset or the request superseded since
+        if (!loading.remove(page, task)) return;
+        pages.put(page, entries);
+        int first = page * PAGE_SIZE;
+        int last = Math.min(size, first + entries.size()) - 1;
+        if (last >= first) fireContentsChanged(this, first, last);
+    }
+
+    private static void cancel(BackgroundTasks.Task<?> task) {
+        if (task != null) task.cancel();
+    }
+
+    private void reset(int oldSize) {
+        pages.clear();
+        for (BackgroundTasks.Task<List<String>> task : loading.values()) task.cancel();
+        loading.clear();
+        if (oldSize > 0) fireIntervalRemoved(this, 0, oldSize - 1);
+        if (size > 0) fireIntervalAdded(this, 0, size - 1);
+    }
+}
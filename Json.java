@@ -0,0 +1,172 @@
+import java.io.IOException;
+import java.io.Reader;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Minimal JSON string encoding for the headless output formats, and a streaming reader for
+ * flat JSON records.
+ */
+final class Json {
+
+    private Json() {
+    }
+
+    static String quote(String value) {
+        if (value == null) return "null";
+        StringBuilder sb = new StringBuilder(value.length() + 2);
+        sb.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"': sb.append("\\\""); break;
+                case '\\': sb.append("\\\\"); break;
+                case '\n': sb.append("\\n"); break;
+                case '\r': sb.append("\\r"); break;
+                case '\t': sb.append("\\t"); break;
+                default:
+                    if (c < 0x20) sb.append(String.format("\\u%04x", (int) c));
+                    else sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * Reads flat objects one at a time from a top-level array ({@code [{...}, {...}]}) or from
+     * a sequence of objects such as JSON Lines, without holding the whole document.
+     * Values are returned as strings ({@code null} for JSON null); nested arrays and objects
+     * are rejected.
+     */
+    static final class ObjectReader {
+        private final Reader in;
+        private int peeked = -2;
+        private long line = 1;
+        private boolean inArray;
+        private long objectLine;
+
+        ObjectReader(Reader in) {
+            this.in = in;
+        }
+
+        /**
+         * Line on which the most recently returned object started.
+         */
+        long line() {
+            return objectLine;
+        }
+
+        /**
+         * The next object, or null at the end of the input.
+         */
+        Map<String, String> next() throws IOException {
+            int c = skipWhitespace();
+            if (c == '[' && !inArray) {
+                read();
+                inArray = true;
+                c = skipWhitespace();
+            }
+            if (inArray && c == ',') {
+                read();
+                c = skipWhitespace();
+            }
+            if (c == ']' && inArray) {
+                read();
+                inArray = false;
+                c = skipWhitespace();
+            }
+            if (c < 0) return null;
+            objectLine = line;
+            expect('{');
+            Map<String, String> object = new LinkedHashMap<>();
+            if (skipWhitespace() == '}') {
+                read();
+                return object;
+            }
+            while (true) {
+                skipWhitespace();
+                String key = readString();
+                skipWhitespace();
+                expect(':');
+                object.put(key, readValue());
+                int next = skipWhitespace();
+                read();
+                if (next == '}') return object;
+                if (next != ',') throw error("expected ',' or '}'");
+            }
+        }
+
+        private String readValue() throws IOException {
+            int c = skipWhitespace();
+            if (c == '"') return readString();
+            if (c == '{' || c == '[') throw error("nested values are not supported");
+            StringBuilder literal = new StringBuilder();
+            while ((c = peek()) >= 0 && c != ',' && c != '}' && c != ']' && !Character.isWhitespace(c)) {
+                literal.append((char) read());
+            }
+            String value = literal.toString();
+            if (value.isEmpty()) throw error("expected a value");
+            return value.equals("null") ? null : value;
+        }
+
+        private String readString() throws IOException {
+            expect('"');
+            StringBuilder sb = new StringBuilder();
+            while (true) {
+                int c = read();
+                if (c < 0 || c == '\n') throw error("unterminated string");
+                if (c == '"') return sb.toString();
+                if (c != '\\') {
+                    sb.append((char) c);
+                    continue;
+                }
+                int e = read();
+                switch (e) {
+                    case '"': case '\\': case '/': sb.append((char) e); break;
+                    case 'b': sb.append('\b'); break;
+                    case 'f': sb.append('\f'); break;
+                    case 'n': sb.append('\n'); break;
+                    case 'r': sb.append('\r'); break;
+                    case 't': sb.append('\t'); break;
+                    case 'u':
+                        int code = 0;
+                        for (int i = 0; i < 4; i++) {
+                            int digit = Character.digit(read(), 16);
+                            if (digit < 0) throw error("bad \\u escape");
+                            code = code * 16 + digit;
+                        }
+                        sb.append((char) code);
+                        break;
+                    default:
+                        throw error("bad escape");
+                }
+            }
+        }
+
+        private int skipWhitespace() throws IOException {
+            int c;
+            while ((c = peek()) >= 0 && Character.isWhitespace(c)) read();
+            return c;
+        }
+
+        private void expect(char expected) throws IOException {
+            if (read() != expected) throw error("expected '" + expected + "'");
+        }
+
+        private int peek() throws IOException {
+            if (peeked == -2) peeked = in.read();
+            return peeked;
+        }
+
+        private int read() throws IOException {
+            int c = peek();
+            peeked = -2;
+            if (c == '\n') line++;
+            return c;
+        }
+
+        private IOException error(String message) {
+            return new IOException("Invalid JSON on line " + line + ": " + message);
+        }
+    }
+}
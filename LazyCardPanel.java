@@ -0,0 +1,55 @@
+import javax.swing.*;
+import java.awt.*;
+import java.lang.ref.SoftReference;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+/**
+ * Card container whose cards are built the first time they are shown.
+ *
+ * Cards are registered by name with a factory. Only the visible card is attached to the
+ * panel; cards that have been shown before are kept through soft references, so switching
+ * back to them is instant while memory is plentiful, and the JVM may reclaim them when it
+ * runs short. A reclaimed card is rebuilt from its factory on its next visit, losing only
+ * transient state such as an unfinished search.
+ */
+@SuppressWarnings("serial")
+class LazyCardPanel extends JPanel {
+
+    private final Map<String, Supplier<? extends JComponent>> factories = new LinkedHashMap<>();
+    private final Map<String, SoftReference<JComponent>> built = new HashMap<>();
+    private JComponent visible;
+    private String visibleName;
+
+    LazyCardPanel() {
+        super(new BorderLayout());
+    }
+
+    void register(String name, Supplier<? extends JComponent> factory) {
+        factories.put(name, factory);
+    }
+
+    /**
+     * Show the card called {@code name}, building it if it has not been built or was reclaimed.
+     */
+    void show(String name) {
+        if (name.equals(visibleName)) return;
+        Supplier<? extends JComponent> factory = factories.get(name);
+        if (factory == null) throw new IllegalArgumentException("No card named " + name);
+
+        SoftReference<JComponent> ref = built.get(name);
+        JComponent card = ref != null ? ref.get() : null;
+        if (card == null) {
+            card = factory.get();
+            built.put(name, new SoftReference<>(card));
+        }
+        if (visible != null) remove(visible);
+        add(card, BorderLayout.CENTER);
+        visible = card;
+        visibleName = name;
+        revalidate();
+        repaint();
+    }
+}
@@ -0,0 +1,95 @@
+import javax.swing.table.AbstractTableModel;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Read-only table model that shows a list directly instead of copying rows.
+ *
+ * Cell values are computed on demand from the row object by the column functions, so a
+ * table only pays for the rows it actually paints. An optional index array selects and
+ * orders a subset of the backing list (a filtered view) without copying it. Every
+ * {@code setRows} call fires a single table-changed event.
+ */
+@SuppressWarnings("serial")
+class LazyTableModel<T> extends AbstractTableModel {
+
+    interface Column<T> {
+        Object value(T row);
+    }
+
+    private final String[] columnNames;
+    private final List<Column<T>> columns;
+    private List<T> rows = Collections.emptyList();
+    private int[] index;
+    private int rowCount;
+
+    @SafeVarargs
+    LazyTableModel(String[] columnNames, Column<T>... columns) {
+        // Copied element by element, so the varargs array is never kept
+        List<Column<T>> list = new ArrayList<>(columns.length);
+        for (Column<T> column : columns) list.add(column);
+        this.columnNames = columnNames;
+        this.columns = checked(columnNames, Collections.unmodifiableList(list));
+    }
+
+    LazyTableModel(String[] columnNames, List<Column<T>> columns) {
+        this.columnNames = columnNames;
+        this.columns = checked(columnNames, List.copyOf(columns));
+    }
+
+    private static <C> List<C> checked(String[] columnNames, List<C> columns) {
+        if (columnNames.length != columns.size()) {
+            throw new IllegalArgumentException("Expected " + columnNames.length + " columns, got " + columns.size());
+        }
+        return columns;
+    }
+
+    /**
+     * Show every element of {@code rows}. The list is not copied and must not change afterwards.
+     */
+    void setRows(List<T> rows) {
+        this.rows = rows;
+        this.index = null;
+        this.rowCount = rows.size();
+        fireTableDataChanged();
+    }
+
+    /**
+     * Show the first {@code count} elements of {@code rows} selected by {@code index}.
+     */
+    void setRows(List<T> rows, int[] index, int count) {
+        this.rows = rows;
+        this.index = index;
+        this.rowCount = count;
+        fireTableDataChanged();
+    }
+
+    void clear() {
+        setRows(Collections.emptyList());
+    }
+
+    T getRow(int row) {
+        return rows.get(index == null ? row : index[row]);
+    }
+
+    @Override
+    public int getRowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public int getColumnCount() {
+        return columns.size();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return columnNames[column];
+    }
+
+    @Override
+    public Object getValueAt(int row, int column) {
+        return columns.get(column).value(getRow(row));
+    }
+}
@@ -0,0 +1,245 @@
+import java.io.*;
+import java.net.InetSocketAddress;
+import java.net.Socket;
+import java.net.URI;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Drives {@link AdvisoryHttpServer} at a fixed request rate and reports latency percentiles.
+ *
+ * Requests follow a fixed schedule (open loop): request {@code i} is due at {@code i / rate}
+ * seconds, and its latency is measured from when it was due, not from when a connection got
+ * round to sending it, so a server that falls behind shows its queueing in the numbers.
+ * Requests go over persistent HTTP/1.1 connections, each owned by one sender thread. The
+ * mix is mostly recommendations for a small set of hot plots, plus searches, soil
+ * suggestions and reports.
+ *
+ * Without --url an in-process server over the default catalog is started on a free port.
+ *
+ * Run with: java LoadGenerator [--url http://localhost:8080] [--rate 10000] [--seconds 10]
+ *           [--warmup 3] [--connections 16]
+ */
+public class LoadGenerator {
+
+    private static final String[] SEARCH_TERMS = {"wh", "rice", "kharif", "mianwali", "cot", "sorgum", "pot"};
+    private static final String[] QUERY_SEASONS = {"Rabi", "Kharif", "Both", "Perennial"};
+
+    private final String host;
+    private final int port;
+    private final String[] paths;
+    private final int rate;
+    private final AtomicLong next = new AtomicLong();
+    private final AtomicLong errors = new AtomicLong();
+
+    private long startNanos;
+    private long total;
+    private long[] latencies;
+
+    LoadGenerator(String host, int port, String[] paths, int rate) {
+        this.host = host;
+        this.port = port;
+        this.paths = paths;
+        this.rate = rate;
+    }
+
+    public static void main(String[] args) throws Exception {
+        String url = null;
+        int rate = 10_000, seconds = 10, warmup = 3, connections = 16;
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            switch (args[i]) {
+                case "--url": url = args[i + 1]; break;
+                case "--rate": rate = Integer.parseInt(args[i + 1]); break;
+                case "--seconds": seconds = Integer.parseInt(args[i + 1]); break;
+                case "--warmup": warmup = Integer.parseInt(args[i + 1]); break;
+                case "--connections": connections = Integer.parseInt(args[i + 1]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        AdvisoryHttpServer local = null;
+        String host = "localhost";
+        int port;
+        if (url == null) {
+            local = new AdvisoryHttpServer(CropCatalog.withDefaults(), 0, AdvisoryHttpServer.DEFAULT_CACHE_ENTRIES);
+            local.start();
+            port = local.port();
+            System.out.printf("in-process server on port %d%n", port);
+        } else {
+            URI uri = URI.create(url);
+            host = uri.getHost();
+            port = uri.getPort() > 0 ? uri.getPort() : 80;
+        }
+
+        try {
+            String[] paths = requestMix(new Random(42), 10_000);
+            if (warmup > 0) new LoadGenerator(host, port, paths, rate).run(warmup, connections);
+            LoadGenerator run = new LoadGenerator(host, port, paths, rate);
+            double elapsed = run.run(seconds, connections);
+            run.report(elapsed);
+            if (local != null) {
+                System.out.printf("server: %,d requests, response cache %s%n", local.requests(), local.cache());
+            }
+        } finally {
+            if (local != null) local.stop();
+        }
+    }
+
+    // Request paths in a fixed mix: 75% recommendations, 12% search, 8% soil, 5% reports
+    private static String[] requestMix(Random random, int count) {
+        String[] paths = new String[count];
+        for (int i = 0; i < count; i++) {
+            int kind = random.nextInt(100);
+            if (kind < 75) {
+                paths[i] = "/api/recommendations?soil=" + encode(pick(random, AdvisorySystemGUI.SOIL_TYPES))
+                        + "&season=" + encode(pick(random, QUERY_SEASONS))
+                        + "&region=" + encode(pick(random, RecommendationBenchmark.REGIONS)) + "&limit=5";
+            } else if (kind < 87) {
+                paths[i] = "/api/search?q=" + encode(pick(random, SEARCH_TERMS)) + "&limit=10";
+            } else if (kind < 95) {
+                paths[i] = "/api/soil?soil=" + encode(pick(random, AdvisorySystemGUI.SOIL_TYPES));
+            } else {
+                paths[i] = "/api/reports";
+            }
+        }
+        return paths;
+    }
+
+    private static String pick(Random random, String[] values) {
+        return values[random.nextInt(values.length)];
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+
+    // Sends rate * seconds requests on schedule and returns the elapsed seconds
+    private double run(int seconds, int connections) throws InterruptedException {
+        total = (long) rate * seconds;
+        latencies = new long[(int) total];
+        CountDownLatch done = new CountDownLatch(connections);
+        startNanos = System.nanoTime();
+        for (int c = 0; c < connections; c++) {
+            Thread sender = new Thread(() -> {
+                try {
+                    send();
+                } finally {
+                    done.countDown();
+                }
+            }, "load-" + c);
+            sender.setDaemon(true);
+            sender.start();
+        }
+        done.await();
+        return (System.nanoTime() - startNanos) / 1e9;
+    }
+
+    // Takes the next due request, waits until it is due and sends it; reconnects after errors
+    private void send() {
+        byte[] buffer = new byte[1 << 16];
+        Connection connection = null;
+        long i;
+        while ((i = next.getAndIncrement()) < total) {
+            long due = startNanos + i * 1_000_000_000L / rate;
+            long wait = due - System.nanoTime();
+            if (wait > 0) LockSupport.parkNanos(wait);
+            try {
+                if (connection == null) connection = new Connection(host, port);
+                int status = connection.get(paths[(int) (i % paths.length)], buffer);
+                if (status != 200) errors.incrementAndGet();
+            } catch (IOException e) {
+                errors.incrementAndGet();
+                if (connection != null) connection.close();
+                connection = null;
+            }
+            latencies[(int) i] = System.nanoTime() - due;
+        }
+        if (connection != null) connection.close();
+    }
+
+    private void report(double elapsed) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        System.out.printf("requests: %,d in %.2f s (%,.0f req/s, target %,d), errors: %,d%n",
+                total, elapsed, total / elapsed, rate, errors.get());
+        System.out.printf("%-8s %10s%n", "latency", "ms");
+        System.out.printf("%-8s %10.3f%n", "p50", percentile(sorted, 0.50));
+        System.out.printf("%-8s %10.3f%n", "p90", percentile(sorted, 0.90));
+        System.out.printf("%-8s %10.3f%n", "p99", percentile(sorted, 0.99));
+        System.out.printf("%-8s %10.3f%n", "p99.9", percentile(sorted, 0.999));
+        System.out.printf("%-8s %10.3f%n", "max", sorted[sorted.length - 1] / 1e6);
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        return sorted[Math.min(sorted.length - 1, (int) (sorted.length * p))] / 1e6;
+    }
+
+    // One keep-alive HTTP/1.1 connection; reads responses by Content-Length
+    private static final class Connection {
+        private final Socket socket;
+        private final OutputStream out;
+        private final InputStream in;
+        private final String hostHeader;
+
+        Connection(String host, int port) throws IOException {
+            socket = new Socket();
+            socket.setTcpNoDelay(true);
+            socket.connect(new InetSocketAddress(host, port));
+            out = new BufferedOutputStream(socket.getOutputStream());
+            in = new BufferedInputStream(socket.getInputStream(), 1 << 16);
+            hostHeader = host + ":" + port;
+        }
+
+        int get(String path, byte[] buffer) throws IOException {
+            out.write(("GET " + path + " HTTP/1.1\r\nHost: " + hostHeader + "\r\n\r\n").getBytes(StandardCharsets.US_ASCII));
+            out.flush();
+
+            String status = readLine();
+            if (status == null || !status.startsWith("HTTP/1.1 ")) throw new IOException("Bad status line: " + status);
+            long length = -1;
+            boolean close = false;
+            String line;
+            while ((line = readLine()) != null && !line.isEmpty()) {
+                int colon = line.indexOf(':');
+                if (colon < 0) continue;
+                String name = line.substring(0, colon).trim();
+                String value = line.substring(colon + 1).trim();
+                if (name.equalsIgnoreCase("Content-Length")) length = Long.parseLong(value);
+                else if (name.equalsIgnoreCase("Connection") && value.equalsIgnoreCase("close")) close = true;
+            }
+            if (length < 0) throw new IOException("Response without Content-Length");
+            while (length > 0) {
+                int n = in.read(buffer, 0, (int) Math.min(buffer.length, length));
+                if (n < 0) throw new EOFException("Connection closed mid-response");
+                length -= n;
+            }
+            if (close) throw new IOException("Server closed the connection");
+            return Integer.parseInt(status.substring(9, 12));
+        }
+
+        private String readLine() throws IOException {
+            StringBuilder sb = new StringBuilder(64);
+            int c;
+            while ((c = in.read()) >= 0) {
+                if (c == '\n') {
+                    int end = sb.length();
+                    if (end > 0 && sb.charAt(end - 1) == '\r') sb.setLength(end - 1);
+                    return sb.toString();
+                }
+                sb.append((char) c);
+            }
+            return sb.length() == 0 ? null : sb.toString();
+        }
+
+        void close() {
+            try {
+                socket.close();
+            } catch (IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,81 @@
+import java.util.*;
+
+/**
+ * Times logins against catalogs with growing numbers of users: the username lookup alone
+ * (against the linear scan the login screen used to do), a full login including the password
+ * hash, a login with an unknown username, and an attempt refused because the username is
+ * locked.
+ *
+ * Every user shares one precomputed hash, since hashing a million passwords would take hours;
+ * it does not change what is measured.
+ *
+ * Run with: java -Xmx2g LoginBenchmark [sizes...]   (default: 1000 100000 1000000)
+ */
+public class LoginBenchmark {
+
+    private static final char[] PASSWORD = "harvest-2024".toCharArray();
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{1_000, 100_000, 1_000_000};
+
+        System.out.printf("iterations: %d%n", PasswordHash.ITERATIONS);
+        String hash = PasswordHash.hash(PASSWORD);
+        System.out.printf("%-10s %-22s %14s %14s%n", "users", "method", "p50 ms", "p99 ms");
+        for (int size : sizes) {
+            CropCatalog catalog = new CropCatalog();
+            catalog.write(b -> {
+                for (int i = 0; i < size; i++) b.addUser(new AdvisorySystemGUI.User("user" + i, hash, i % 10 == 0 ? "ADMIN" : "FARMER"));
+                return null;
+            });
+            List<AdvisorySystemGUI.User> users = catalog.users();
+            Random random = new Random(42);
+            long start = System.nanoTime();
+            catalog.current().usersByName();
+            System.out.printf("%-10d %-22s %14.3f%n", size, "build-index", (System.nanoTime() - start) / 1e6);
+
+            report(size, "scan-lookup", time(Math.max(5, 2_000_000 / size), () -> {
+                String name = "user" + random.nextInt(size);
+                return users.stream().filter(u -> u.username.equals(name)).findFirst().orElse(null) != null;
+            }));
+            report(size, "index-lookup", time(100_000, () ->
+                    catalog.current().usersByName().get("user" + random.nextInt(size)) != null));
+
+            UserStore store = new UserStore(catalog);
+            report(size, "login", time(20, () -> {
+                int i = random.nextInt(size);
+                return store.authenticate("user" + i, PASSWORD, i % 10 == 0 ? "ADMIN" : "FARMER").succeeded();
+            }));
+            // Unknown usernames are checked against the dummy hash and must never get in
+            int[] unknown = {0};
+            report(size, "unknown-login", time(20, () ->
+                    !store.authenticate("nobody" + unknown[0]++, "not a password".toCharArray(), "FARMER").succeeded()));
+            String target = "user" + (size - 1);
+            for (int i = 0; i < UserStore.FREE_ATTEMPTS; i++) store.authenticate(target, "wrong".toCharArray(), "FARMER");
+            report(size, "locked-login", time(1000, () -> store.authenticate(target, PASSWORD, "FARMER").locked()));
+        }
+    }
+
+    interface Op {
+        // False means the operation did not behave as benchmarked
+        boolean run();
+    }
+
+    private static double[] time(int iterations, Op op) {
+        // Warm up
+        for (int i = 0; i < Math.min(iterations, 10); i++) op.run();
+        long[] nanos = new long[iterations];
+        for (int i = 0; i < iterations; i++) {
+            long start = System.nanoTime();
+            if (!op.run()) throw new IllegalStateException("Unexpected login result");
+            nanos[i] = System.nanoTime() - start;
+        }
+        Arrays.sort(nanos);
+        return new double[]{nanos[iterations / 2] / 1e6, nanos[(int) (iterations * 0.99)] / 1e6};
+    }
+
+    private static void report(int size, String method, double[] millis) {
+        System.out.printf("%-10d %-22s %14.4f %14.4f%n", size, method, millis[0], millis[1]);
+    }
+}
@@ -0,0 +1,154 @@
+import javax.swing.*;
+import java.awt.event.HierarchyEvent;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Tells the UI when the catalog or the audit log has changed.
+ *
+ * The catalog and the log report every change from whatever thread made it; this only marks
+ * the model dirty. The first change after a delivery starts a one-frame timer on the EDT, and
+ * when it fires every subscriber receives one {@link Change} covering everything that happened
+ * meanwhile, so a bulk import or a burst of log entries costs at most one UI refresh per
+ * frame. Subscriptions are tied to a component: they receive changes while the component is
+ * displayable and catch up on what they missed when it is shown again.
+ */
+final class ModelEvents {
+
+    static final int FRAME_MILLIS = 16;
+
+    enum Counter {
+        CROPS, REGIONS, USERS, LOG_ENTRIES
+    }
+
+    /**
+     * Counts taken at one moment.
+     */
+    static final class Snapshot {
+        final long catalogVersion;
+        private final long[] counts;
+
+        private Snapshot(CropCatalog.Version version, long logEntries) {
+            this.catalogVersion = version.number;
+            this.counts = new long[]{version.crops.size(), version.regions.size(), version.users.size(), logEntries};
+        }
+
+        long get(Counter counter) {
+            return counts[counter.ordinal()];
+        }
+    }
+
+    /**
+     * What changed between two deliveries to a subscriber.
+     */
+    static final class Change {
+        final Snapshot previous;
+        final Snapshot current;
+
+        private Change(Snapshot previous, Snapshot current) {
+            this.previous = previous;
+            this.current = current;
+        }
+
+        long delta(Counter counter) {
+            return current.get(counter) - previous.get(counter);
+        }
+
+        /**
+         * Whether the catalog contents changed, including edits that kept every count the same.
+         */
+        boolean catalogChanged() {
+            return current.catalogVersion != previous.catalogVersion;
+        }
+    }
+
+    interface Listener {
+        void modelChanged(Change change);
+    }
+
+    private final class Subscription {
+        final Listener listener;
+        Snapshot seen;
+
+        Subscription(Listener listener) {
+            this.listener = listener;
+            this.seen = last;
+        }
+
+        void deliver(Snapshot now) {
+            if (now == seen) return;
+            Change change = new Change(seen, now);
+            seen = now;
+            listener.modelChanged(change);
+        }
+    }
+
+    private final CropCatalog catalog;
+    private final AuditLog auditLog;
+    private final AtomicBoolean dirty = new AtomicBoolean();
+    private final Timer frame;
+
+    // EDT only
+    private final List<Subscription> active = new ArrayList<>();
+    private Snapshot last;
+
+    ModelEvents(CropCatalog catalog, AuditLog auditLog) {
+        this.catalog = catalog;
+        this.auditLog = auditLog;
+        this.last = snapshot();
+        this.frame = new Timer(FRAME_MILLIS, e -> deliver());
+        frame.setRepeats(false);
+        catalog.addChangeListener(version -> changed());
+        auditLog.onLogged(this::changed);
+    }
+
+    /**
+     * Mark the model changed. Cheap and safe to call from any thread.
+     */
+    void changed() {
+        if (dirty.compareAndSet(false, true)) SwingUtilities.invokeLater(frame::start);
+    }
+
+    /**
+     * The counts as of the latest delivery. EDT only.
+     */
+    Snapshot current() {
+        return last;
+    }
+
+    /**
+     * Deliver changes to {@code listener} while {@code owner} is displayable, starting from
+     * {@link #current()}. EDT only.
+     */
+    void subscribe(JComponent owner, Listener listener) {
+        Subscription subscription = new Subscription(listener);
+        if (owner.isDisplayable()) active.add(subscription);
+        owner.addHierarchyListener(e -> {
+            if ((e.getChangeFlags() & HierarchyEvent.DISPLAYABILITY_CHANGED) == 0) return;
+            if (owner.isDisplayable()) {
+                if (!active.contains(subscription)) active.add(subscription);
+                subscription.deliver(last);
+            } else {
+                active.remove(subscription);
+            }
+        });
+    }
+
+    private Snapshot snapshot() {
+        return new Snapshot(catalog.current(), auditLog.loggedCount());
+    }
+
+    // On the EDT, once per frame at most
+    private void deliver() {
+        dirty.set(false);
+        last = snapshot();
+        for (Subscription subscription : new ArrayList<>(active)) {
+            try {
+                subscription.deliver(last);
+            } catch (RuntimeException e) {
+                e.printStackTrace();
+            }
+        }
+    }
+}
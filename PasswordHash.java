@@ -0,0 +1,73 @@
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+
+/**
+ * Salted PBKDF2 password hashes.
+ *
+ * A hash is stored as {@code pbkdf2-sha256:<iterations>:<salt>:<hash>} with Base64 salt and
+ * hash, so each one carries its own cost: raising {@code -Dfas.password.iterations} makes new
+ * hashes slower to compute without invalidating the ones already stored.
+ */
+final class PasswordHash {
+
+    static final int DEFAULT_ITERATIONS = 120_000;
+    static final int ITERATIONS = Integer.getInteger("fas.password.iterations", DEFAULT_ITERATIONS);
+
+    private static final String PREFIX = "pbkdf2-sha256:";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private PasswordHash() {
+    }
+
+    static String hash(char[] password) {
+        return hash(password, ITERATIONS);
+    }
+
+    static String hash(char[] password, int iterations) {
+        byte[] salt = new byte[SALT_BYTES];
+        RANDOM.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder();
+        return PREFIX + iterations + ":" + base64.encodeToString(salt) + ":"
+                + base64.encodeToString(derive(password, salt, iterations));
+    }
+
+    /**
+     * Whether {@code password} matches {@code stored}. The comparison takes the same time
+     * wherever the hashes differ.
+     */
+    static boolean verify(char[] password, String stored) {
+        if (!isHash(stored)) return false;
+        String[] parts = stored.split(":");
+        if (parts.length != 4) return false;
+        try {
+            int iterations = Integer.parseInt(parts[1]);
+            Base64.Decoder base64 = Base64.getDecoder();
+            byte[] expected = base64.decode(parts[3]);
+            return MessageDigest.isEqual(expected, derive(password, base64.decode(parts[2]), iterations));
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+    }
+
+    static boolean isHash(String value) {
+        return value != null && value.startsWith(PREFIX);
+    }
+
+    private static byte[] derive(char[] password, byte[] salt, int iterations) {
+        PBEKeySpec spec = new PBEKeySpec(password, salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e);
+        } finally {
+            spec.clearPassword();
+        }
+    }
+}
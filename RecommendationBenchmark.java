@@ -0,0 +1,118 @@
+import java.util.*;
+
+/**
+ * Compares {@link ScoringModel} recommendations for single plots with its linear-scan
+ * reference, which scores every crop and sorts the full list, and the indexed
+ * {@link RecommendationEngine} with the original soil/season/region linear scan.
+ *
+ * Run with: java RecommendationBenchmark [sizes...]   (default: 20 10000 1000000)
+ */
+public class RecommendationBenchmark {
+
+    static final String[] SEASONS = {"Rabi (Winter)", "Kharif (Summer)", "Both Seasons", "Perennial"};
+    static final String[] SOILS = {"Loamy", "Clay", "Sandy", "Sandy Loam", "Clay Loam"};
+    static final String[] REGIONS = {"Mianwali City", "Piplan", "Isa Khel", "Wan Bhachran", "Kalabagh"};
+    static final String[] WATER = {"Low", "Medium", "High"};
+
+    static final String[] QUERY_SOILS = {"Loamy", "Clay", "Sandy", "Sandy Loam"};
+    static final String[] QUERY_SEASONS = {"Rabi", "Kharif", "Both", "Perennial"};
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{20, 10_000, 1_000_000};
+
+        Collection<AdvisorySystemGUI.Region> regions = CropCatalog.withDefaults().regions().values();
+        System.out.printf("%-10s %-16s %14s%n", "crops", "method", "us/query");
+        for (int size : sizes) {
+            List<AdvisorySystemGUI.Crop> crops = syntheticCrops(size, 42);
+            ScoringModel model = new ScoringModel(new CropStore(crops), regions);
+            verify(crops, regions, model);
+
+            int iterations = Math.max(20, 2_000_000 / size);
+            report(size, "linear-scan", time(iterations, q -> ScoringModel.linearScan(crops, regions, q[0], q[1], q[2]).size()));
+            report(size, "model-all", time(iterations, q -> model.recommend(q[0], q[1], q[2]).size()));
+            report(size, "model-top10", time(iterations, q -> model.recommend(q[0], q[1], q[2], 10).size()));
+
+            RecommendationEngine engine = new RecommendationEngine(crops);
+            verify(crops, engine);
+            report(size, "rules-scan", time(iterations, q -> RecommendationEngine.linearScan(crops, q[0], q[1], q[2]).size()));
+            report(size, "engine-all", time(iterations, q -> engine.recommend(q[0], q[1], q[2]).size()));
+            report(size, "engine-top10", time(iterations, q -> engine.recommend(q[0], q[1], q[2], 10).size()));
+        }
+    }
+
+    static List<AdvisorySystemGUI.Crop> syntheticCrops(int size, long seed) {
+        Random random = new Random(seed);
+        List<AdvisorySystemGUI.Crop> crops = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            crops.add(new AdvisorySystemGUI.Crop("Crop " + i,
+                    SEASONS[random.nextInt(SEASONS.length)],
+                    SOILS[random.nextInt(SOILS.length)],
+                    REGIONS[random.nextInt(REGIONS.length)],
+                    WATER[random.nextInt(WATER.length)],
+                    Math.round(random.nextDouble() * 500) / 10.0));
+        }
+        return crops;
+    }
+
+    private static String[][] queries() {
+        List<String[]> queries = new ArrayList<>();
+        for (String soil : QUERY_SOILS)
+            for (String season : QUERY_SEASONS)
+                for (String region : REGIONS)
+                    queries.add(new String[]{soil, season, region});
+        return queries.toArray(new String[0][]);
+    }
+
+    private static void verify(List<AdvisorySystemGUI.Crop> crops, Collection<AdvisorySystemGUI.Region> regions,
+                               ScoringModel model) {
+        for (String[] q : queries()) {
+            List<AdvisorySystemGUI.Recommendation> expected = ScoringModel.linearScan(crops, regions, q[0], q[1], q[2]);
+            List<AdvisorySystemGUI.Recommendation> actual = model.recommend(q[0], q[1], q[2]);
+            if (expected.size() != actual.size()) {
+                throw new IllegalStateException("Size mismatch for " + Arrays.toString(q));
+            }
+            for (int i = 0; i < expected.size(); i++) {
+                if (expected.get(i).crop != actual.get(i).crop || expected.get(i).score != actual.get(i).score) {
+                    throw new IllegalStateException("Result mismatch at " + i + " for " + Arrays.toString(q));
+                }
+            }
+        }
+    }
+
+    private static void verify(List<AdvisorySystemGUI.Crop> crops, RecommendationEngine engine) {
+        for (String[] q : queries()) {
+            List<AdvisorySystemGUI.Recommendation> expected = RecommendationEngine.linearScan(crops, q[0], q[1], q[2]);
+            List<AdvisorySystemGUI.Recommendation> actual = engine.recommend(q[0], q[1], q[2]);
+            if (expected.size() != actual.size()) {
+                throw new IllegalStateException("Size mismatch for " + Arrays.toString(q));
+            }
+            for (int i = 0; i < expected.size(); i++) {
+                if (expected.get(i).crop != actual.get(i).crop || expected.get(i).score != actual.get(i).score) {
+                    throw new IllegalStateException("Result mismatch at " + i + " for " + Arrays.toString(q));
+                }
+            }
+        }
+    }
+
+    interface Query {
+        int run(String[] q);
+    }
+
+    private static double time(int iterations, Query query) {
+        String[][] queries = queries();
+        long sink = 0;
+        // Warm up
+        for (int i = 0; i < iterations; i++) sink += query.run(queries[i % queries.length]);
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) sink += query.run(queries[i % queries.length]);
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) System.out.print("");
+        return elapsed / 1000.0 / iterations;
+    }
+
+    private static void report(int size, String method, double micros) {
+        System.out.printf("%-10d %-16s %14.2f%n", size, method, micros);
+    }
+}
@@ -0,0 +1,110 @@
+import java.util.*;
+
+/**
+ * Bounded LRU cache of recommendation results keyed by (soil, season, region, limit).
+ *
+ * Cached lists are unmodifiable and shared between callers. Every catalog change must call
+ * {@link #invalidate()}; a result computed before an invalidation is never stored after it.
+ */
+class RecommendationCache {
+
+    private final int capacity;
+    private final LinkedHashMap<Key, List<AdvisorySystemGUI.Recommendation>> entries;
+    private long generation;
+    private long hits;
+    private long misses;
+
+    RecommendationCache(int capacity) {
+        this.capacity = capacity;
+        this.entries = new LinkedHashMap<Key, List<AdvisorySystemGUI.Recommendation>>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, List<AdvisorySystemGUI.Recommendation>> eldest) {
+                return size() > RecommendationCache.this.capacity;
+            }
+        };
+    }
+
+    interface Loader {
+        List<AdvisorySystemGUI.Recommendation> load();
+    }
+
+    List<AdvisorySystemGUI.Recommendation> get(String soilType, String season, String region, int limit, Loader loader) {
+        Key key = new Key(soilType, season, region, limit);
+        long loadGeneration;
+        synchronized (this) {
+            List<AdvisorySystemGUI.Recommendation> cached = entries.get(key);
+            if (cached != null) {
+                hits++;
+                return cached;
+            }
+            misses++;
+            loadGeneration = generation;
+        }
+
+        // Compute outside the lock so concurrent misses on other keys are not serialized
+        List<AdvisorySystemGUI.Recommendation> recs = Collections.unmodifiableList(loader.load());
+        synchronized (this) {
+            if (loadGeneration == generation) {
+                entries.put(key, recs);
+            }
+        }
+        return recs;
+    }
+
+    /**
+     * The cached result, if any, without counting a hit or miss.
+     */
+    synchronized List<AdvisorySystemGUI.Recommendation> peek(String soilType, String season, String region, int limit) {
+        return entries.get(new Key(soilType, season, region, limit));
+    }
+
+    synchronized void invalidate() {
+        generation++;
+        entries.clear();
+    }
+
+    synchronized long hits() {
+        return hits;
+    }
+
+    synchronized long misses() {
+        return misses;
+    }
+
+    synchronized int size() {
+        return entries.size();
+    }
+
+    @Override
+    public synchronized String toString() {
+        long total = hits + misses;
+        return String.format("%d entries, %d hits, %d misses (%.1f%% hit rate)",
+                entries.size(), hits, misses, total == 0 ? 0.0 : 100.0 * hits / total);
+    }
+
+    private static final class Key {
+        final String soilType, season, region;
+        final int limit;
+        final int hash;
+
+        Key(String soilType, String season, String region, int limit) {
+            this.soilType = soilType;
+            this.season = season;
+            this.region = region;
+            this.limit = limit;
+            this.hash = Objects.hash(soilType, season, region, limit);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof Key)) return false;
+            Key k = (Key) o;
+            return limit == k.limit && soilType.equals(k.soilType) && season.equals(k.season) && region.equals(k.region);
+        }
+
+        @Override
+        public int hashCode() {
+            return hash;
+        }
+    }
+}
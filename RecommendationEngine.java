@@ -0,0 +1,216 @@
+import java.util.*;
+
+/**
+ * Indexed recommendation engine over a snapshot of the crop catalog.
+ *
+ * Built from the dictionary-encoded columns of a {@link CropStore}: crops sharing the
+ * same (soil, season, region) codes are grouped into one posting list. A query scores
+ * each distinct value once, so its cost depends on the number of groups rather than the
+ * number of crops. Scores and ordering are identical to {@link #linearScan}.
+ *
+ * These are the soil, season and region rules on their own; recommendations shown to users
+ * come from {@link ScoringModel}, which weighs the same matches together with rainfall,
+ * climate and common crops.
+ */
+class RecommendationEngine {
+
+    static final int SOIL_EXACT_SCORE = 40;
+    static final int SOIL_PARTIAL_SCORE = 20;
+    static final int SEASON_SCORE = 35;
+    static final int REGION_SCORE = 25;
+
+    private final List<AdvisorySystemGUI.Crop> crops;
+
+    // Distinct field values, indexed by code
+    private final String[] soilValues;
+    private final String[] seasonValues;
+    private final String[] regionValues;
+
+    // One entry per (soil, season, region) group; crop indexes are in catalog order
+    private final int[] groupSoil;
+    private final int[] groupSeason;
+    private final int[] groupRegion;
+    private final int[][] groupCrops;
+
+    RecommendationEngine(List<AdvisorySystemGUI.Crop> crops) {
+        this(new CropStore(new ArrayList<>(crops)));
+    }
+
+    RecommendationEngine(CropStore store) {
+        this.crops = store.crops();
+
+        Map<Long, Integer> groupIndex = new HashMap<>();
+        List<int[]> groupKeys = new ArrayList<>();
+        List<IntList> postings = new ArrayList<>();
+
+        for (int i = 0; i < store.size(); i++) {
+            int soil = store.soil[i];
+            int season = store.season[i];
+            int region = store.region[i];
+
+            long key = ((long) soil << 42) | ((long) season << 21) | region;
+            Integer group = groupIndex.get(key);
+            if (group == null) {
+                group = groupKeys.size();
+                groupIndex.put(key, group);
+                groupKeys.add(new int[]{soil, season, region});
+                postings.add(new IntList());
+            }
+            postings.get(group).add(i);
+        }
+
+        soilValues = store.soilValues;
+        seasonValues = store.seasonValues;
+        regionValues = store.regionValues;
+
+        int groups = groupKeys.size();
+        groupSoil = new int[groups];
+        groupSeason = new int[groups];
+        groupRegion = new int[groups];
+        groupCrops = new int[groups][];
+        for (int g = 0; g < groups; g++) {
+            int[] k = groupKeys.get(g);
+            groupSoil[g] = k[0];
+            groupSeason[g] = k[1];
+            groupRegion[g] = k[2];
+            groupCrops[g] = postings.get(g).toArray();
+        }
+    }
+
+    int size() {
+        return crops.size();
+    }
+
+    /**
+     * All crops with a positive score, best first.
+     */
+    List<AdvisorySystemGUI.Recommendation> recommend(String soilType, String season, String region) {
+        return recommend(soilType, season, region, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The top {@code limit} crops with a positive score, best first. Only the returned
+     * recommendations are allocated; the catalog itself is never sorted.
+     */
+    List<AdvisorySystemGUI.Recommendation> recommend(String soilType, String season, String region, int limit) {
+        // Score every distinct value once
+        String soilLower = soilType.toLowerCase();
+        String seasonLower = season.toLowerCase();
+        int[] soilScore = new int[soilValues.length];
+        for (int s = 0; s < soilValues.length; s++) {
+            if (soilValues[s].equalsIgnoreCase(soilType)) soilScore[s] = SOIL_EXACT_SCORE;
+            else if (soilValues[s].toLowerCase().contains(soilLower)) soilScore[s] = SOIL_PARTIAL_SCORE;
+        }
+        int[] seasonScore = new int[seasonValues.length];
+        for (int s = 0; s < seasonValues.length; s++) {
+            if (seasonValues[s].toLowerCase().contains(seasonLower)) seasonScore[s] = SEASON_SCORE;
+        }
+        int[] regionScore = new int[regionValues.length];
+        for (int r = 0; r < regionValues.length; r++) {
+            if (regionValues[r].equalsIgnoreCase(region)) regionScore[r] = REGION_SCORE;
+        }
+
+        // Score groups and order them by score, best first
+        int matched = 0;
+        int[] groupScore = new int[groupCrops.length];
+        Integer[] order = new Integer[groupCrops.length];
+        for (int g = 0; g < groupCrops.length; g++) {
+            int score = soilScore[groupSoil[g]] + seasonScore[groupSeason[g]] + regionScore[groupRegion[g]];
+            if (score > 0) {
+                groupScore[g] = score;
+                order[matched++] = g;
+            }
+        }
+        Arrays.sort(order, 0, matched, (a, b) -> Integer.compare(groupScore[b], groupScore[a]));
+
+        List<AdvisorySystemGUI.Recommendation> recs = new ArrayList<>(Math.min(limit, 64));
+        int i = 0;
+        while (i < matched && recs.size() < limit) {
+            // Groups with equal scores are merged in catalog order, like a stable sort would
+            int j = i;
+            int score = groupScore[order[i]];
+            while (j < matched && groupScore[order[j]] == score) j++;
+            mergeInto(recs, order, i, j, score, limit);
+            i = j;
+        }
+        return recs;
+    }
+
+    private void mergeInto(List<AdvisorySystemGUI.Recommendation> recs, Integer[] order, int from, int to,
+                           int score, int limit) {
+        if (to - from == 1) {
+            for (int idx : groupCrops[order[from]]) {
+                if (recs.size() >= limit) return;
+                recs.add(new AdvisorySystemGUI.Recommendation(crops.get(idx), score));
+            }
+            return;
+        }
+        int[] cursor = new int[to - from];
+        while (recs.size() < limit) {
+            int best = -1;
+            int bestCrop = Integer.MAX_VALUE;
+            for (int k = 0; k < cursor.length; k++) {
+                int[] posting = groupCrops[order[from + k]];
+                if (cursor[k] < posting.length && posting[cursor[k]] < bestCrop) {
+                    bestCrop = posting[cursor[k]];
+                    best = k;
+                }
+            }
+            if (best < 0) return;
+            cursor[best]++;
+            recs.add(new AdvisorySystemGUI.Recommendation(crops.get(bestCrop), score));
+        }
+    }
+
+    /**
+     * Reference implementation: scores every crop and sorts the full result list.
+     */
+    static List<AdvisorySystemGUI.Recommendation> linearScan(List<AdvisorySystemGUI.Crop> crops,
+                                                             String soilType, String season, String region) {
+        List<AdvisorySystemGUI.Recommendation> recs = new ArrayList<>();
+
+        for (AdvisorySystemGUI.Crop crop : crops) {
+            int score = 0;
+
+            // Soil match (40 points)
+            if (crop.soilType.equalsIgnoreCase(soilType)) score += SOIL_EXACT_SCORE;
+            else if (crop.soilType.toLowerCase().contains(soilType.toLowerCase())) score += SOIL_PARTIAL_SCORE;
+
+            // Season match (35 points)
+            if (crop.season.toLowerCase().contains(season.toLowerCase())) score += SEASON_SCORE;
+
+            // Region match (25 points)
+            if (crop.region.equalsIgnoreCase(region)) score += REGION_SCORE;
+
+            if (score > 0) {
+                recs.add(new AdvisorySystemGUI.Recommendation(crop, score));
+            }
+        }
+
+        recs.sort((a, b) -> Integer.compare(b.score, a.score));
+        return recs;
+    }
+
+    // Growable int array for posting lists
+    static class IntList {
+        private int[] data = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        int size() {
+            return size;
+        }
+
+        int get(int i) {
+            return data[i];
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+
+/**
+ * Repaint rate and allocation per repaint of the dashboard header, the logo and the splash
+ * logo, painted the old way (decoration drawn on every repaint) and through
+ * {@link DecoratedPanel}, next to an undecorated panel as the baseline. A resize run paints
+ * the header at a new width each frame, as while dragging the window edge.
+ *
+ * Runs headless, painting into an offscreen frame: java -Djava.awt.headless=true RepaintBenchmark [frames]
+ */
+public class RepaintBenchmark {
+
+    public static void main(String[] args) {
+        int frames = args.length > 0 ? Integer.parseInt(args[0]) : 20_000;
+        System.out.printf("%-14s %-8s %14s %14s%n", "decoration", "method", "repaints/s", "bytes/repaint");
+        // Swing's own cost of painting a panel, included in every row below
+        JPanel empty = new JPanel();
+        empty.setSize(1200, 90);
+        report("none", "empty", repaint(empty, frames));
+        run("header", 1200, 90, AdvisorySystemGUI.HEADER_GRADIENT, frames);
+        run("logo", 90, 90, AdvisorySystemGUI.logoDecoration(70), frames);
+        run("splash-logo", 420, 100, FarmerAdvisoryApp.SPLASH_LOGO, frames);
+
+        int renders = DecoratedPanel.renders();
+        JPanel direct = direct(AdvisorySystemGUI.HEADER_GRADIENT);
+        JPanel cached = new DecoratedPanel("bench-resize", AdvisorySystemGUI.HEADER_GRADIENT);
+        int resizes = 2_000;
+        report("header", "resize-d", resizing(direct, resizes));
+        report("header", "resize-c", resizing(cached, resizes));
+        System.out.printf("images rendered during resize: %d%n", DecoratedPanel.renders() - renders);
+    }
+
+    private static void run(String name, int width, int height, DecoratedPanel.Decoration decoration, int frames) {
+        JPanel direct = direct(decoration);
+        JPanel cached = new DecoratedPanel("bench-" + name, decoration);
+        direct.setSize(width, height);
+        cached.setSize(width, height);
+        report(name, "direct", repaint(direct, frames));
+        report(name, "cached", repaint(cached, frames));
+    }
+
+    // The decoration drawn on every repaint, as the panels used to do
+    private static JPanel direct(DecoratedPanel.Decoration decoration) {
+        return new JPanel() {
+            @Override
+            protected void paintComponent(Graphics g) {
+                super.paintComponent(g);
+                decoration.paint((Graphics2D) g, getWidth(), getHeight());
+            }
+        };
+    }
+
+    private static double[] repaint(JPanel panel, int frames) {
+        BufferedImage frame = new BufferedImage(panel.getWidth(), panel.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = frame.createGraphics();
+        try {
+            for (int i = 0; i < frames / 10; i++) paint(panel, g);
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < frames; i++) paint(panel, g);
+            long elapsed = System.nanoTime() - start;
+            return new double[]{frames / (elapsed / 1e9), (allocatedBytes() - bytes) / (double) frames};
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static double[] resizing(JPanel panel, int frames) {
+        BufferedImage frame = new BufferedImage(1200 + frames, 90, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = frame.createGraphics();
+        try {
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < frames; i++) {
+                panel.setSize(1200 + i, 90);
+                paint(panel, g);
+            }
+            long elapsed = System.nanoTime() - start;
+            return new double[]{frames / (elapsed / 1e9), (allocatedBytes() - bytes) / (double) frames};
+        } finally {
+            g.dispose();
+        }
+    }
+
+    private static void paint(JPanel panel, Graphics2D g) {
+        Graphics scratch = g.create();
+        try {
+            panel.paint(scratch);
+        } finally {
+            scratch.dispose();
+        }
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void report(String name, String method, double[] result) {
+        System.out.printf("%-14s %-8s %14.0f %14.0f%n", name, method, result[0], result[1]);
+    }
+}
@@ -0,0 +1,120 @@
+import java.util.*;
+
+/**
+ * Times {@link ScoringModel} on one million plot-crop pairs, split into catalogs and plot
+ * batches of different shapes. The scalar reference scores each crop from its record for
+ * each plot; the matrix scores all pairs as one product with the profile matrix, and
+ * matrix-top5 also picks each plot's five best crops, as batch scoring does. Results are
+ * checked against the reference first.
+ *
+ * Run with: java -Xmx2g ScoringBenchmark [crops plots]...   (default: 20 50000 1000 1000 100000 10)
+ */
+public class ScoringBenchmark {
+
+    private static final String[] COMMON_NAMES = {"Wheat", "Chickpea", "Maize", "Sorghum", "Cotton", "Barley", "Dates"};
+
+    public static void main(String[] args) {
+        int[] shapes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{20, 50_000, 1_000, 1_000, 100_000, 10};
+        Collection<AdvisorySystemGUI.Region> regions = CropCatalog.withDefaults().regions().values();
+
+        System.out.printf("%-8s %-8s %-13s %10s %14s%n", "crops", "plots", "method", "ms", "M pairs/s");
+        for (int s = 0; s + 1 < shapes.length; s += 2) {
+            int size = shapes[s], plots = shapes[s + 1];
+            List<AdvisorySystemGUI.Crop> crops = crops(size);
+            ScoringModel model = new ScoringModel(new CropStore(crops), regions);
+            verify(crops, regions, model);
+
+            String[][] plotFields = plots(plots);
+            long pairs = (long) size * plots;
+            report(size, plots, "scalar", pairs, time(() -> {
+                long n = 0;
+                for (String[] p : plotFields) n += ScoringModel.linearScan(crops, regions, p[0], p[1], p[2]).size();
+                return n;
+            }));
+            report(size, plots, "matrix", pairs, time(() -> {
+                ScoringModel.Query[] queries = queries(model, plotFields);
+                return model.cropScores(queries).length;
+            }));
+            report(size, plots, "matrix-top5", pairs, time(() -> {
+                ScoringModel.Query[] queries = queries(model, plotFields);
+                double[] scores = model.profileScores(queries);
+                long n = 0;
+                for (int q = 0; q < queries.length; q++) n += model.recommend(scores, q, 5).size();
+                return n;
+            }));
+            System.out.printf("%-8d %-8d model: %s%n", size, plots, model);
+        }
+    }
+
+    // Synthetic crops, every tenth named after a crop some region lists as common
+    private static List<AdvisorySystemGUI.Crop> crops(int size) {
+        List<AdvisorySystemGUI.Crop> crops = RecommendationBenchmark.syntheticCrops(size, 42);
+        for (int i = 0; i < size; i += 10) {
+            AdvisorySystemGUI.Crop c = crops.get(i);
+            crops.set(i, new AdvisorySystemGUI.Crop(COMMON_NAMES[(i / 10) % COMMON_NAMES.length],
+                    c.season, c.soilType, c.region, c.waterRequirement, c.expectedYield));
+        }
+        return crops;
+    }
+
+    private static String[][] plots(int count) {
+        Random random = new Random(7);
+        String[][] plots = new String[count][];
+        for (int i = 0; i < count; i++) {
+            plots[i] = new String[]{
+                    RecommendationBenchmark.QUERY_SOILS[random.nextInt(RecommendationBenchmark.QUERY_SOILS.length)],
+                    RecommendationBenchmark.QUERY_SEASONS[random.nextInt(RecommendationBenchmark.QUERY_SEASONS.length)],
+                    RecommendationBenchmark.REGIONS[random.nextInt(RecommendationBenchmark.REGIONS.length)]};
+        }
+        return plots;
+    }
+
+    private static ScoringModel.Query[] queries(ScoringModel model, String[][] plots) {
+        ScoringModel.Query[] queries = new ScoringModel.Query[plots.length];
+        for (int i = 0; i < plots.length; i++) queries[i] = model.query(plots[i][0], plots[i][1], plots[i][2]);
+        return queries;
+    }
+
+    private static void verify(List<AdvisorySystemGUI.Crop> crops, Collection<AdvisorySystemGUI.Region> regions,
+                               ScoringModel model) {
+        for (String soil : RecommendationBenchmark.QUERY_SOILS)
+            for (String season : RecommendationBenchmark.QUERY_SEASONS)
+                for (String region : RecommendationBenchmark.REGIONS) {
+                    List<AdvisorySystemGUI.Recommendation> expected = ScoringModel.linearScan(crops, regions, soil, season, region);
+                    List<AdvisorySystemGUI.Recommendation> actual = model.recommend(soil, season, region);
+                    String query = soil + "/" + season + "/" + region;
+                    if (expected.size() != actual.size()) {
+                        throw new IllegalStateException("Size mismatch for " + query);
+                    }
+                    for (int i = 0; i < expected.size(); i++) {
+                        if (expected.get(i).crop != actual.get(i).crop || expected.get(i).score != actual.get(i).score) {
+                            throw new IllegalStateException("Result mismatch at " + i + " for " + query);
+                        }
+                    }
+                }
+    }
+
+    interface Run {
+        long run();
+    }
+
+    // Best of five runs after two warm-up runs, in milliseconds
+    private static double time(Run run) {
+        long sink = 0;
+        for (int i = 0; i < 2; i++) sink += run.run();
+        long best = Long.MAX_VALUE;
+        for (int i = 0; i < 5; i++) {
+            long start = System.nanoTime();
+            sink += run.run();
+            best = Math.min(best, System.nanoTime() - start);
+        }
+        if (sink == 42) System.out.print("");
+        return best / 1e6;
+    }
+
+    private static void report(int size, int plots, String method, long pairs, double millis) {
+        System.out.printf("%-8d %-8d %-13s %10.2f %14.1f%n", size, plots, method, millis, pairs / millis / 1000);
+    }
+}
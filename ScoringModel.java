@@ -0,0 +1,388 @@
+import java.util.*;
+
+/**
+ * Numeric crop scoring over a snapshot of the catalog's crops and regions.
+ *
+ * Every crop and every query (a plot's soil, season and region) becomes a feature vector, and
+ * a crop's score for a query is the dot product of the two. The score adds up
+ * <ul>
+ * <li>30 for the crop's soil type equal to the plot's (15 if it only contains it), 25 for
+ *     its season containing the plot's season and 15 for the same region;</li>
+ * <li>up to 15 for how well the region's average rainfall covers the crop's water
+ *     requirement, and up to 5 for how well the region's climate suits it;</li>
+ * <li>10 when the crop is one of the region's common crops.</li>
+ * </ul>
+ * so it runs from 0 to 100. Only crops that match at least one of soil, season or region are
+ * recommended; rainfall, climate and common crops then decide how the matches rank.
+ *
+ * Crops with the same soil, season, region, water requirement and common-crop name have the
+ * same vector, so the crop matrix holds one column per distinct profile rather than per crop.
+ * Scoring a batch of queries is one dense product of the query matrix with the profile
+ * matrix. The profile matrix is stored feature-major, so the inner loop adds a scaled row of
+ * contiguous doubles, which the JIT compiles to SIMD instructions; query features that are
+ * zero are skipped. A crop's score is then its profile's score.
+ */
+final class ScoringModel {
+
+    static final double SOIL_EXACT_WEIGHT = 30;
+    static final double SOIL_PARTIAL_WEIGHT = 15;
+    static final double SEASON_WEIGHT = 25;
+    static final double REGION_WEIGHT = 15;
+    static final double RAINFALL_WEIGHT = 15;
+    static final double CLIMATE_WEIGHT = 5;
+    static final double COMMON_CROP_WEIGHT = 10;
+
+    // Average rainfall (mm) that fully covers a low water requirement, and the extra a high one needs
+    private static final double LOW_WATER_RAINFALL = 300;
+    private static final double HIGH_WATER_EXTRA_RAINFALL = 500;
+
+    /**
+     * A query as a feature vector; build with {@link #query}.
+     */
+    static final class Query {
+        final double[] features;
+        // Indexes of the non-zero match features, then of the non-zero context features
+        private final int[] matchFeatures;
+        private final int[] contextFeatures;
+
+        private Query(double[] features, int matchEnd) {
+            this.features = features;
+            this.matchFeatures = nonZero(features, 0, matchEnd);
+            this.contextFeatures = nonZero(features, matchEnd, features.length);
+        }
+
+        private static int[] nonZero(double[] features, int from, int to) {
+            int[] indexes = new int[to - from];
+            int count = 0;
+            for (int f = from; f < to; f++) {
+                if (features[f] != 0) indexes[count++] = f;
+            }
+            return Arrays.copyOf(indexes, count);
+        }
+    }
+
+    private final List<AdvisorySystemGUI.Crop> crops;
+    private final String[] soilValues;
+    private final String[] seasonValues;
+    private final String[] regionValues;
+    private final String[] waterValues;
+    private final String[] soilLower;
+    private final String[] seasonLower;
+    // Lower-case names of crops listed as common in some region, by feature index
+    private final Map<String, Integer> commonCropIndex;
+    // Context features (water requirement, common crop) of a query in each region, by lower-case
+    // name; regions not in the catalog score no context
+    private final Map<String, double[]> regionContext;
+
+    // Feature layout: soil, season, region | water requirement, common crop
+    private final int seasonOffset, regionOffset, waterOffset, commonOffset, features;
+
+    // features x profiles, feature-major
+    private final double[] profileMatrix;
+    private final int profiles;
+    private final int[] profileOf;
+    // Crop indexes of each profile, in catalog order
+    private final int[][] profileCrops;
+
+    ScoringModel(CropStore store, Collection<AdvisorySystemGUI.Region> regions) {
+        this.crops = store.crops();
+        this.soilValues = store.soilValues;
+        this.seasonValues = store.seasonValues;
+        this.regionValues = store.regionValues;
+        this.waterValues = store.waterValues;
+        this.soilLower = lowerCase(soilValues);
+        this.seasonLower = lowerCase(seasonValues);
+
+        commonCropIndex = new HashMap<>();
+        for (AdvisorySystemGUI.Region region : regions) {
+            for (String name : commonCrops(region)) commonCropIndex.putIfAbsent(name, commonCropIndex.size());
+        }
+
+        seasonOffset = soilValues.length;
+        regionOffset = seasonOffset + seasonValues.length;
+        waterOffset = regionOffset + regionValues.length;
+        commonOffset = waterOffset + waterValues.length;
+        features = commonOffset + commonCropIndex.size();
+
+        regionContext = new HashMap<>();
+        for (AdvisorySystemGUI.Region region : regions) {
+            double[] context = new double[features - waterOffset];
+            for (int w = 0; w < waterValues.length; w++) context[w] = waterScore(waterValues[w], region);
+            for (String name : commonCrops(region)) {
+                context[commonOffset - waterOffset + commonCropIndex.get(name)] = COMMON_CROP_WEIGHT;
+            }
+            regionContext.put(region.name.toLowerCase(), context);
+        }
+
+        // Group crops by profile; dictionary sizes are small, so the mixed-radix key fits a long
+        int size = store.size();
+        long commonRadix = commonCropIndex.size() + 1L;
+        Map<Long, Integer> profileIndex = new HashMap<>();
+        List<int[]> profileFeatures = new ArrayList<>();
+        List<IntList> postings = new ArrayList<>();
+        profileOf = new int[size];
+        for (int i = 0; i < size; i++) {
+            Integer common = commonCropIndex.get(crops.get(i).name.toLowerCase().trim());
+            int commonCode = common == null ? -1 : common;
+            long key = (((store.soil[i] * (long) seasonValues.length + store.season[i])
+                    * regionValues.length + store.region[i])
+                    * waterValues.length + store.water[i]) * commonRadix + commonCode + 1;
+            Integer profile = profileIndex.get(key);
+            if (profile == null) {
+                profile = profileFeatures.size();
+                profileIndex.put(key, profile);
+                profileFeatures.add(new int[]{store.soil[i], seasonOffset + store.season[i],
+                        regionOffset + store.region[i], waterOffset + store.water[i],
+                        common == null ? -1 : commonOffset + common});
+                postings.add(new IntList());
+            }
+            profileOf[i] = profile;
+            postings.get(profile).add(i);
+        }
+
+        profiles = profileFeatures.size();
+        profileMatrix = new double[features * profiles];
+        profileCrops = new int[profiles][];
+        for (int g = 0; g < profiles; g++) {
+            for (int f : profileFeatures.get(g)) {
+                if (f >= 0) profileMatrix[f * profiles + g] = 1;
+            }
+            profileCrops[g] = postings.get(g).toArray();
+        }
+    }
+
+    int size() {
+        return crops.size();
+    }
+
+    int profiles() {
+        return profiles;
+    }
+
+    int features() {
+        return features;
+    }
+
+    /**
+     * The feature vector of a plot with the given soil, season and region.
+     */
+    Query query(String soilType, String season, String region) {
+        double[] q = new double[features];
+        String soilQuery = soilType.toLowerCase();
+        String seasonQuery = season.toLowerCase();
+        for (int s = 0; s < soilValues.length; s++) {
+            if (soilValues[s].equalsIgnoreCase(soilType)) q[s] = SOIL_EXACT_WEIGHT;
+            else if (soilLower[s].contains(soilQuery)) q[s] = SOIL_PARTIAL_WEIGHT;
+        }
+        for (int s = 0; s < seasonValues.length; s++) {
+            if (seasonLower[s].contains(seasonQuery)) q[seasonOffset + s] = SEASON_WEIGHT;
+        }
+        for (int r = 0; r < regionValues.length; r++) {
+            if (regionValues[r].equalsIgnoreCase(region)) q[regionOffset + r] = REGION_WEIGHT;
+        }
+
+        double[] context = regionContext.get(region.toLowerCase());
+        if (context != null) System.arraycopy(context, 0, q, waterOffset, context.length);
+        return new Query(q, waterOffset);
+    }
+
+    /**
+     * Scores of every profile for every query, as a queries x profiles matrix: the score of
+     * profile {@code g} for {@code queries[q]} is at {@code q * profiles() + g}. Profiles that
+     * match none of the query's soil, season and region score 0.
+     */
+    double[] profileScores(Query... queries) {
+        double[] scores = new double[queries.length * profiles];
+        for (int q = 0; q < queries.length; q++) score(queries[q], scores, q * profiles);
+        return scores;
+    }
+
+    /**
+     * Scores of every crop for every query, as a queries x crops matrix in catalog order.
+     */
+    double[] cropScores(Query... queries) {
+        double[] byProfile = profileScores(queries);
+        int size = crops.size();
+        double[] scores = new double[queries.length * size];
+        for (int q = 0; q < queries.length; q++) {
+            int from = q * profiles, to = q * size;
+            for (int i = 0; i < size; i++) scores[to + i] = byProfile[from + profileOf[i]];
+        }
+        return scores;
+    }
+
+    // One row of the product: axpy of each non-zero query feature's profile row
+    private void score(Query query, double[] scores, int offset) {
+        double[] q = query.features;
+        for (int f : query.matchFeatures) axpy(q[f], f * profiles, scores, offset);
+        // Context only ranks crops that matched something; mark the rest so it cannot lift them
+        for (int g = offset; g < offset + profiles; g++) {
+            if (scores[g] <= 0) scores[g] = Double.NEGATIVE_INFINITY;
+        }
+        for (int f : query.contextFeatures) axpy(q[f], f * profiles, scores, offset);
+        for (int g = offset; g < offset + profiles; g++) scores[g] = Math.max(scores[g], 0);
+    }
+
+    private void axpy(double a, int row, double[] scores, int offset) {
+        double[] m = profileMatrix;
+        for (int g = 0; g < profiles; g++) scores[offset + g] += a * m[row + g];
+    }
+
+    /**
+     * All crops with a positive score, best first.
+     */
+    List<AdvisorySystemGUI.Recommendation> recommend(String soilType, String season, String region) {
+        return recommend(soilType, season, region, Integer.MAX_VALUE);
+    }
+
+    /**
+     * The top {@code limit} crops with a positive score, best first and in catalog order
+     * within a score.
+     */
+    List<AdvisorySystemGUI.Recommendation> recommend(String soilType, String season, String region, int limit) {
+        return recommend(profileScores(query(soilType, season, region)), 0, limit);
+    }
+
+    /**
+     * The top {@code limit} crops of row {@code row} of a {@link #profileScores} result.
+     */
+    List<AdvisorySystemGUI.Recommendation> recommend(double[] profileScores, int row, int limit) {
+        int offset = row * profiles;
+        int matched = 0;
+        Integer[] order = new Integer[profiles];
+        for (int g = 0; g < profiles; g++) {
+            if (profileScores[offset + g] > 0) order[matched++] = g;
+        }
+        Arrays.sort(order, 0, matched, (a, b) -> Double.compare(profileScores[offset + b], profileScores[offset + a]));
+
+        List<AdvisorySystemGUI.Recommendation> recs = new ArrayList<>(Math.min(limit, 64));
+        int i = 0;
+        while (i < matched && recs.size() < limit) {
+            // Profiles with equal scores are merged in catalog order, like a stable sort would
+            int j = i;
+            double score = profileScores[offset + order[i]];
+            while (j < matched && profileScores[offset + order[j]] == score) j++;
+            mergeInto(recs, order, i, j, (int) Math.round(score), limit);
+            i = j;
+        }
+        return recs;
+    }
+
+    private void mergeInto(List<AdvisorySystemGUI.Recommendation> recs, Integer[] order, int from, int to,
+                           int score, int limit) {
+        int[] cursor = new int[to - from];
+        while (recs.size() < limit) {
+            int best = -1;
+            int bestCrop = Integer.MAX_VALUE;
+            for (int k = 0; k < cursor.length; k++) {
+                int[] posting = profileCrops[order[from + k]];
+                if (cursor[k] < posting.length && posting[cursor[k]] < bestCrop) {
+                    bestCrop = posting[cursor[k]];
+                    best = k;
+                }
+            }
+            if (best < 0) return;
+            cursor[best]++;
+            recs.add(new AdvisorySystemGUI.Recommendation(crops.get(bestCrop), score));
+        }
+    }
+
+    /**
+     * Reference implementation: scores each crop on its own from the crop and region records
+     * and sorts the full result list. Orders crops exactly like {@link #recommend}.
+     */
+    static List<AdvisorySystemGUI.Recommendation> linearScan(List<AdvisorySystemGUI.Crop> crops,
+                                                             Collection<AdvisorySystemGUI.Region> regions,
+                                                             String soilType, String season, String region) {
+        AdvisorySystemGUI.Region info = null;
+        for (AdvisorySystemGUI.Region r : regions) {
+            if (r.name.equalsIgnoreCase(region)) info = r;
+        }
+        Set<String> common = info == null ? Collections.emptySet() : new HashSet<>(commonCrops(info));
+
+        List<AdvisorySystemGUI.Crop> matched = new ArrayList<>();
+        List<Double> scores = new ArrayList<>();
+        for (AdvisorySystemGUI.Crop crop : crops) {
+            double score = 0;
+            if (crop.soilType.equalsIgnoreCase(soilType)) score += SOIL_EXACT_WEIGHT;
+            else if (crop.soilType.toLowerCase().contains(soilType.toLowerCase())) score += SOIL_PARTIAL_WEIGHT;
+            if (crop.season.toLowerCase().contains(season.toLowerCase())) score += SEASON_WEIGHT;
+            if (crop.region.equalsIgnoreCase(region)) score += REGION_WEIGHT;
+            if (score <= 0) continue;
+
+            if (info != null) {
+                score += waterScore(crop.waterRequirement, info);
+                if (common.contains(crop.name.toLowerCase().trim())) score += COMMON_CROP_WEIGHT;
+            }
+            matched.add(crop);
+            scores.add(score);
+        }
+
+        Integer[] order = new Integer[matched.size()];
+        for (int i = 0; i < order.length; i++) order[i] = i;
+        Arrays.sort(order, (a, b) -> Double.compare(scores.get(b), scores.get(a)));
+        List<AdvisorySystemGUI.Recommendation> recs = new ArrayList<>(order.length);
+        for (int i : order) recs.add(new AdvisorySystemGUI.Recommendation(matched.get(i), (int) Math.round(scores.get(i))));
+        return recs;
+    }
+
+    // Rainfall and climate fit of a water requirement in a region, 0 to RAINFALL_WEIGHT + CLIMATE_WEIGHT
+    private static double waterScore(String waterRequirement, AdvisorySystemGUI.Region region) {
+        double need = waterNeed(waterRequirement);
+        double rainfallFit = Math.min(1, region.avgRainfall / (LOW_WATER_RAINFALL + need * HIGH_WATER_EXTRA_RAINFALL));
+        double climateFit = 1 - aridity(region.climate) * need;
+        return RAINFALL_WEIGHT * rainfallFit + CLIMATE_WEIGHT * climateFit;
+    }
+
+    // 0 for a low water requirement, 1 for a high one; unknown levels count as medium
+    private static double waterNeed(String waterRequirement) {
+        switch (waterRequirement.trim().toLowerCase()) {
+            case "low": return 0;
+            case "high": return 1;
+            default: return 0.5;
+        }
+    }
+
+    // 1 for an arid climate, 0.5 for a semi-arid one, 0 otherwise
+    private static double aridity(String climate) {
+        String c = climate.toLowerCase();
+        if (!c.contains("arid")) return 0;
+        return c.contains("semi") ? 0.5 : 1;
+    }
+
+    private static String[] lowerCase(String[] values) {
+        String[] lower = new String[values.length];
+        for (int i = 0; i < values.length; i++) lower[i] = values[i].toLowerCase();
+        return lower;
+    }
+
+    private static List<String> commonCrops(AdvisorySystemGUI.Region region) {
+        List<String> names = new ArrayList<>();
+        if (region.commonCrops == null) return names;
+        for (String name : region.commonCrops.split(",")) {
+            String n = name.trim().toLowerCase();
+            if (!n.isEmpty() && !names.contains(n)) names.add(n);
+        }
+        return names;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("%d crops in %d profiles, %d features", crops.size(), profiles, features);
+    }
+
+    // Growable int array for posting lists
+    private static final class IntList {
+        private int[] data = new int[8];
+        private int size;
+
+        void add(int value) {
+            if (size == data.length) data = Arrays.copyOf(data, size * 2);
+            data[size++] = value;
+        }
+
+        int[] toArray() {
+            return Arrays.copyOf(data, size);
+        }
+    }
+}
@@ -0,0 +1,184 @@
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Loads what the main window needs, in parallel, while the splash screen is showing.
+ *
+ * The catalog and the audit log are opened at the same time. Once the catalog is open, its
+ * text index, scoring model (with the columnar store), report aggregates and
+ * username index are built concurrently, and the audit history is indexed once the log is open. Every phase is
+ * timed. A phase that only warms a cache is allowed to fail: the structure is then built on
+ * first use, as before.
+ */
+final class StartupLoader {
+
+    private static final int PHASES = 7;
+
+    /**
+     * One timed startup phase; times are milliseconds since loading began.
+     */
+    static final class Phase {
+        final String name;
+        final long startMillis;
+        final long durationMillis;
+
+        Phase(String name, long startMillis, long durationMillis) {
+            this.name = name;
+            this.startMillis = startMillis;
+            this.durationMillis = durationMillis;
+        }
+
+        @Override
+        public String toString() {
+            return name + " " + durationMillis + " ms (at +" + startMillis + " ms)";
+        }
+    }
+
+    /**
+     * Everything the main window is constructed from.
+     */
+    static final class Result {
+        final CropCatalog catalog;
+        final AuditLog auditLog;
+        final AuditHistory auditHistory;
+        final List<Phase> phases;
+        final long totalMillis;
+
+        Result(CropCatalog catalog, AuditLog auditLog, AuditHistory auditHistory, List<Phase> phases, long totalMillis) {
+            this.catalog = catalog;
+            this.auditLog = auditLog;
+            this.auditHistory = auditHistory;
+            this.phases = phases;
+            this.totalMillis = totalMillis;
+        }
+
+        String summary() {
+            StringBuilder sb = new StringBuilder("Startup loaded in ").append(totalMillis).append(" ms: ");
+            for (int i = 0; i < phases.size(); i++) {
+                if (i > 0) sb.append(", ");
+                sb.append(phases.get(i));
+            }
+            return sb.toString();
+        }
+    }
+
+    interface ProgressListener {
+        void phaseDone(int done, int total, String phase);
+    }
+
+    private final long startNanos = System.nanoTime();
+    private final List<Phase> phases = Collections.synchronizedList(new ArrayList<>());
+    private final AtomicInteger done = new AtomicInteger();
+    private final ProgressListener listener;
+
+    private StartupLoader(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Load everything, reporting each finished phase to {@code listener} from a loader thread.
+     */
+    static Result load(ProgressListener listener) {
+        return new StartupLoader(listener).run();
+    }
+
+    private Result run() {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(2, Math.min(4, Runtime.getRuntime().availableProcessors())), r -> {
+            Thread t = new Thread(r, "startup");
+            t.setDaemon(true);
+            return t;
+        });
+        try {
+            CompletableFuture<CropCatalog> catalog = CompletableFuture.supplyAsync(
+                    () -> timed("catalog", StartupLoader::openCatalog), pool);
+            CompletableFuture<AuditLog> auditLog = CompletableFuture.supplyAsync(
+                    () -> timed("audit log", StartupLoader::openAuditLog), pool);
+
+            CompletableFuture<AuditHistory> auditHistory = auditLog.thenApplyAsync(log -> {
+                AuditHistory history = new AuditHistory(log);
+                warm("audit history", () -> {
+                    history.refresh();
+                    return null;
+                });
+                return history;
+            }, pool);
+            CompletableFuture<?> warmups = CompletableFuture.allOf(
+                    catalog.thenAcceptAsync(c -> warm("search index", c::textIndex), pool),
+                    catalog.thenAcceptAsync(c -> warm("scoring model", c::scoringModel), pool),
+                    catalog.thenAcceptAsync(c -> warm("report aggregates", c::aggregates), pool),
+                    catalog.thenAcceptAsync(c -> warm("user index", () -> c.current().usersByName()), pool));
+
+            CompletableFuture.allOf(warmups, auditHistory).join();
+            List<Phase> ordered;
+            synchronized (phases) {
+                ordered = new ArrayList<>(phases);
+            }
+            return new Result(catalog.join(), auditLog.join(), auditHistory.join(), ordered, elapsedMillis());
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException) throw (RuntimeException) e.getCause();
+            throw e;
+        } finally {
+            pool.shutdown();
+        }
+    }
+
+    private static CropCatalog openCatalog() {
+        try {
+            return CropCatalog.open(CatalogFile.defaultPath());
+        } catch (IOException e) {
+            // Keep the app usable without a data directory; changes are not saved
+            e.printStackTrace();
+            return CropCatalog.withDefaults();
+        }
+    }
+
+    private static AuditLog openAuditLog() {
+        Path dir = CatalogFile.defaultPath().resolveSibling("audit");
+        AuditLog log;
+        try {
+            log = AuditLog.open(dir);
+        } catch (IOException e) {
+            e.printStackTrace();
+            try {
+                log = AuditLog.open(Files.createTempDirectory("fas-audit"));
+            } catch (IOException e2) {
+                throw new UncheckedIOException(e2);
+            }
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(log::close, "audit-log-close"));
+        return log;
+    }
+
+    private <T> T timed(String name, Callable<T> phase) {
+        long start = elapsedMillis();
+        try {
+            return phase.call();
+        } catch (RuntimeException e) {
+            throw e;
+        } catch (Exception e) {
+            throw new CompletionException(e);
+        } finally {
+            long end = elapsedMillis();
+            phases.add(new Phase(name, start, end - start));
+            if (listener != null) listener.phaseDone(done.incrementAndGet(), PHASES, name);
+        }
+    }
+
+    // A cache warm-up; failing only means the structure is built later, on first use
+    private void warm(String name, Callable<?> phase) {
+        try {
+            timed(name, phase);
+        } catch (RuntimeException e) {
+            System.err.println("Startup phase '" + name + "' failed: " + e);
+        }
+    }
+
+    private long elapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - startNanos);
+    }
+}
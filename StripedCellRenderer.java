@@ -0,0 +1,100 @@
+import javax.swing.*;
+import javax.swing.plaf.basic.BasicGraphicsUtils;
+import javax.swing.table.DefaultTableCellRenderer;
+import java.awt.*;
+
+/**
+ * Table cell renderer for plain text cells with alternating row colors, built so that
+ * rendering a cell allocates nothing.
+ *
+ * Colors, font and padding all come from {@link UiStyles}, and strings are shown as they
+ * are. Other values are converted to text once and kept in a small cache keyed by the value,
+ * so a column of numbers does not create a new string for every cell it paints; numbers in a
+ * column repeat often enough that the cache catches most of them. Property change events are
+ * not fired, since nothing listens to a renderer, which also means cells show HTML as plain
+ * text.
+ *
+ * The cell paints its background and text itself instead of going through the label UI,
+ * which saves two copies of the graphics context and a label layout per cell. Text is
+ * vertically centered and clipped with "..." as a label would, with the component's text
+ * antialiasing; the clipped string is the only thing a cell can allocate.
+ */
+@SuppressWarnings("serial")
+class StripedCellRenderer extends DefaultTableCellRenderer {
+
+    private static final int TEXT_CACHE_BITS = 10;
+    private static final int TEXT_CACHE_SIZE = 1 << TEXT_CACHE_BITS;
+    private static final int TEXT_CACHE_PROBES = 4;
+
+    // Open addressing over a few slots; when all of them are taken the first is overwritten
+    private final Object[] cachedValues = new Object[TEXT_CACHE_SIZE];
+    private final String[] cachedTexts = new String[TEXT_CACHE_SIZE];
+
+    private final Insets padding;
+
+    StripedCellRenderer() {
+        setBorder(UiStyles.CELL_PADDING);
+        padding = UiStyles.CELL_PADDING.getBorderInsets(this);
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value,
+            boolean isSelected, boolean hasFocus, int row, int column) {
+        if (isSelected) {
+            setBackground(table.getSelectionBackground());
+            setForeground(table.getSelectionForeground());
+        } else {
+            setBackground(row % 2 == 0 ? Color.WHITE : UiStyles.ROW_STRIPE);
+            setForeground(UiStyles.TEXT_PRIMARY);
+        }
+        setFont(table.getFont());
+        setText(text(value));
+        return this;
+    }
+
+    private String text(Object value) {
+        if (value == null) return "";
+        if (value instanceof String) return (String) value;
+        // Round numbers such as 4.5 have all-zero low hash bits, so take the slot from the mixed high bits
+        int home = (value.hashCode() * 0x9E3779B9) >>> (32 - TEXT_CACHE_BITS);
+        int slot = home;
+        for (int probe = 0; probe < TEXT_CACHE_PROBES; probe++) {
+            int i = (home + probe) & (TEXT_CACHE_SIZE - 1);
+            Object cached = cachedValues[i];
+            if (cached == null) {
+                slot = i;
+                break;
+            }
+            if (value.equals(cached)) return cachedTexts[i];
+        }
+        cachedValues[slot] = value;
+        cachedTexts[slot] = value.toString();
+        return cachedTexts[slot];
+    }
+
+    @Override
+    public void paint(Graphics g) {
+        int width = getWidth(), height = getHeight();
+        g.setColor(getBackground());
+        g.fillRect(0, 0, width, height);
+        String text = getText();
+        if (text == null || text.isEmpty()) return;
+
+        g.setFont(getFont());
+        g.setColor(getForeground());
+        FontMetrics metrics = g.getFontMetrics();
+        int available = width - padding.left - padding.right;
+        String shown = BasicGraphicsUtils.getClippedString(this, metrics, text, available);
+        int x = padding.left;
+        if (!getComponentOrientation().isLeftToRight()) {
+            x = width - padding.right - (int) BasicGraphicsUtils.getStringWidth(this, metrics, shown);
+        }
+        int lineHeight = metrics.getAscent() + metrics.getDescent();
+        int y = padding.top + (height - padding.top - padding.bottom - lineHeight) / 2 + metrics.getAscent();
+        BasicGraphicsUtils.drawString(this, (Graphics2D) g, shown, x, y);
+    }
+
+    @Override
+    protected void firePropertyChange(String propertyName, Object oldValue, Object newValue) {
+    }
+}
@@ -0,0 +1,127 @@
+import javax.swing.*;
+import javax.swing.table.DefaultTableCellRenderer;
+import javax.swing.table.TableCellRenderer;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.management.ManagementFactory;
+import java.util.List;
+
+/**
+ * Scroll throughput of the crop table over a large catalog, with the old renderer (a new
+ * color and border for every cell) and {@link StripedCellRenderer}. Each frame paints one
+ * viewport of the table a few rows further down, as while dragging the scroll bar; the
+ * renderer alone is also timed over the same cell values.
+ *
+ * The bytes per frame include what Swing's table painting and the model allocate, such as
+ * the boxed yield each yield cell returns; the renderer rows show the renderer's own share.
+ *
+ * Runs headless: java -Xmx2g -Djava.awt.headless=true TableScrollBenchmark [rows] [frames]
+ */
+public class TableScrollBenchmark {
+
+    private static final int WIDTH = 1000, VIEWPORT_HEIGHT = 700;
+    private static final int ROWS_PER_FRAME = 3;
+    private static final int SAMPLED_ROWS = 100_000;
+
+    public static void main(String[] args) {
+        int rows = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+        int frames = args.length > 1 ? Integer.parseInt(args[1]) : 5_000;
+        List<AdvisorySystemGUI.Crop> crops = RecommendationBenchmark.syntheticCrops(rows, 42);
+        LazyTableModel<AdvisorySystemGUI.Crop> model = new LazyTableModel<>(
+                new String[]{"Crop Name", "Season", "Soil Type", "Region", "Yield (t/ha)"},
+                c -> c.name, c -> c.season, c -> c.soilType, c -> c.region, c -> c.expectedYield);
+        model.setRows(crops);
+
+        System.out.printf("rows: %d%n", rows);
+        System.out.printf("%-10s %-9s %14s %14s%n", "renderer", "method", "per second", "bytes each");
+        run("old", legacyRenderer(), model, frames);
+        run("striped", new StripedCellRenderer(), model, frames);
+    }
+
+    private static void run(String name, TableCellRenderer renderer, LazyTableModel<?> model, int frames) {
+        JTable table = AdvisorySystemGUI.createStyledTable(model);
+        table.setDefaultRenderer(Object.class, renderer);
+        table.setSize(WIDTH, model.getRowCount() * table.getRowHeight());
+        // Paint straight into the frame; the screen's back buffer is not what is measured
+        RepaintManager.currentManager(table).setDoubleBufferingEnabled(false);
+
+        report(name, "scroll", scroll(table, frames));
+        report(name, "cells", render(table, renderer, model));
+    }
+
+    // The renderer createStyledTable used to install
+    private static TableCellRenderer legacyRenderer() {
+        return new DefaultTableCellRenderer() {
+            @Override
+            public Component getTableCellRendererComponent(JTable table, Object value,
+                    boolean isSelected, boolean hasFocus, int row, int column) {
+                Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+                if (!isSelected) {
+                    c.setBackground(row % 2 == 0 ? Color.WHITE : new Color(248, 249, 250));
+                    c.setForeground(UiStyles.TEXT_PRIMARY);
+                }
+                ((JLabel) c).setBorder(BorderFactory.createEmptyBorder(5, 10, 5, 10));
+                return c;
+            }
+        };
+    }
+
+    private static double[] scroll(JTable table, int frames) {
+        BufferedImage frame = new BufferedImage(WIDTH, VIEWPORT_HEIGHT, BufferedImage.TYPE_INT_RGB);
+        Graphics2D g = frame.createGraphics();
+        int step = ROWS_PER_FRAME * table.getRowHeight();
+        int range = table.getHeight() - VIEWPORT_HEIGHT;
+        try {
+            for (int i = 0; i < frames / 10; i++) paint(table, g, (i * step) % range);
+            long bytes = allocatedBytes();
+            long start = System.nanoTime();
+            for (int i = 0; i < frames; i++) paint(table, g, (int) ((long) i * step * 97 % range));
+            long elapsed = System.nanoTime() - start;
+            return new double[]{frames / (elapsed / 1e9), (allocatedBytes() - bytes) / (double) frames};
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Paints the viewport whose top edge is at y, as a scroll pane would
+    private static void paint(JTable table, Graphics2D g, int y) {
+        Graphics2D scratch = (Graphics2D) g.create();
+        try {
+            scratch.translate(0, -y);
+            scratch.clipRect(0, y, WIDTH, VIEWPORT_HEIGHT);
+            table.paint(scratch);
+        } finally {
+            scratch.dispose();
+        }
+    }
+
+    private static double[] render(JTable table, TableCellRenderer renderer, LazyTableModel<?> model) {
+        int columns = model.getColumnCount();
+        int sampled = Math.min(SAMPLED_ROWS, model.getRowCount());
+        // Values fetched up front so the model's boxing is not counted
+        Object[] values = new Object[sampled * columns];
+        int stride = Math.max(1, model.getRowCount() / sampled);
+        for (int r = 0; r < sampled; r++)
+            for (int c = 0; c < columns; c++) values[r * columns + c] = model.getValueAt(r * stride, c);
+
+        for (int i = 0; i < values.length; i++) renderer.getTableCellRendererComponent(table, values[i], false, false, i / columns, i % columns);
+        int passes = 5;
+        long bytes = allocatedBytes();
+        long start = System.nanoTime();
+        for (int p = 0; p < passes; p++)
+            for (int i = 0; i < values.length; i++)
+                renderer.getTableCellRendererComponent(table, values[i], false, false, i / columns, i % columns);
+        long elapsed = System.nanoTime() - start;
+        long cells = (long) passes * values.length;
+        return new double[]{cells / (elapsed / 1e9), (allocatedBytes() - bytes) / (double) cells};
+    }
+
+    private static long allocatedBytes() {
+        return ((com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean())
+                .getThreadAllocatedBytes(Thread.currentThread().getId());
+    }
+
+    private static void report(String name, String method, double[] result) {
+        System.out.printf("%-10s %-9s %14.0f %14.1f%n", name, method, result[0], result[1]);
+    }
+}
@@ -0,0 +1,55 @@
+import javax.swing.*;
+import javax.swing.border.Border;
+import java.awt.*;
+
+/**
+ * Colors, fonts, borders and cursors shared by every screen.
+ *
+ * All of them are immutable, so one instance can be used by any number of components.
+ * Building them once here keeps screens from creating a new {@code Font} or {@code Border}
+ * for every component they lay out, and keeps renderers and hover handlers, which run for
+ * every cell or mouse move, from allocating at all.
+ */
+final class UiStyles {
+
+    private UiStyles() {
+    }
+
+    // Palette
+    static final Color PRIMARY = new Color(34, 139, 87);             // Forest Green
+    static final Color PRIMARY_BRIGHT = PRIMARY.brighter();           // Selection and hover
+    static final Color TEXT_PRIMARY = new Color(15, 23, 42);          // Slate 900
+    static final Color VIOLET = new Color(139, 92, 246);
+    static final Color CYAN = new Color(6, 182, 212);
+    static final Color AMETHYST = new Color(155, 89, 182);
+    static final Color NAV_BACKGROUND = new Color(44, 62, 80);
+    static final Color NAV_BUTTON = new Color(52, 73, 94);
+    static final Color STATUS_BAR = new Color(248, 250, 252);
+    static final Color CARD_HOVER = new Color(245, 245, 245);
+    static final Color TEXT_MUTED = new Color(150, 150, 150);
+    static final Color TEXT_DIM = new Color(100, 100, 100);
+    static final Color GRID = new Color(220, 223, 230);
+    static final Color ROW_STRIPE = new Color(248, 249, 250);
+    static final Color FIELD_OUTLINE = new Color(200, 200, 200);
+
+    // Fonts
+    static final Font BODY_FONT = new Font("Segoe UI", Font.PLAIN, 13);
+    static final Font TABLE_HEADER_FONT = new Font("Segoe UI", Font.BOLD, 13);
+    static final Font STAT_VALUE_FONT = new Font("Segoe UI", Font.BOLD, 36);
+    static final Font MONO_FONT = new Font("Consolas", Font.PLAIN, 12);
+
+    // Borders
+    static final Border CELL_PADDING = BorderFactory.createEmptyBorder(5, 10, 5, 10);
+    static final Border BUTTON_PADDING = BorderFactory.createEmptyBorder(10, 20, 10, 20);
+    static final Border NAV_BUTTON_PADDING = BorderFactory.createEmptyBorder(10, 15, 10, 15);
+    static final Border GRID_OUTLINE = BorderFactory.createLineBorder(GRID);
+    static final Border CARD_BORDER = BorderFactory.createCompoundBorder(
+            GRID_OUTLINE, BorderFactory.createEmptyBorder(20, 20, 20, 20));
+    // The focused field's thicker outline takes its extra pixel from the padding, so text does not move
+    static final Border FIELD_BORDER = BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(FIELD_OUTLINE), BorderFactory.createEmptyBorder(8, 10, 8, 10));
+    static final Border FIELD_FOCUS_BORDER = BorderFactory.createCompoundBorder(
+            BorderFactory.createLineBorder(PRIMARY, 2), BorderFactory.createEmptyBorder(7, 9, 7, 9));
+
+    static final Cursor HAND_CURSOR = Cursor.getPredefinedCursor(Cursor.HAND_CURSOR);
+}
@@ -0,0 +1,111 @@
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Login against the catalog's users.
+ *
+ * Users are found through the current catalog version's username index, so a login costs
+ * one hash lookup and one password hash however many users there are. Unknown usernames are
+ * checked against a dummy hash, which makes them take as long as a wrong password.
+ *
+ * Failed attempts are counted per username. After {@link #FREE_ATTEMPTS} failures in a row
+ * the username is locked for {@link #BASE_LOCKOUT_MILLIS}, doubling with every further
+ * failure up to {@link #MAX_LOCKOUT_MILLIS}; a locked username is refused without hashing.
+ * A successful login clears the count.
+ */
+final class UserStore {
+
+    static final int FREE_ATTEMPTS = 5;
+    static final long BASE_LOCKOUT_MILLIS = 30_000;
+    static final long MAX_LOCKOUT_MILLIS = 15 * 60_000;
+    // Above this many tracked usernames, entries that are no longer locked are dropped
+    private static final int MAX_TRACKED = 10_000;
+
+    /**
+     * Outcome of one login attempt.
+     */
+    static final class Login {
+        final AdvisorySystemGUI.User user;
+        // Non-zero when the attempt was refused because the username is locked
+        final long retryAfterMillis;
+
+        private Login(AdvisorySystemGUI.User user, long retryAfterMillis) {
+            this.user = user;
+            this.retryAfterMillis = retryAfterMillis;
+        }
+
+        boolean succeeded() {
+            return user != null;
+        }
+
+        boolean locked() {
+            return retryAfterMillis > 0;
+        }
+    }
+
+    private static final class Failures {
+        int count;
+        long lockedUntil;
+    }
+
+    // Hashed on first use so startup does not pay for it; the secret is random so no password matches it
+    private static final class Dummy {
+        static final String HASH = PasswordHash.hash(UUID.randomUUID().toString().toCharArray());
+    }
+
+    private final CropCatalog catalog;
+    private final LongSupplier clock;
+    private final Map<String, Failures> failures = new ConcurrentHashMap<>();
+
+    UserStore(CropCatalog catalog) {
+        this(catalog, System::currentTimeMillis);
+    }
+
+    UserStore(CropCatalog catalog, LongSupplier clock) {
+        this.catalog = catalog;
+        this.clock = clock;
+    }
+
+    /**
+     * Check a username, password and role. Hashes the password, so call it off the EDT.
+     */
+    Login authenticate(String username, char[] password, String role) {
+        Failures f = failures.get(username);
+        if (f != null) {
+            synchronized (f) {
+                long wait = f.lockedUntil - clock.getAsLong();
+                if (wait > 0) return new Login(null, wait);
+            }
+        }
+        AdvisorySystemGUI.User user = catalog.current().usersByName().get(username);
+        boolean matches = PasswordHash.verify(password, user != null ? user.passwordHash : Dummy.HASH);
+        if (user != null && matches && user.role.equals(role)) {
+            failures.remove(username);
+            return new Login(user, 0);
+        }
+        recordFailure(username);
+        return new Login(null, 0);
+    }
+
+    private void recordFailure(String username) {
+        long now = clock.getAsLong();
+        if (failures.size() >= MAX_TRACKED) failures.values().removeIf(f -> lockExpired(f, now));
+        Failures f = failures.computeIfAbsent(username, u -> new Failures());
+        synchronized (f) {
+            f.count++;
+            int excess = f.count - FREE_ATTEMPTS;
+            if (excess >= 0) {
+                long lockout = BASE_LOCKOUT_MILLIS << Math.min(excess, 20);
+                f.lockedUntil = now + Math.min(lockout, MAX_LOCKOUT_MILLIS);
+            }
+        }
+    }
+
+    private static boolean lockExpired(Failures f, long now) {
+        synchronized (f) {
+            return f.lockedUntil <= now;
+        }
+    }
+}
@@ -0,0 +1,201 @@
+import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveTask;
+import java.util.stream.IntStream;
+
+/**
+ * Yield statistics, water-requirement distribution and soil/season cross-tabs per region,
+ * computed over the {@link CropStore} columns.
+ *
+ * Per-region yield statistics sort each region's yields independently, one region per
+ * fork-join task. Large regions are sorted in parallel as well.
+ *
+ * The distributions split the rows into ranges and count each range into its own array.
+ * The arrays are then added together, so no counter is shared between threads.
+ *
+ * A sequential instance runs the same code on the calling thread. That keeps small catalogs
+ * cheap and gives the benchmark a baseline.
+ */
+final class YieldAnalytics {
+
+    // Rows per counting task; below this, splitting costs more than it saves
+    private static final int SPLIT_ROWS = 1 << 15;
+
+    private final CropStore store;
+    private final ForkJoinPool pool;
+
+    /**
+     * Yield distribution of one region's crops.
+     */
+    static final class YieldStats {
+        final String region;
+        final int count;
+        final double mean, min, p10, median, p90, max;
+
+        YieldStats(String region, double[] sortedYields) {
+            this.region = region;
+            this.count = sortedYields.length;
+            double total = 0;
+            for (double y : sortedYields) total += y;
+            this.mean = count == 0 ? 0 : total / count;
+            this.min = percentile(sortedYields, 0);
+            this.p10 = percentile(sortedYields, 10);
+            this.median = percentile(sortedYields, 50);
+            this.p90 = percentile(sortedYields, 90);
+            this.max = percentile(sortedYields, 100);
+        }
+
+        // Nearest-rank percentile
+        private static double percentile(double[] sorted, int p) {
+            if (sorted.length == 0) return 0;
+            int rank = (int) Math.ceil(p / 100.0 * sorted.length);
+            return sorted[Math.max(0, rank - 1)];
+        }
+    }
+
+    /**
+     * Crop counts per region for each value of a second column.
+     */
+    static final class Distribution {
+        final String[] regions;
+        final String[] values;
+        final int[][] counts;   // [region][value]
+
+        Distribution(String[] regions, String[] values, int[][] counts) {
+            this.regions = regions;
+            this.values = values;
+            this.counts = counts;
+        }
+    }
+
+    /**
+     * Crop counts per region, soil and season.
+     */
+    static final class CrossTab {
+        final String[] regions;
+        final String[] soils;
+        final String[] seasons;
+        final int[][][] counts; // [region][soil][season]
+
+        CrossTab(String[] regions, String[] soils, String[] seasons, int[][][] counts) {
+            this.regions = regions;
+            this.soils = soils;
+            this.seasons = seasons;
+            this.counts = counts;
+        }
+    }
+
+    /**
+     * Analytics that run on the common fork-join pool.
+     */
+    static YieldAnalytics parallel(CropStore store) {
+        return new YieldAnalytics(store, ForkJoinPool.commonPool());
+    }
+
+    static YieldAnalytics sequential(CropStore store) {
+        return new YieldAnalytics(store, null);
+    }
+
+    private YieldAnalytics(CropStore store, ForkJoinPool pool) {
+        this.store = store;
+        this.pool = pool;
+    }
+
+    /**
+     * Yield statistics for every region that has crops, in region code order.
+     */
+    YieldStats[] yieldByRegion() {
+        CropStore.Groups groups = store.groupByRegion();
+        double[] yield = store.yield;
+        return submit(() -> {
+            IntStream regions = IntStream.range(0, groups.values.length);
+            if (pool != null) regions = regions.parallel();
+            return regions.mapToObj(g -> {
+                int[] rows = groups.members[g];
+                double[] yields = new double[rows.length];
+                for (int i = 0; i < rows.length; i++) yields[i] = yield[rows[i]];
+                // One big region would otherwise leave the other workers idle
+                if (pool != null && yields.length > SPLIT_ROWS) Arrays.parallelSort(yields);
+                else Arrays.sort(yields);
+                return new YieldStats(groups.values[g], yields);
+            }).toArray(YieldStats[]::new);
+        });
+    }
+
+    Distribution waterByRegion() {
+        int waterCount = store.waterValues.length;
+        int[] flat = count(store.regionValues.length * waterCount,
+                (row, counts) -> counts[store.region[row] * waterCount + (store.water[row] & 0xFF)]++);
+        int[][] counts = new int[store.regionValues.length][];
+        for (int r = 0; r < counts.length; r++) counts[r] = Arrays.copyOfRange(flat, r * waterCount, (r + 1) * waterCount);
+        return new Distribution(store.regionValues, store.waterValues, counts);
+    }
+
+    CrossTab soilSeasonByRegion() {
+        int soils = store.soilValues.length;
+        int seasons = store.seasonValues.length;
+        int perRegion = soils * seasons;
+        int[] flat = count(store.regionValues.length * perRegion,
+                (row, counts) -> counts[store.region[row] * perRegion + store.soil[row] * seasons + store.season[row]]++);
+        int[][][] counts = new int[store.regionValues.length][soils][];
+        for (int r = 0; r < counts.length; r++) {
+            for (int s = 0; s < soils; s++) {
+                int from = r * perRegion + s * seasons;
+                counts[r][s] = Arrays.copyOfRange(flat, from, from + seasons);
+            }
+        }
+        return new CrossTab(store.regionValues, store.soilValues, store.seasonValues, counts);
+    }
+
+    private interface RowCounter {
+        void count(int row, int[] counts);
+    }
+
+    private int[] count(int buckets, RowCounter counter) {
+        CountTask task = new CountTask(0, store.size(), buckets, counter, pool == null ? Integer.MAX_VALUE : SPLIT_ROWS);
+        if (pool == null) return task.compute();
+        return ForkJoinTask.getPool() == pool ? task.invoke() : pool.invoke(task);
+    }
+
+    private <T> T submit(Callable<T> work) {
+        try {
+            // A parallel stream started inside the pool runs in that pool
+            return pool == null || ForkJoinTask.getPool() == pool ? work.call() : pool.submit(work).get();
+        } catch (Exception e) {
+            throw new IllegalStateException("Analytics failed", e);
+        }
+    }
+
+    // Counts a range of rows into a private array; halves are counted in parallel and added
+    @SuppressWarnings("serial")
+    private static final class CountTask extends RecursiveTask<int[]> {
+        private final int from, to, buckets, splitRows;
+        private final RowCounter counter;
+
+        CountTask(int from, int to, int buckets, RowCounter counter, int splitRows) {
+            this.from = from;
+            this.to = to;
+            this.buckets = buckets;
+            this.counter = counter;
+            this.splitRows = splitRows;
+        }
+
+        @Override
+        protected int[] compute() {
+            if (to - from <= splitRows) {
+                int[] counts = new int[buckets];
+                for (int row = from; row < to; row++) counter.count(row, counts);
+                return counts;
+            }
+            int mid = (from + to) >>> 1;
+            CountTask left = new CountTask(from, mid, buckets, counter, splitRows);
+            left.fork();
+            int[] counts = new CountTask(mid, to, buckets, counter, splitRows).compute();
+            int[] other = left.join();
+            for (int b = 0; b < buckets; b++) counts[b] += other[b];
+            return counts;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Times the report analytics sequentially and on the common fork-join pool, after checking
+ * that both produce the same results.
+ *
+ * Run with: java -Xmx2g YieldAnalyticsBenchmark [sizes...]   (default: 10000 1000000 4000000)
+ */
+public class YieldAnalyticsBenchmark {
+
+    public static void main(String[] args) {
+        int[] sizes = args.length > 0
+                ? Arrays.stream(args).mapToInt(Integer::parseInt).toArray()
+                : new int[]{10_000, 1_000_000, 4_000_000};
+
+        System.out.printf("parallelism: %d%n", ForkJoinPool.getCommonPoolParallelism());
+        System.out.printf("%-10s %-22s %14s%n", "crops", "method", "ms/op");
+        for (int size : sizes) {
+            CropStore store = new CropStore(RecommendationBenchmark.syntheticCrops(size, 42));
+            YieldAnalytics sequential = YieldAnalytics.sequential(store);
+            YieldAnalytics parallel = YieldAnalytics.parallel(store);
+            verify(sequential, parallel);
+
+            int iterations = Math.max(5, 2_000_000 / size);
+            report(size, "yield-stats-seq", time(iterations, () -> sequential.yieldByRegion().length));
+            report(size, "yield-stats-par", time(iterations, () -> parallel.yieldByRegion().length));
+            report(size, "water-dist-seq", time(iterations, () -> sequential.waterByRegion().counts.length));
+            report(size, "water-dist-par", time(iterations, () -> parallel.waterByRegion().counts.length));
+            report(size, "soil-season-seq", time(iterations, () -> sequential.soilSeasonByRegion().counts.length));
+            report(size, "soil-season-par", time(iterations, () -> parallel.soilSeasonByRegion().counts.length));
+        }
+    }
+
+    private static void verify(YieldAnalytics sequential, YieldAnalytics parallel) {
+        YieldAnalytics.YieldStats[] a = sequential.yieldByRegion(), b = parallel.yieldByRegion();
+        for (int i = 0; i < a.length; i++) {
+            if (a[i].count != b[i].count || a[i].median != b[i].median || a[i].p90 != b[i].p90 || a[i].mean != b[i].mean) {
+                throw new IllegalStateException("Yield statistics differ for " + a[i].region);
+            }
+        }
+        if (!Arrays.deepEquals(sequential.waterByRegion().counts, parallel.waterByRegion().counts)) {
+            throw new IllegalStateException("Water distributions differ");
+        }
+        if (!Arrays.deepEquals(sequential.soilSeasonByRegion().counts, parallel.soilSeasonByRegion().counts)) {
+            throw new IllegalStateException("Cross-tabs differ");
+        }
+    }
+
+    interface Op {
+        int run();
+    }
+
+    private static double time(int iterations, Op op) {
+        long sink = 0;
+        // Warm up
+        for (int i = 0; i < iterations; i++) sink += op.run();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) sink += op.run();
+        long elapsed = System.nanoTime() - start;
+        if (sink == 42) System.out.print("");
+        return elapsed / 1_000_000.0 / iterations;
+    }
+
+    private static void report(int size, String method, double millis) {
+        System.out.printf("%-10d %-22s %14.3f%n", size, method, millis);
+    }
+}